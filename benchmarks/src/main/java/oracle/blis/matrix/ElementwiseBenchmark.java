@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.foreign.Arena;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Unary, binary and ternary elementwise operations, including the scalar, row-vector and column-vector
+ * broadcasts.
+ * <p>
+ * An operator that is a kernel may take the kernel fast path, depending on the layout of the matrices,
+ * otherwise the operation falls back to per-element access.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ElementwiseBenchmark {
+
+    public enum Operator {
+        // A lambda expression, always takes the fallback
+        LAMBDA,
+        // A kernel, takes the fast path if the layout permits
+        KERNEL,
+        // A kernel implemented with the Vector API, takes the fast path if the layout permits
+        VECTOR,
+    }
+
+    @Param({"256", "1024", "4096"})
+    long size;
+
+    @Param({"CONTIGUOUS", "VIEW", "ROW_MAJOR"})
+    Layout layout;
+
+    @Param({"LAMBDA", "KERNEL", "VECTOR"})
+    Operator operator;
+
+    Arena arena;
+    DoubleMatrix a, b, c, r;
+    DoubleMatrix scalar, rowVector, columnVector;
+    DoubleUnaryOperator negate;
+    DoubleBinaryOperator add;
+    DoubleTernaryOperator fma;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        arena = Arena.ofShared();
+        a = layout.newMatrix(arena, size, size);
+        b = layout.newMatrix(arena, size, size);
+        c = layout.newMatrix(arena, size, size);
+        r = layout.newMatrix(arena, size, size);
+        scalar = layout.newMatrix(arena, 1, 1);
+        rowVector = layout.newMatrix(arena, 1, size);
+        columnVector = layout.newMatrix(arena, size, 1);
+        a.randm();
+        b.randm();
+        c.randm();
+        scalar.randm();
+        rowVector.randm();
+        columnVector.randm();
+
+        switch (operator) {
+            case LAMBDA -> {
+                negate = v -> -v;
+                add = (x, y) -> x + y;
+                fma = (x, y, z) -> x * y + z;
+            }
+            case KERNEL -> {
+                negate = (DoubleBroadcastKernel.UnaryBroadcastKernel) v -> -v;
+                add = (DoubleBroadcastKernel.BinaryBinaryBroadcastKernel) (x, y) -> x + y;
+                fma = (DoubleBroadcastKernel.TernaryBroadcastKernel) (x, y, z) -> x * y + z;
+            }
+            case VECTOR -> {
+                negate = DoubleVectorKernel.NEG;
+                add = DoubleVectorKernel.ADD;
+                fma = DoubleVectorKernel.FMA;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public void unary() {
+        a.elementwise(r, negate);
+    }
+
+    @Benchmark
+    public void binarySameSize() {
+        a.elementwise(b, r, add);
+    }
+
+    @Benchmark
+    public void binaryScalar() {
+        a.elementwise(scalar, r, add);
+    }
+
+    @Benchmark
+    public void binaryRowVector() {
+        a.elementwise(rowVector, r, add);
+    }
+
+    @Benchmark
+    public void binaryColumnVector() {
+        a.elementwise(columnVector, r, add);
+    }
+
+    @Benchmark
+    public void ternarySameSize() {
+        a.elementwise(b, c, r, fma);
+    }
+
+    @Benchmark
+    public void ternaryRowVector() {
+        a.elementwise(rowVector, rowVector, r, fma);
+    }
+
+    @Benchmark
+    public void ternaryColumnVector() {
+        a.elementwise(columnVector, columnVector, r, fma);
+    }
+}
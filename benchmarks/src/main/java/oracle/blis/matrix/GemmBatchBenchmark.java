@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.foreign.Arena;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A batch of products C[i] := C[i] + A[i] * B[i] of small square matrices.
+ * <p>
+ * The {@code loop} benchmark calls gemm for each item in turn, to compare the {@code batch} and
+ * {@code stridedBatch} benchmarks against.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GemmBatchBenchmark {
+    static final BlisOperations BLI = BlisOperations.singleton();
+
+    @Param({"8", "16", "32", "64"})
+    long size;
+
+    @Param({"1024"})
+    int count;
+
+    Arena arena;
+    DoubleMatrix a, b, c;
+    DoubleMatrix[] as, bs, cs;
+    Matrix<?>[] alphas, betas;
+    double flops;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        arena = Arena.ofShared();
+        // Items are adjacent square sub-matrices
+        a = Matrix.newDoubleMatrix(arena, size, size * count);
+        b = Matrix.newDoubleMatrix(arena, size, size * count);
+        c = Matrix.newDoubleMatrix(arena, size, size * count);
+        a.randm();
+        b.randm();
+
+        as = new DoubleMatrix[count];
+        bs = new DoubleMatrix[count];
+        cs = new DoubleMatrix[count];
+        for (int i = 0; i < count; i++) {
+            as[i] = a.subMatrix(0, i * size, size, size);
+            bs[i] = b.subMatrix(0, i * size, size, size);
+            cs[i] = c.subMatrix(0, i * size, size, size);
+        }
+        alphas = new Matrix<?>[]{Matrix.one()};
+        betas = new Matrix<?>[]{Matrix.one()};
+
+        flops = 2.0 * size * size * size * count;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public void loop(FlopCounter counter) {
+        for (int i = 0; i < count; i++) {
+            BLI.gemm(Matrix.one(), as[i], bs[i], Matrix.one(), cs[i]);
+        }
+        counter.add(flops);
+    }
+
+    @Benchmark
+    public void batch(FlopCounter counter) {
+        BLI.gemmBatch(alphas, as, bs, betas, cs);
+        counter.add(flops);
+    }
+
+    @Benchmark
+    public void stridedBatch(FlopCounter counter) {
+        BLI.gemmStridedBatch(Matrix.one(),
+                as[0], size * size,
+                bs[0], size * size,
+                Matrix.one(),
+                cs[0], size * size,
+                count);
+        counter.add(flops);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import oracle.blis.binding.blis_h;
+import oracle.blis.binding.obj_t;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Layouts of the matrices operated on by the benchmarks, which determine whether an operation can take the
+ * kernel fast path or falls back to per-element access.
+ */
+public enum Layout {
+    // Column-major, zero offset, as created by Matrix.newDoubleMatrix
+    CONTIGUOUS,
+    // Column-major view, with a non-zero offset, into the interior of a larger matrix
+    VIEW,
+    // Row-major, zero offset, with the strides of a transposed column-major matrix
+    ROW_MAJOR,
+    ;
+
+    DoubleMatrix newMatrix(Arena arena, long rows, long columns) {
+        return switch (this) {
+            case CONTIGUOUS -> Matrix.newDoubleMatrix(arena, rows, columns);
+            case VIEW -> Matrix.newDoubleMatrix(arena, rows + 2, columns + 2)
+                    .subMatrix(1, 1, rows, columns);
+            case ROW_MAJOR -> {
+                MemorySegment buffer = arena.allocate(MemoryLayout.sequenceLayout(rows * columns, ValueLayout.JAVA_DOUBLE));
+                MemorySegment obj = obj_t.allocate(arena);
+                blis_h.bli_obj_create_with_attached_buffer(
+                        blis_h.BLIS_DOUBLE(),
+                        rows, columns,
+                        buffer,
+                        // Row-major order
+                        columns, 1,
+                        obj);
+                yield new DoubleMatrix(arena, obj, buffer);
+            }
+        };
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.foreign.Arena;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Reductions over all elements, over each row, and over each column.
+ * <p>
+ * An operator that is a kernel may take the kernel fast path, depending on the layout of the matrices,
+ * otherwise the reduction falls back to per-element access.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReductionBenchmark {
+
+    @Param({"256", "1024", "4096"})
+    long size;
+
+    @Param({"CONTIGUOUS", "VIEW", "ROW_MAJOR"})
+    Layout layout;
+
+    @Param({"LAMBDA", "KERNEL", "VECTOR"})
+    ElementwiseBenchmark.Operator operator;
+
+    Arena arena;
+    DoubleMatrix a;
+    DoubleMatrix rowResult, columnResult;
+    DoubleBinaryOperator sum;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        arena = Arena.ofShared();
+        a = layout.newMatrix(arena, size, size);
+        rowResult = layout.newMatrix(arena, size, 1);
+        columnResult = layout.newMatrix(arena, 1, size);
+        a.randm();
+
+        sum = switch (operator) {
+            case LAMBDA -> (x, y) -> x + y;
+            case KERNEL -> (DoubleBroadcastKernel.ReductionBroadcastKernel) (x, y) -> x + y;
+            case VECTOR -> DoubleVectorKernel.SUM;
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public double reduction() {
+        return a.reduction(sum);
+    }
+
+    @Benchmark
+    public void reductionRow() {
+        a.reductionRow(rowResult, sum);
+    }
+
+    @Benchmark
+    public void reductionColumn() {
+        a.reductionColumn(columnResult, sum);
+    }
+}
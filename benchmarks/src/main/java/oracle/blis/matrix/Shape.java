@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+/**
+ * Shapes swept by the benchmarks, derived from a single size parameter.
+ * <p>
+ * For an operation of the form {@code C(m x n) := A(m x k) * B(k x n)} the shape determines {@code m} and
+ * {@code k}, the dimensions of {@code A}, and {@code n} is always the size.
+ */
+public enum Shape {
+    // m = n = k = size
+    SQUARE,
+    // m = size, k = narrow, a tall panel of A against a thin block of B
+    TALL_SKINNY,
+    // m = narrow, k = size, a thin block of A against a tall panel of B
+    SHORT_WIDE,
+    ;
+
+    // The narrow dimension of the skinny shapes
+    static final long NARROW = 16;
+
+    long m(long size) {
+        return this == SHORT_WIDE ? Math.min(size, NARROW) : size;
+    }
+
+    long k(long size) {
+        return this == TALL_SKINNY ? Math.min(size, NARROW) : size;
+    }
+
+    long n(long size) {
+        return size;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import oracle.blis.binding.blis_h;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.foreign.Arena;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * C := beta * C + alpha * A * A^T, where A is m x k and C is m x m, symmetric and stored in the lower triangle.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SyrkBenchmark {
+    static final BlisOperations BLI = BlisOperations.singleton();
+
+    @Param({"4", "16", "64", "256", "1024", "4096", "8192"})
+    long size;
+
+    @Param({"SQUARE", "TALL_SKINNY", "SHORT_WIDE"})
+    Shape shape;
+
+    Arena arena;
+    DoubleMatrix a;
+    Matrix<Double> c;
+    double flops;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        long m = shape.m(size);
+        long k = shape.k(size);
+
+        arena = Arena.ofShared();
+        a = Matrix.newDoubleMatrix(arena, m, k);
+        a.randm();
+        c = Matrix.newDoubleMatrix(arena, m, m)
+                .withStruc(Matrix.Structure.SYMMETRIC)
+                .withUplo(Matrix.Uplo.LOWER);
+
+        // Only the lower triangle, including the diagonal, is computed
+        flops = (double) m * (m + 1) * k;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public void wrapper(FlopCounter counter) {
+        BLI.syrk(Matrix.one(), a, Matrix.one(), c);
+        counter.add(flops);
+    }
+
+    @Benchmark
+    public void raw(FlopCounter counter) {
+        blis_h.bli_syrk(blis_h.BLIS_ONE(), a.obj(), blis_h.BLIS_ONE(), c.obj());
+        counter.add(flops);
+    }
+}
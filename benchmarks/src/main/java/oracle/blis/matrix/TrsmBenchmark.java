@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import oracle.blis.binding.blis_h;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.foreign.Arena;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A * X = alpha * B, where A is m x m lower triangular and B is m x k, solved in place in B.
+ * <p>
+ * A is the identity so that repeatedly solving in place leaves B unchanged, avoiding overflow or
+ * subnormal values skewing the results, while BLIS still performs the full solve.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrsmBenchmark {
+    static final BlisOperations BLI = BlisOperations.singleton();
+
+    @Param({"4", "16", "64", "256", "1024", "4096", "8192"})
+    long size;
+
+    @Param({"SQUARE", "TALL_SKINNY", "SHORT_WIDE"})
+    Shape shape;
+
+    Arena arena;
+    Matrix<Double> a;
+    DoubleMatrix b;
+    double flops;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        long m = shape.m(size);
+        long k = shape.k(size);
+
+        arena = Arena.ofShared();
+        DoubleMatrix t = Matrix.newDoubleMatrix(arena, m, m);
+        BLI.setd(Matrix.one(), t);
+        a = t.withStruc(Matrix.Structure.TRIANGULAR)
+                .withUplo(Matrix.Uplo.LOWER);
+        b = Matrix.newDoubleMatrix(arena, m, k);
+        b.randm();
+
+        flops = (double) m * m * k;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public void wrapper(FlopCounter counter) {
+        BLI.trsm(Matrix.Side.LEFT, Matrix.one(), a, b);
+        counter.add(flops);
+    }
+
+    @Benchmark
+    public void raw(FlopCounter counter) {
+        blis_h.bli_trsm(blis_h.BLIS_LEFT(), blis_h.BLIS_ONE(), a.obj(), b.obj());
+        counter.add(flops);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Index of the minimum or maximum element of each row or column of a double matrix.
+ * <p>
+ * NaN elements are ignored, and the first index is chosen if several elements are equal. The index is -1 if there
+ * are no elements other than NaN.
+ * <p>
+ * Contiguous rows or columns are scanned with vectors, each lane tracking its best element and its index. Otherwise
+ * the contiguous rows or columns of the other dimension are streamed through a block of results, as for
+ * {@link DoubleMatrix#reductionRow}.
+ */
+final class ArgReduction {
+    static final VectorSpecies<Double> SPECIES = DoubleVectorKernel.SPECIES;
+
+    // Number of results of a block that is updated as regions are streamed
+    static final int BLOCK = 1024;
+
+    private ArgReduction() {
+    }
+
+    // Index of the best element of each row of a, i.e. a column index
+    static long[] row(DoubleMatrix a, boolean max) {
+        return lines(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride, a.rows, a.columns, max);
+    }
+
+    // Index of the best element of each column of a, i.e. a row index
+    static long[] column(DoubleMatrix a, boolean max) {
+        return lines(a.buffer, a.linearIndex(0, 0), a.columnStride, a.rowStride, a.columns, a.rows, max);
+    }
+
+    // Each of the lines of the matrix is reduced, where a line has length elements separated by the element stride
+    private static long[] lines(MemorySegment a, long offset, long lineStride, long elementStride,
+                                long lines, long length, boolean max) {
+        long[] r = new long[Math.toIntExact(lines)];
+        boolean isParallel = lines * length > DoubleBroadcastKernel.PARALLEL_THRESHOLD;
+        if (elementStride == 1) {
+            // Contiguous lines
+            IntStream s = IntStream.range(0, r.length);
+            (isParallel ? s.parallel() : s).forEach(l ->
+                    r[l] = contiguous(a, offset + l * lineStride, length, max));
+        } else if (lineStride == 1) {
+            // Contiguous across lines, stream each region of elements at the same position of the lines
+            int blocks = Math.toIntExact((lines + BLOCK - 1) / BLOCK);
+            IntStream s = IntStream.range(0, blocks);
+            (isParallel ? s.parallel() : s).forEach(b -> {
+                int from = b * BLOCK;
+                int n = (int) Math.min(BLOCK, lines - from);
+                streaming(a, offset + from, elementStride, n, length, max, r, from);
+            });
+        } else {
+            for (int l = 0; l < r.length; l++) {
+                r[l] = strided(a, offset + l * lineStride, elementStride, length, max);
+            }
+        }
+        return r;
+    }
+
+    private static boolean isBetter(double e, double best, boolean max) {
+        return max ? e > best : e < best;
+    }
+
+    private static VectorMask<Double> isBetter(DoubleVector e, DoubleVector best, DoubleVector index, boolean max) {
+        // Better than the best, or the first element that is not NaN
+        return e.compare(max ? VectorOperators.GT : VectorOperators.LT, best)
+                .or(index.compare(VectorOperators.LT, 0.0).and(e.compare(VectorOperators.EQ, e)));
+    }
+
+    private static long strided(MemorySegment a, long offset, long stride, long length, boolean max) {
+        double best = Double.NaN;
+        long index = -1;
+        for (long i = 0; i < length; i++) {
+            double e = a.getAtIndex(ValueLayout.JAVA_DOUBLE, offset + i * stride);
+            if (e == e && (index < 0 || isBetter(e, best, max))) {
+                best = e;
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    private static long contiguous(MemorySegment a, long offset, long length, boolean max) {
+        // Indexes are held as doubles, exact up to 2^53
+        DoubleVector bestV = DoubleVector.broadcast(SPECIES, Double.NaN);
+        DoubleVector indexV = DoubleVector.broadcast(SPECIES, -1.0);
+        DoubleVector iotaV = DoubleVector.zero(SPECIES).addIndex(1);
+        long i = 0;
+        for (long upperBound = length - length % SPECIES.length(); i < upperBound; i += SPECIES.length()) {
+            DoubleVector e = DoubleVector.fromMemorySegment(SPECIES, a, (offset + i) * Double.BYTES,
+                    ByteOrder.nativeOrder());
+            VectorMask<Double> m = isBetter(e, bestV, indexV, max);
+            bestV = bestV.blend(e, m);
+            indexV = indexV.blend(iotaV.add(i), m);
+        }
+
+        // Best of the lanes, the first index of equal elements
+        double best = Double.NaN;
+        long index = -1;
+        for (int l = 0; l < SPECIES.length(); l++) {
+            long lIndex = (long) indexV.lane(l);
+            double lBest = bestV.lane(l);
+            if (lIndex >= 0 && (index < 0 || isBetter(lBest, best, max) || (lBest == best && lIndex < index))) {
+                best = lBest;
+                index = lIndex;
+            }
+        }
+        for (; i < length; i++) {
+            double e = a.getAtIndex(ValueLayout.JAVA_DOUBLE, offset + i);
+            if (e == e && (index < 0 || isBetter(e, best, max))) {
+                best = e;
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    // Results [from, from + n) of contiguous lines, streaming length regions separated by the stride
+    private static void streaming(MemorySegment a, long offset, long stride, int n, long length, boolean max,
+                                  long[] r, int from) {
+        double[] best = new double[n];
+        double[] index = new double[n];
+        Arrays.fill(best, Double.NaN);
+        Arrays.fill(index, -1.0);
+        int upperBound = n - n % SPECIES.length();
+        for (long k = 0; k < length; k++) {
+            long aK = offset + k * stride;
+            DoubleVector kV = DoubleVector.broadcast(SPECIES, k);
+            int l = 0;
+            for (; l < upperBound; l += SPECIES.length()) {
+                DoubleVector e = DoubleVector.fromMemorySegment(SPECIES, a, (aK + l) * Double.BYTES,
+                        ByteOrder.nativeOrder());
+                DoubleVector bestV = DoubleVector.fromArray(SPECIES, best, l);
+                DoubleVector indexV = DoubleVector.fromArray(SPECIES, index, l);
+                VectorMask<Double> m = isBetter(e, bestV, indexV, max);
+                bestV.blend(e, m).intoArray(best, l);
+                indexV.blend(kV, m).intoArray(index, l);
+            }
+            for (; l < n; l++) {
+                double e = a.getAtIndex(ValueLayout.JAVA_DOUBLE, aK + l);
+                if (e == e && (index[l] < 0 || isBetter(e, best[l], max))) {
+                    best[l] = e;
+                    index[l] = k;
+                }
+            }
+        }
+        for (int l = 0; l < n; l++) {
+            r[from + l] = (long) index[l];
+        }
+    }
+}
@@ -24,8 +24,11 @@
 package oracle.blis.matrix;
 
 import oracle.blis.binding.blis_h;
+import oracle.blis.binding.obj_t;
 
 import java.lang.annotation.Target;
+import java.lang.foreign.MemorySegment;
+import java.util.stream.IntStream;
 
 import static java.lang.annotation.ElementType.METHOD;
 
@@ -55,79 +58,111 @@ public final class BlisOperations {
 
     @Expression("B := B + trans?(A)")
     public void addv(Matrix<?> x, Matrix<?> y) {
-        blis_h.bli_addv(x.obj, y.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_addv(x.obj(), y.obj());
+        e.commitBlis("addv", y, x, null, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 1, 2));
     }
 
     public void amaxv(Matrix<?> x, Matrix<?> index) {
-        blis_h.bli_amaxv(x.obj, index.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_amaxv(x.obj(), index.obj());
+        e.commitBlis("amaxv", x, index, null, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 1, 2));
     }
 
     @Expression("y := y + conj?(alpha) * conj?(x)")
     public void axpyv(Matrix<?> alpha, Matrix<?> x, Matrix<?> y) {
-        blis_h.bli_axpyv(alpha.obj, x.obj, y.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_axpyv(alpha.obj(), x.obj(), y.obj());
+        e.commitBlis("axpyv", y, x, null, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 2, 8));
     }
 
     @Expression("y := conj?(beta) * y + conj?(alpha) * conj?(x)")
     public void axpbyv(Matrix<?> alpha, Matrix<?> x, Matrix<?> beta, Matrix<?> y) {
-        blis_h.bli_axpbyv(alpha.obj, x.obj, beta.obj, y.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_axpbyv(alpha.obj(), x.obj(), beta.obj(), y.obj());
+        e.commitBlis("axpbyv", y, x, null, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 3, 14));
     }
 
     @Expression("y := conj?(x)")
     public void copyv(Matrix<?> x, Matrix<?> y) {
-        blis_h.bli_copyv(x.obj, y.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_copyv(x.obj(), y.obj());
+        e.commitBlis("copyv", y, x, null, 0, 0);
     }
 
     @Expression("rho := conj?(x)^T * conj?(y)")
     public void dotv(Matrix<?> x, Matrix<?> y, Matrix<?> rho) {
-        blis_h.bli_dotv(x.obj, y.obj, rho.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_dotv(x.obj(), y.obj(), rho.obj());
+        e.commitBlis("dotv", x, y, rho, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 2, 8));
     }
 
     @Expression("rho := conj?(x)^T * conj?(y)")
     public void dotxv(Matrix<?> alpha, Matrix<?> x, Matrix<?> y, Matrix<?> beta, Matrix<?> rho) {
-        blis_h.bli_dotxv(alpha.obj, x.obj, y.obj, beta.obj, rho.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_dotxv(alpha.obj(), x.obj(), y.obj(), beta.obj(), rho.obj());
+        e.commitBlis("dotxv", x, y, rho, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 2, 8));
     }
 
     public void bli_invertv(Matrix<?> x) {
-        blis_h.bli_invertv(x.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_invertv(x.obj());
+        e.commitBlis("invertv", x, null, null, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 1, 6));
     }
 
     @Expression("x := conj?(alpha) * x")
     public void scalv(Matrix<?> alpha, Matrix<?> x) {
-        blis_h.bli_scalv(alpha.obj, x.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_scalv(alpha.obj(), x.obj());
+        e.commitBlis("scalv", x, null, null, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 1, 6));
     }
 
     @Expression("y := conj?(alpha) * conj?(x)")
     public void scal2v(Matrix<?> alpha, Matrix<?> x, Matrix<?> y) {
-        blis_h.bli_scal2v(alpha.obj, x.obj, y.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_scal2v(alpha.obj(), x.obj(), y.obj());
+        e.commitBlis("scal2v", y, x, null, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 1, 6));
     }
 
     @Expression("x := conj?(alpha)")
     public void setv(Matrix<?> alpha, Matrix<?> x) {
-        blis_h.bli_setv(alpha.obj, x.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_setv(alpha.obj(), x.obj());
+        e.commitBlis("setv", x, null, null, 0, 0);
     }
 
     @Expression("real(x) := real(alpha)")
     public void setrv(Matrix<?> alpha, Matrix<?> x) {
-        blis_h.bli_setrv(alpha.obj, x.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_setrv(alpha.obj(), x.obj());
+        e.commitBlis("setrv", x, null, null, 0, 0);
     }
 
     @Expression("imag(x) := real(alpha)")
     public void setiv(Matrix<?> alpha, Matrix<?> x) {
-        blis_h.bli_setiv(alpha.obj, x.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_setiv(alpha.obj(), x.obj());
+        e.commitBlis("setiv", x, null, null, 0, 0);
     }
 
     @Expression("y := y - conj?(x)")
     public void subv(Matrix<?> x, Matrix<?> y) {
-        blis_h.bli_subv(x.obj, y.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_subv(x.obj(), y.obj());
+        e.commitBlis("subv", y, x, null, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 1, 2));
     }
 
     public void swapv(Matrix<?> x, Matrix<?> y) {
-        blis_h.bli_swapv(x.obj, y.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_swapv(x.obj(), y.obj());
+        e.commitBlis("swapv", y, x, null, 0, 0);
     }
 
     @Expression("y := conj?(beta) * y + conj?(x)")
     public void xpbyv(Matrix<?> x, Matrix<?> beta, Matrix<?> y) {
-        blis_h.bli_xpbyv(x.obj, beta.obj, y.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_xpbyv(x.obj(), beta.obj(), y.obj());
+        e.commitBlis("xpbyv", y, x, null, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 2, 8));
     }
 
 
@@ -135,58 +170,80 @@ public final class BlisOperations {
 
     @Expression("B := B + trans?(A)")
     public void addd(Matrix<?> a, Matrix<?> b) {
-        blis_h.bli_addd(a.obj, b.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_addd(a.obj(), b.obj());
+        e.commitBlis("addd", b, a, null, 0, MatrixEvent.flops(a, Math.min(a.rows, a.columns), 1, 2));
     }
 
     @Expression("B := B + conj?(alpha) * trans?(A)")
     public void axpyd(Matrix<?> alpha, Matrix<?> a, Matrix<?> b) {
-        blis_h.bli_axpyd(alpha.obj, a.obj, b.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_axpyd(alpha.obj(), a.obj(), b.obj());
+        e.commitBlis("axpyd", b, a, null, 0, MatrixEvent.flops(a, Math.min(a.rows, a.columns), 2, 8));
     }
 
     @Expression("B := trans?(A)")
     public void copyd(Matrix<?> a, Matrix<?> b) {
-        blis_h.bli_copym(a.obj, b.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_copym(a.obj(), b.obj());
+        e.commitBlis("copyd", b, a, null, 0, 0);
     }
 
     public void invertd(Matrix<?> a) {
-        blis_h.bli_invertd(a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_invertd(a.obj());
+        e.commitBlis("invertd", a, null, null, 0, MatrixEvent.flops(a, Math.min(a.rows, a.columns), 1, 6));
     }
 
     @Expression("A := conj?(alpha) * A")
     public void scald(Matrix<?> alpha, Matrix<?> a) {
-        blis_h.bli_scald(alpha.obj, a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_scald(alpha.obj(), a.obj());
+        e.commitBlis("scald", a, null, null, 0, MatrixEvent.flops(a, Math.min(a.rows, a.columns), 1, 6));
     }
 
     @Expression("B := conj?(alpha) * trans?(A)")
     public void scal2d(Matrix<?> alpha, Matrix<?> a, Matrix<?> b) {
-        blis_h.bli_scal2d(alpha.obj, a.obj, b.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_scal2d(alpha.obj(), a.obj(), b.obj());
+        e.commitBlis("scal2d", b, a, null, 0, MatrixEvent.flops(a, Math.min(a.rows, a.columns), 1, 6));
     }
 
     @Expression("A := conj?(alpha)")
     public void setd(Matrix<?> alpha, Matrix<?> a) {
         // check scalar otherwise exception
-        blis_h.bli_setd(alpha.obj, a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_setd(alpha.obj(), a.obj());
+        e.commitBlis("setd", a, null, null, 0, 0);
     }
 
     @Expression("imag(A) := conj?(alpha)")
     public void setid(Matrix<?> alpha, Matrix<?> a) {
         // check scalar otherwise exception
-        blis_h.bli_setid(alpha.obj, a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_setid(alpha.obj(), a.obj());
+        e.commitBlis("setid", a, null, null, 0, 0);
     }
 
     public void shiftd(Matrix<?> alpha, Matrix<?> a) {
         // check scalar otherwise exception
-        blis_h.bli_shiftd(alpha.obj, a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_shiftd(alpha.obj(), a.obj());
+        e.commitBlis("shiftd", a, null, null, 0, MatrixEvent.flops(a, Math.min(a.rows, a.columns), 1, 2));
     }
 
     @Expression("B := B - trans?(A)")
     public void subd(Matrix<?> a, Matrix<?> b) {
-        blis_h.bli_subd(a.obj, b.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_subd(a.obj(), b.obj());
+        e.commitBlis("subd", b, a, null, 0, MatrixEvent.flops(a, Math.min(a.rows, a.columns), 1, 2));
     }
 
     @Expression("y := conj?(beta) * y + conj?(x)")
     public void xpbyd(Matrix<?> a, Matrix<?> beta, Matrix<?> b) {
-        blis_h.bli_xpbyd(a.obj, beta.obj, b.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_xpbyd(a.obj(), beta.obj(), b.obj());
+        e.commitBlis("xpbyd", b, a, null, 0, MatrixEvent.flops(a, Math.min(a.rows, a.columns), 2, 8));
     }
 
 
@@ -194,50 +251,79 @@ public final class BlisOperations {
 
     @Expression("B := B + trans?(A)")
     public void addm(Matrix<?> a, Matrix<?> b) {
-        blis_h.bli_addm(a.obj, b.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_addm(a.obj(), b.obj());
+        e.commitBlis("addm", b, a, null, 0, MatrixEvent.flops(a, MatrixEvent.elements(a), 1, 2));
     }
 
     @Expression("B := B + conj?(alpha) * trans?(A)")
     public void axpym(Matrix<?> alpha, Matrix<?> a, Matrix<?> b) {
-        blis_h.bli_axpym(alpha.obj, a.obj, b.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_axpym(alpha.obj(), a.obj(), b.obj());
+        e.commitBlis("axpym", b, a, null, 0, MatrixEvent.flops(a, MatrixEvent.elements(a), 2, 8));
     }
 
     @Expression("B := trans?(A)")
     public void copym(Matrix<?> a, Matrix<?> b) {
-        blis_h.bli_copym(a.obj, b.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_copym(a.obj(), b.obj());
+        e.commitBlis("copym", b, a, null, 0, 0);
+    }
+
+    // A and B may be of different datatypes
+    @Expression("B := trans?(A)")
+    public void castm(Matrix<?> a, Matrix<?> b) {
+        if (a.rows != b.rows || a.columns != b.columns) {
+            throw new IllegalArgumentException();
+        }
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_castm(a.obj(), b.obj());
+        e.commitBlis("castm", b, a, null, 0, 0);
     }
 
     @Expression("A := conj?(alpha) * A")
     public void scalm(Matrix<?> alpha, Matrix<?> a) {
-        blis_h.bli_scalm(alpha.obj, a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_scalm(alpha.obj(), a.obj());
+        e.commitBlis("scalm", a, null, null, 0, MatrixEvent.flops(a, MatrixEvent.elements(a), 1, 6));
     }
 
     @Expression("B := conj?(alpha) * trans?(A)")
     public void scal2m(Matrix<?> alpha, Matrix<?> a, Matrix<?> b) {
-        blis_h.bli_scal2m(alpha.obj, a.obj, b.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_scal2m(alpha.obj(), a.obj(), b.obj());
+        e.commitBlis("scal2m", b, a, null, 0, MatrixEvent.flops(a, MatrixEvent.elements(a), 1, 6));
     }
 
     @Expression("A := conj?(alpha)")
     public void setm(Matrix<?> alpha, Matrix<?> a) {
         // check scalar otherwise exception
-        blis_h.bli_setm(alpha.obj, a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_setm(alpha.obj(), a.obj());
+        e.commitBlis("setm", a, null, null, 0, 0);
     }
 
     @Expression("real(A) := conj?(alpha)")
     public void setrm(Matrix<?> alpha, Matrix<?> a) {
         // check scalar otherwise exception
-        blis_h.bli_setrm(alpha.obj, a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_setrm(alpha.obj(), a.obj());
+        e.commitBlis("setrm", a, null, null, 0, 0);
     }
 
     @Expression("imag(A) := conj?(alpha)")
     public void setim(Matrix<?> alpha, Matrix<?> a) {
         // check scalar otherwise exception
-        blis_h.bli_setim(alpha.obj, a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_setim(alpha.obj(), a.obj());
+        e.commitBlis("setim", a, null, null, 0, 0);
     }
 
     @Expression("B := B - trans?(A)")
     public void subm(Matrix<?> a, Matrix<?> b) {
-        blis_h.bli_subm(a.obj, b.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_subm(a.obj(), b.obj());
+        e.commitBlis("subm", b, a, null, 0, MatrixEvent.flops(a, MatrixEvent.elements(a), 1, 2));
     }
 
 
@@ -245,27 +331,37 @@ public final class BlisOperations {
 
     @Expression("y := y + conj?(alphax) * conj?(x) + conj?(alphay) * conj?(y)")
     public void axpy2v(Matrix<?> alphax, Matrix<?> alphay, Matrix<?> x, Matrix<?> y, Matrix<?> z) {
-        blis_h.bli_axpy2v(alphax.obj, alphay.obj, x.obj, y.obj, z.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_axpy2v(alphax.obj(), alphay.obj(), x.obj(), y.obj(), z.obj());
+        e.commitBlis("axpy2v", z, x, y, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 4, 16));
     }
 
     @Expression("rho := conj?(x)^T * conj?(y), y := y + conj?(alpha) * conj?(x)")
     public void dotaxpyv(Matrix<?> alpha, Matrix<?> xt, Matrix<?> x, Matrix<?> y, Matrix<?> rho, Matrix<?> z) {
-        blis_h.bli_dotaxpyv(alpha.obj, xt.obj, x.obj, y.obj, rho.obj, z.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_dotaxpyv(alpha.obj(), xt.obj(), x.obj(), y.obj(), rho.obj(), z.obj());
+        e.commitBlis("dotaxpyv", z, x, y, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 4, 16));
     }
 
     @Expression("y := y + alpha * conja(A) * conjx(x)")
     public void axpyf(Matrix<?> alpha, Matrix<?> a, Matrix<?> x, Matrix<?> y) {
-        blis_h.bli_axpyf(alpha.obj, a.obj, x.obj, y.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_axpyf(alpha.obj(), a.obj(), x.obj(), y.obj());
+        e.commitBlis("axpyf", y, a, x, a.columns, MatrixEvent.flops(a, MatrixEvent.elements(a), 2, 8));
     }
 
     @Expression("y := conj?(beta) * y + conj?(alpha) * conj?(A)^T * conj?(x)")
     public void dotxf(Matrix<?> alpha, Matrix<?> a, Matrix<?> x, Matrix<?> beta, Matrix<?> y) {
-        blis_h.bli_dotxf(alpha.obj, a.obj, x.obj, beta.obj, y.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_dotxf(alpha.obj(), a.obj(), x.obj(), beta.obj(), y.obj());
+        e.commitBlis("dotxf", y, a, x, a.rows, MatrixEvent.flops(a, MatrixEvent.elements(a), 2, 8));
     }
 
     @Expression("y := conj?(beta) * y + conj?(alpha) * conj?(A)^T * conj?(w), z := z + conj?(alpha) * conj?(A) * conj?(x)")
     public void dotxaxpyf(Matrix<?> alpha, Matrix<?> at, Matrix<?> a, Matrix<?> w, Matrix<?> x, Matrix<?> beta, Matrix<?> y, Matrix<?> z) {
-        blis_h.bli_dotxaxpyf(alpha.obj, at.obj, a.obj, w.obj, x.obj, beta.obj, y.obj, z.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_dotxaxpyf(alpha.obj(), at.obj(), a.obj(), w.obj(), x.obj(), beta.obj(), y.obj(), z.obj());
+        e.commitBlis("dotxaxpyf", a, y, z, 0, MatrixEvent.flops(a, MatrixEvent.elements(a), 4, 16));
     }
 
 
@@ -273,160 +369,347 @@ public final class BlisOperations {
 
     @Expression("y := conj?(beta) * y + conj?(alpha) * trans?(A) * conj?(x)")
     public void gemv(Matrix<?> alpha, Matrix<?> a, Matrix<?> x, Matrix<?> beta, Matrix<?> y) {
-        blis_h.bli_gemv(alpha.obj, a.obj, x.obj, beta.obj, y.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_gemv(alpha.obj(), a.obj(), x.obj(), beta.obj(), y.obj());
+        e.commitBlis("gemv", y, a, x, a.columns, MatrixEvent.flops(a, MatrixEvent.elements(a), 2, 8));
     }
 
     @Expression("A := A + conj?(alpha) * conj?(x) * conj?(y)^T")
     public void ger(Matrix<?> alpha, Matrix<?> x, Matrix<?> y, Matrix<?> a) {
-        blis_h.bli_ger(alpha.obj, x.obj, y.obj, a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_ger(alpha.obj(), x.obj(), y.obj(), a.obj());
+        e.commitBlis("ger", a, x, y, 1, MatrixEvent.flops(a, MatrixEvent.elements(a), 2, 8));
     }
 
     @Expression("y := conj?(beta) * y + conj?(alpha) * conj?(A) * conj?(x)")
     public void hemv(Matrix<?> alpha, Matrix<?> a, Matrix<?> x, Matrix<?> beta, Matrix<?> y) {
-        blis_h.bli_hemv(alpha.obj, a.obj, x.obj, beta.obj, y.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_hemv(alpha.obj(), a.obj(), x.obj(), beta.obj(), y.obj());
+        e.commitBlis("hemv", y, a, x, a.columns, MatrixEvent.flops(a, MatrixEvent.elements(a), 2, 8));
     }
 
     @Expression("A := A + conj?(alpha) * conj?(x) * conj?(x)^H")
     public void her(Matrix<?> alpha, Matrix<?> x, Matrix<?> a) {
-        blis_h.bli_her(alpha.obj, x.obj, a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_her(alpha.obj(), x.obj(), a.obj());
+        e.commitBlis("her", a, x, null, 1, MatrixEvent.flops(a, MatrixEvent.elements(a), 1, 4));
     }
 
     @Expression("A := A + alpha * conj?(x) * conj?(y)^H + conj(alpha) * conj?(y) * conj?(x)^H")
     public void her2(Matrix<?> alpha, Matrix<?> x, Matrix<?> y, Matrix<?> a) {
-        blis_h.bli_her2(alpha.obj, x.obj, y.obj, a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_her2(alpha.obj(), x.obj(), y.obj(), a.obj());
+        e.commitBlis("her2", a, x, y, 1, MatrixEvent.flops(a, MatrixEvent.elements(a), 2, 8));
     }
 
     @Expression("y := conj?(beta) * y + conj?(alpha) * conj?(A) * conj?(x)")
     public void symv(Matrix<?> alpha, Matrix<?> a, Matrix<?> x, Matrix<?> beta, Matrix<?> y) {
-        blis_h.bli_symv(alpha.obj, a.obj, x.obj, beta.obj, y.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_symv(alpha.obj(), a.obj(), x.obj(), beta.obj(), y.obj());
+        e.commitBlis("symv", y, a, x, a.columns, MatrixEvent.flops(a, MatrixEvent.elements(a), 2, 8));
     }
 
     @Expression("A := A + conj?(alpha) * conj?(x) * conj?(x)^T")
     public void syr(Matrix<?> alpha, Matrix<?> x, Matrix<?> a) {
-        blis_h.bli_syr(alpha.obj, x.obj, a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_syr(alpha.obj(), x.obj(), a.obj());
+        e.commitBlis("syr", a, x, null, 1, MatrixEvent.flops(a, MatrixEvent.elements(a), 1, 4));
     }
 
     @Expression("A := A + alpha * conj?(x) * conj?(y)^T + conj(alpha) * conj?(y) * conj?(x)^T")
     public void syr2(Matrix<?> alpha, Matrix<?> x, Matrix<?> y, Matrix<?> a) {
-        blis_h.bli_syr2(alpha.obj, x.obj, y.obj, a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_syr2(alpha.obj(), x.obj(), y.obj(), a.obj());
+        e.commitBlis("syr2", a, x, y, 1, MatrixEvent.flops(a, MatrixEvent.elements(a), 2, 8));
     }
 
     @Expression("x := conj?(alpha) * transa(A) * x")
     public void trmv(Matrix<?> alpha, Matrix<?> x, Matrix<?> a) {
-        blis_h.bli_trmv(alpha.obj, x.obj, a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_trmv(alpha.obj(), x.obj(), a.obj());
+        e.commitBlis("trmv", a, x, null, x.columns, MatrixEvent.flops(x, MatrixEvent.elements(x), 1, 4));
     }
 
     @Expression("transa(A) * x = alpha * y")
     public void trsv(Matrix<?> alpha, Matrix<?> a, Matrix<?> y) {
-        blis_h.bli_trsv(alpha.obj, a.obj, y.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_trsv(alpha.obj(), a.obj(), y.obj());
+        e.commitBlis("trsv", y, a, null, a.columns, MatrixEvent.flops(a, MatrixEvent.elements(a), 1, 4));
     }
 
 
     // Level-3 operations
+    // The runtime bound to the current thread, if any, controls the threads BLIS uses
 
+    // The operands may be of mixed datatypes, in which case the computation precision is that of C
     @Expression("C := beta * C + alpha * trans?(A) * trans?(B)")
     public void gemm(Matrix<?> alpha, Matrix<?> a, Matrix<?> b, Matrix<?> beta, Matrix<?> c) {
-        blis_h.bli_gemm(alpha.obj, a.obj, b.obj, beta.obj, c.obj);
+        checkGemm(alpha, a, b, beta, c);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_gemm_ex(alpha.obj(), a.obj(), b.obj(), beta.obj(), c.obj(),
+                MemorySegment.NULL, Rntm.currentRntm_t());
+        e.commitBlisRntm("gemm", c, a, b, a.columns, MatrixEvent.flops(c, c.rows * c.columns * a.columns, 2, 8));
+    }
+
+    // The computation precision overrides that of C, for example to accumulate single precision
+    // operands in double precision into a single precision C
+    @Expression("C := beta * C + alpha * trans?(A) * trans?(B)")
+    public void gemm(Matrix<?> alpha, Matrix<?> a, Matrix<?> b, Matrix<?> beta, Matrix<?> c,
+                     Matrix.Precision precision) {
+        checkGemm(alpha, a, b, beta, c);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_gemm_ex(alpha.obj(), a.obj(), b.obj(), beta.obj(), c.withComputationPrecision(precision).obj(),
+                MemorySegment.NULL, Rntm.currentRntm_t());
+        e.commitBlisRntm("gemm", c, a, b, a.columns, MatrixEvent.flops(c, c.rows * c.columns * a.columns, 2, 8));
+    }
+
+    static void checkGemm(Matrix<?> alpha, Matrix<?> a, Matrix<?> b, Matrix<?> beta, Matrix<?> c) {
+        if (a.rows != c.rows || b.columns != c.columns || a.columns != b.rows) {
+            throw new IllegalArgumentException(
+                    String.format("Mismatched matrices: a(%d, %d) x b(%d, %d) -> c(%d, %d)",
+                            a.rows, a.columns, b.rows, b.columns, c.rows, c.columns));
+        }
+        if (alpha.rows != 1 || alpha.columns != 1 || beta.rows != 1 || beta.columns != 1) {
+            throw new IllegalArgumentException("alpha and beta must be scalars");
+        }
+        // Constants are only supported as scalars
+        checkFloatingPoint(a);
+        checkFloatingPoint(b);
+        checkFloatingPoint(c);
+    }
+
+    static void checkFloatingPoint(Matrix<?> m) {
+        if (!m.dataType().isFloatingPoint()) {
+            throw new IllegalArgumentException("Unsupported datatype " + m.dataType());
+        }
     }
 
     @Expression("C := beta * C + alpha * conj?(A) * trans?(B), C := beta * C + alpha * trans?(B) * conj?(A)")
     public void hemm(Matrix.Side sidea, Matrix<?> alpha, Matrix<?> a, Matrix<?> b, Matrix<?> beta, Matrix<?> c) {
-        blis_h.bli_hemm(sidea.v, alpha.obj, a.obj, b.obj, beta.obj, c.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_hemm_ex(sidea.v, alpha.obj(), a.obj(), b.obj(), beta.obj(), c.obj(),
+                MemorySegment.NULL, Rntm.currentRntm_t());
+        e.commitBlisRntm("hemm", c, a, b, a.columns, MatrixEvent.flops(c, c.rows * c.columns * a.columns, 2, 8));
     }
 
     @Expression("C := beta * C + alpha * trans?(A) * trans?(A)^H")
     public void herk(Matrix<?> alpha, Matrix<?> a, Matrix<?> beta, Matrix<?> c) {
-        blis_h.bli_herk(alpha.obj, a.obj, beta.obj, c.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_herk_ex(alpha.obj(), a.obj(), beta.obj(), c.obj(),
+                MemorySegment.NULL, Rntm.currentRntm_t());
+        e.commitBlisRntm("herk", c, a, null, a.columns, MatrixEvent.flops(c, c.rows * c.columns * a.columns, 1, 4));
     }
 
     @Expression("C := beta * C + alpha * trans?(A) * trans?(B)^H + conj(alpha) * trans?(B) * trans?(A)^H")
     public void her2k(Matrix<?> alpha, Matrix<?> a, Matrix<?> b, Matrix<?> beta, Matrix<?> c) {
-        blis_h.bli_her2k(alpha.obj, a.obj, b.obj, beta.obj, c.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_her2k_ex(alpha.obj(), a.obj(), b.obj(), beta.obj(), c.obj(),
+                MemorySegment.NULL, Rntm.currentRntm_t());
+        e.commitBlisRntm("her2k", c, a, b, a.columns, MatrixEvent.flops(c, c.rows * c.columns * a.columns, 2, 8));
     }
 
     @Expression("C := beta * C + alpha * conj?(A) * trans?(B), C := beta * C + alpha * trans?(B) * conj?(A)")
     public void symm(Matrix.Side sidea, Matrix<?> alpha, Matrix<?> a, Matrix<?> b, Matrix<?> beta, Matrix<?> c) {
-        blis_h.bli_symm(sidea.v, alpha.obj, a.obj, b.obj, beta.obj, c.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_symm_ex(sidea.v, alpha.obj(), a.obj(), b.obj(), beta.obj(), c.obj(),
+                MemorySegment.NULL, Rntm.currentRntm_t());
+        e.commitBlisRntm("symm", c, a, b, a.columns, MatrixEvent.flops(c, c.rows * c.columns * a.columns, 2, 8));
     }
 
     @Expression("C := beta * C + alpha * trans?(A) * trans?(A)^T")
     public void syrk(Matrix<?> alpha, Matrix<?> a, Matrix<?> beta, Matrix<?> c) {
-        blis_h.bli_syrk(alpha.obj, a.obj, beta.obj, c.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_syrk_ex(alpha.obj(), a.obj(), beta.obj(), c.obj(),
+                MemorySegment.NULL, Rntm.currentRntm_t());
+        e.commitBlisRntm("syrk", c, a, null, a.columns, MatrixEvent.flops(c, c.rows * c.columns * a.columns, 1, 4));
     }
 
     @Expression("C := beta * C + alpha * trans?(A) * trans?(B)^T + alpha * trans?(B) * trans?(A)^T")
     public void syr2k(Matrix<?> alpha, Matrix<?> a, Matrix<?> b, Matrix<?> beta, Matrix<?> c) {
-        blis_h.bli_syr2k(alpha.obj, a.obj, b.obj, beta.obj, c.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_syr2k_ex(alpha.obj(), a.obj(), b.obj(), beta.obj(), c.obj(),
+                MemorySegment.NULL, Rntm.currentRntm_t());
+        e.commitBlisRntm("syr2k", c, a, b, a.columns, MatrixEvent.flops(c, c.rows * c.columns * a.columns, 2, 8));
     }
 
     @Expression("B := alpha * transa(A) * B, B := alpha * B * transa(A)")
     public void trmm(Matrix.Side sidea, Matrix<?> alpha, Matrix<?> a, Matrix<?> b) {
-        blis_h.bli_trmm(sidea.v, alpha.obj, a.obj, b.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_trmm_ex(sidea.v, alpha.obj(), a.obj(), b.obj(),
+                MemorySegment.NULL, Rntm.currentRntm_t());
+        e.commitBlisRntm("trmm", b, a, null, a.columns, MatrixEvent.flops(b, b.rows * b.columns * a.columns, 1, 4));
     }
 
     @Expression("C := beta * C + alpha * trans?(A) * trans?(B), C := beta * C + alpha * trans?(B) * trans?(A)")
     public void trmm3(Matrix.Side sidea, Matrix<?> alpha, Matrix<?> a, Matrix<?> b, Matrix<?> beta, Matrix<?> c) {
-        blis_h.bli_trmm3(sidea.v, alpha.obj, a.obj, b.obj, beta.obj, c.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_trmm3_ex(sidea.v, alpha.obj(), a.obj(), b.obj(), beta.obj(), c.obj(),
+                MemorySegment.NULL, Rntm.currentRntm_t());
+        e.commitBlisRntm("trmm3", c, a, b, a.columns, MatrixEvent.flops(c, c.rows * c.columns * a.columns, 1, 4));
     }
 
     @Expression("transa(A) * X = alpha * B, X * transa(A) = alpha * B")
     public void trsm(Matrix.Side sidea, Matrix<?> alpha, Matrix<?> a, Matrix<?> b) {
-        blis_h.bli_trsm(sidea.v, alpha.obj, a.obj, b.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_trsm_ex(sidea.v, alpha.obj(), a.obj(), b.obj(),
+                MemorySegment.NULL, Rntm.currentRntm_t());
+        e.commitBlisRntm("trsm", b, a, null, a.columns, MatrixEvent.flops(b, b.rows * b.columns * a.columns, 1, 4));
+    }
+
+
+    // Batched operations
+    // The items of a batch are operated on in parallel, and BLIS operates on each item single-threaded,
+    // so that many small products use all cores. The C of each item must not overlap with any other item
+
+    // The i'th item is C[i] := beta[i] * C[i] + alpha[i] * trans?(A[i]) * trans?(B[i])
+    // If there is only one alpha, or one beta, it is used for all items
+    public void gemmBatch(Matrix<?>[] alphas, Matrix<?>[] as, Matrix<?>[] bs, Matrix<?>[] betas, Matrix<?>[] cs) {
+        int n = cs.length;
+        if (as.length != n || bs.length != n ||
+                (alphas.length != 1 && alphas.length != n) || (betas.length != 1 && betas.length != n)) {
+            throw new IllegalArgumentException("Mismatched batch sizes");
+        }
+        for (int i = 0; i < n; i++) {
+            checkGemm(alphas[alphas.length == 1 ? 0 : i], as[i], bs[i], betas[betas.length == 1 ? 0 : i], cs[i]);
+        }
+
+        MatrixEvent e = MatrixEvent.start();
+        MemorySegment rntm = Rntm.singleThreaded().rntm;
+        IntStream.range(0, n).parallel().forEach(i ->
+                blis_h.bli_gemm_ex(alphas[alphas.length == 1 ? 0 : i].obj(), as[i].obj(), bs[i].obj(),
+                        betas[betas.length == 1 ? 0 : i].obj(), cs[i].obj(),
+                        MemorySegment.NULL, rntm));
+        e.commitGemmBatch("gemmBatch", as, bs, cs);
+    }
+
+    // A, B, and C are the first items of the batch, and describe the dimensions, strides, datatype,
+    // and properties of all items
+    // The i'th A, B, and C start at i * strideA, i * strideB, and i * strideC elements from the first items
+    public void gemmStridedBatch(Matrix<?> alpha,
+                                 Matrix<?> a, long strideA,
+                                 Matrix<?> b, long strideB,
+                                 Matrix<?> beta,
+                                 Matrix<?> c, long strideC,
+                                 long count) {
+        checkGemm(alpha, a, b, beta, c);
+        checkStridedBatch(a, strideA, count);
+        checkStridedBatch(b, strideB, count);
+        checkStridedBatch(c, strideC, count);
+
+        MatrixEvent e = MatrixEvent.start();
+        MemorySegment rntm = Rntm.singleThreaded().rntm;
+        IntStream.range(0, Math.toIntExact(count)).parallel().forEach(i ->
+                blis_h.bli_gemm_ex(alpha.obj(), item(a, strideA, i), item(b, strideB, i),
+                        beta.obj(), item(c, strideC, i),
+                        MemorySegment.NULL, rntm));
+        e.commitGemmBatch("gemmStridedBatch", a, b, c, count);
+    }
+
+    static void checkStridedBatch(Matrix<?> m, long stride, long count) {
+        if (stride < 0 || count < 0) {
+            throw new IllegalArgumentException();
+        }
+        // Empty items access no elements
+        if (count == 0 || m.rows == 0 || m.columns == 0) {
+            return;
+        }
+        // The last element of the last item must be in the buffer
+        long elementSize = obj_t.elem_size(m.obj());
+        long last = (count - 1) * stride + m.linearIndex(m.rows - 1, m.columns - 1);
+        if ((last + 1) * elementSize > m.buffer.byteSize()) {
+            throw new IndexOutOfBoundsException("Batch exceeds the buffer");
+        }
+    }
+
+    // Returns the obj_t of the i'th item, a copy of the obj_t of the first item whose buffer
+    // is offset by i * stride elements
+    private static MemorySegment item(Matrix<?> m, long stride, long i) {
+        MemorySegment first = m.obj();
+        MemorySegment item = Matrix.objSlot();
+        MemorySegment.copy(first, 0, item, 0, obj_t.layout().byteSize());
+        long offset = i * stride * obj_t.elem_size(first);
+        obj_t.buffer(item, MemorySegment.ofAddress(obj_t.buffer(first).address() + offset));
+        return item;
     }
 
-
     // Utility operations
     // Possibly some directly on Matrix
 
     public void asumv(Matrix<?> x, Matrix<?> asum) {
-        blis_h.bli_asumv(x.obj, asum.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_asumv(x.obj(), asum.obj());
+        e.commitBlis("asumv", x, asum, null, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 1, 2));
     }
 
     public void norm1m(Matrix<?> a, Matrix<?> norm) {
-        blis_h.bli_norm1m(a.obj, norm.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_norm1m(a.obj(), norm.obj());
+        e.commitBlis("norm1m", a, norm, null, 0, MatrixEvent.flops(a, MatrixEvent.elements(a), 1, 4));
     }
 
     public void normfm(Matrix<?> a, Matrix<?> norm) {
-        blis_h.bli_normfm(a.obj, norm.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_normfm(a.obj(), norm.obj());
+        e.commitBlis("normfm", a, norm, null, 0, MatrixEvent.flops(a, MatrixEvent.elements(a), 2, 4));
     }
 
     public void normim(Matrix<?> a, Matrix<?> norm) {
-        blis_h.bli_normim(a.obj, norm.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_normim(a.obj(), norm.obj());
+        e.commitBlis("normim", a, norm, null, 0, MatrixEvent.flops(a, MatrixEvent.elements(a), 1, 4));
     }
 
     public void norm1v(Matrix<?> a, Matrix<?> norm) {
-        blis_h.bli_norm1v(a.obj, norm.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_norm1v(a.obj(), norm.obj());
+        e.commitBlis("norm1v", a, norm, null, 0, MatrixEvent.flops(a, MatrixEvent.elements(a), 1, 4));
     }
 
     public void normfv(Matrix<?> a, Matrix<?> norm) {
-        blis_h.bli_normfm(a.obj, norm.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_normfv(a.obj(), norm.obj());
+        e.commitBlis("normfv", a, norm, null, 0, MatrixEvent.flops(a, MatrixEvent.elements(a), 2, 4));
     }
 
     public void normiv(Matrix<?> a, Matrix<?> norm) {
-        blis_h.bli_normim(a.obj, norm.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_normiv(a.obj(), norm.obj());
+        e.commitBlis("normiv", a, norm, null, 0, MatrixEvent.flops(a, MatrixEvent.elements(a), 1, 4));
     }
 
     public void mkherm(Matrix<?> a) {
-        blis_h.bli_mkherm(a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_mkherm(a.obj());
+        e.commitBlis("mkherm", a, null, null, 0, 0);
     }
 
     public void mksymm(Matrix<?> a) {
-        blis_h.bli_mksymm(a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_mksymm(a.obj());
+        e.commitBlis("mksymm", a, null, null, 0, 0);
     }
 
     public void mktrim(Matrix<?> a) {
-        blis_h.bli_mktrim(a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_mktrim(a.obj());
+        e.commitBlis("mktrim", a, null, null, 0, 0);
     }
 
     public void randv(Matrix<?> a) {
-        blis_h.bli_randv(a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_randv(a.obj());
+        e.commitBlis("randv", a, null, null, 0, 0);
     }
 
     public void randm(Matrix<?> a) {
-        blis_h.bli_randm(a.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_randm(a.obj());
+        e.commitBlis("randm", a, null, null, 0, 0);
     }
 
     public void sumsqv(Matrix<?> x, Matrix<?> scale, Matrix<?> sumsq) {
-        blis_h.bli_sumsqv(x.obj, scale.obj, sumsq.obj);
+        MatrixEvent e = MatrixEvent.start();
+        blis_h.bli_sumsqv(x.obj(), scale.obj(), sumsq.obj());
+        e.commitBlis("sumsqv", x, scale, sumsq, 0, MatrixEvent.flops(x, MatrixEvent.elements(x), 2, 4));
     }
 }
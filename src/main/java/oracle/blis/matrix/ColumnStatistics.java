@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Summary statistics of the columns of a double matrix, computed in one pass over the matrix.
+ * <p>
+ * Each column is split into chunks of rows, in parallel for large matrices. The mean and variance of a chunk are
+ * accumulated with Welford's algorithm, in the lanes of a vector for contiguous columns, and the chunks are combined
+ * with the pairwise update of Chan et al.
+ * <p>
+ * Quantiles are approximate, interpolated from a systematic sample of at most {@value #QUANTILE_SAMPLE_SIZE}
+ * elements of each column that is taken in the same pass. They are exact for columns with no more rows than that.
+ */
+final class ColumnStatistics {
+    static final VectorSpecies<Double> SPECIES = DoubleVectorKernel.SPECIES;
+
+    static final int QUANTILE_SAMPLE_SIZE = 8192;
+
+    private ColumnStatistics() {
+    }
+
+    // Statistics of a chunk of a column
+    static final class Partial {
+        long n;
+        double mean;
+        double m2;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        void accept(double x) {
+            n++;
+            double d = x - mean;
+            mean += d / n;
+            m2 += d * (x - mean);
+            min = Math.min(min, x);
+            max = Math.max(max, x);
+        }
+
+        // Chan et al, combine the statistics of a disjoint chunk
+        void combine(long nB, double meanB, double m2B, double minB, double maxB) {
+            if (nB == 0) {
+                return;
+            }
+            long nA = n;
+            n = nA + nB;
+            double d = meanB - mean;
+            mean += d * nB / n;
+            m2 += m2B + d * d * ((double) nA * nB / n);
+            min = Math.min(min, minB);
+            max = Math.max(max, maxB);
+        }
+
+        void combine(Partial b) {
+            combine(b.n, b.mean, b.m2, b.min, b.max);
+        }
+    }
+
+    static void describe(DoubleMatrix a, DoubleMatrix r, double[] quantiles) {
+        for (double q : quantiles) {
+            if (!(q >= 0.0 && q <= 1.0)) {
+                throw new IllegalArgumentException("Quantile out of range [0, 1]: " + q);
+            }
+        }
+        if (r.rows != DoubleMatrix.Statistic.values().length + quantiles.length || r.columns != a.columns) {
+            throw new IllegalArgumentException(
+                    String.format("Mismatched matrices: a(%d, %d) -> r(%d, %d), with %d quantiles",
+                            a.rows, a.columns, r.rows, r.columns, quantiles.length));
+        }
+
+        long chunk = DoubleBroadcastKernel.PARALLEL_CHUNK_SIZE;
+        int chunksPerColumn = Math.toIntExact(Math.max(1, (a.rows + chunk - 1) / chunk));
+        // Sample every step-th row, when quantiles are requested
+        long step = quantiles.length == 0 ? 0 : Math.max(1, (a.rows + QUANTILE_SAMPLE_SIZE - 1) / QUANTILE_SAMPLE_SIZE);
+        // Each chunk writes its part of the sample of its column
+        double[][] samples = new double[step == 0 ? 0 : Math.toIntExact(a.columns)][];
+        for (int j = 0; j < samples.length; j++) {
+            samples[j] = new double[Math.toIntExact((a.rows + step - 1) / step)];
+        }
+
+        Partial[] partials = new Partial[Math.toIntExact(a.columns * chunksPerColumn)];
+        IntStream tasks = IntStream.range(0, partials.length);
+        if (a.rows * a.columns > DoubleBroadcastKernel.PARALLEL_THRESHOLD) {
+            tasks = tasks.parallel();
+        }
+        tasks.forEach(t -> {
+            long j = t / chunksPerColumn;
+            long start = (t % chunksPerColumn) * chunk;
+            long end = Math.min(a.rows, start + chunk);
+            Partial p = new Partial();
+            if (a.rowStride == 1) {
+                accumulate(p, a.buffer, a.linearIndex(start, j), end - start);
+            } else {
+                for (long i = start; i < end; i++) {
+                    p.accept(a.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, a.linearIndex(i, j)));
+                }
+            }
+            if (step > 0) {
+                sample(samples[(int) j], a, j, start, end, step);
+            }
+            partials[t] = p;
+        });
+
+        for (int j = 0; j < a.columns; j++) {
+            Partial p = partials[j * chunksPerColumn];
+            for (int k = 1; k < chunksPerColumn; k++) {
+                p.combine(partials[j * chunksPerColumn + k]);
+            }
+
+            // NaN for a column with no rows, rather than the identities of min and max
+            r.set(DoubleMatrix.Statistic.MIN.row(), j, p.n == 0 ? Double.NaN : p.min);
+            r.set(DoubleMatrix.Statistic.MAX.row(), j, p.n == 0 ? Double.NaN : p.max);
+            r.set(DoubleMatrix.Statistic.COUNT.row(), j, p.n);
+            r.set(DoubleMatrix.Statistic.MEAN.row(), j, p.n == 0 ? Double.NaN : p.mean);
+            // Sample variance, NaN with fewer than 2 elements
+            r.set(DoubleMatrix.Statistic.VARIANCE.row(), j, p.n < 2 ? Double.NaN : p.m2 / (p.n - 1));
+
+            if (quantiles.length > 0) {
+                double[] sample = samples[j];
+                Arrays.sort(sample);
+                for (int k = 0; k < quantiles.length; k++) {
+                    r.set(DoubleMatrix.Statistic.values().length + k, j, quantile(sample, quantiles[k]));
+                }
+            }
+        }
+    }
+
+    // Welford's algorithm in each lane, over a contiguous region
+    private static void accumulate(Partial p, MemorySegment a, long offset, long length) {
+        DoubleVector meanV = DoubleVector.zero(SPECIES);
+        DoubleVector m2V = DoubleVector.zero(SPECIES);
+        DoubleVector minV = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        DoubleVector maxV = DoubleVector.broadcast(SPECIES, Double.NEGATIVE_INFINITY);
+        long n = 0;
+        long i = 0;
+        for (long upperBound = length - length % SPECIES.length(); i < upperBound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromMemorySegment(SPECIES, a, (offset + i) * Double.BYTES,
+                    ByteOrder.nativeOrder());
+            n++;
+            DoubleVector d = x.sub(meanV);
+            meanV = meanV.add(d.div(n));
+            m2V = m2V.add(d.mul(x.sub(meanV)));
+            minV = minV.min(x);
+            maxV = maxV.max(x);
+        }
+
+        if (n > 0) {
+            // Each lane has the statistics of n elements
+            double min = minV.reduceLanes(VectorOperators.MIN);
+            double max = maxV.reduceLanes(VectorOperators.MAX);
+            for (int l = 0; l < SPECIES.length(); l++) {
+                p.combine(n, meanV.lane(l), m2V.lane(l), min, max);
+            }
+        }
+        for (; i < length; i++) {
+            p.accept(a.getAtIndex(ValueLayout.JAVA_DOUBLE, offset + i));
+        }
+    }
+
+    // Rows of the chunk [start, end) that are multiples of the step
+    private static void sample(double[] sample, DoubleMatrix a, long j, long start, long end, long step) {
+        for (long i = (start + step - 1) / step * step; i < end; i += step) {
+            sample[(int) (i / step)] = a.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, a.linearIndex(i, j));
+        }
+    }
+
+    // Linear interpolation between the closest ranks
+    private static double quantile(double[] sorted, double q) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        double position = q * (sorted.length - 1);
+        int lo = (int) Math.floor(position);
+        int hi = Math.min(lo + 1, sorted.length - 1);
+        return sorted[lo] + (position - lo) * (sorted[hi] - sorted[lo]);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+// A double precision complex number, the element of a ComplexDoubleMatrix
+public record ComplexDouble(double re, double im) {
+    public static final ComplexDouble ZERO = new ComplexDouble(0, 0);
+    public static final ComplexDouble ONE = new ComplexDouble(1, 0);
+
+    public ComplexDouble add(ComplexDouble b) {
+        return new ComplexDouble(re + b.re, im + b.im);
+    }
+
+    public ComplexDouble sub(ComplexDouble b) {
+        return new ComplexDouble(re - b.re, im - b.im);
+    }
+
+    public ComplexDouble mul(ComplexDouble b) {
+        return new ComplexDouble(re * b.re - im * b.im, re * b.im + im * b.re);
+    }
+
+    public ComplexDouble div(ComplexDouble b) {
+        double d = b.re * b.re + b.im * b.im;
+        return new ComplexDouble((re * b.re + im * b.im) / d, (im * b.re - re * b.im) / d);
+    }
+
+    public ComplexDouble neg() {
+        return new ComplexDouble(-re, -im);
+    }
+
+    public ComplexDouble conj() {
+        return new ComplexDouble(re, -im);
+    }
+
+    public double abs() {
+        return Math.hypot(re, im);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+/**
+ * Operators on the real and imaginary parts of double precision complex numbers.
+ * <p>
+ * A ComplexDoubleMatrix recognizes these operators and applies them to the pairs of parts of its elements
+ * in place, without allocating a ComplexDouble per element. They remain operators on ComplexDouble, so they
+ * can be applied to elements one at a time as well.
+ */
+public interface ComplexDoubleKernel {
+
+    // Computes the real and imaginary parts of the result separately
+    interface Unary extends UnaryOperator<ComplexDouble> {
+        double re(double re, double im);
+
+        double im(double re, double im);
+
+        @Override
+        default ComplexDouble apply(ComplexDouble a) {
+            return new ComplexDouble(re(a.re(), a.im()), im(a.re(), a.im()));
+        }
+    }
+
+    interface Binary extends BinaryOperator<ComplexDouble> {
+        double re(double aRe, double aIm, double bRe, double bIm);
+
+        double im(double aRe, double aIm, double bRe, double bIm);
+
+        // The initial value of a reduction with this operator
+        default ComplexDouble identity() {
+            return ComplexDouble.ZERO;
+        }
+
+        @Override
+        default ComplexDouble apply(ComplexDouble a, ComplexDouble b) {
+            return new ComplexDouble(re(a.re(), a.im(), b.re(), b.im()), im(a.re(), a.im(), b.re(), b.im()));
+        }
+    }
+
+    Unary NEG = new Unary() {
+        @Override
+        public double re(double re, double im) {
+            return -re;
+        }
+
+        @Override
+        public double im(double re, double im) {
+            return -im;
+        }
+    };
+
+    Unary CONJ = new Unary() {
+        @Override
+        public double re(double re, double im) {
+            return re;
+        }
+
+        @Override
+        public double im(double re, double im) {
+            return -im;
+        }
+    };
+
+    Binary ADD = new Binary() {
+        @Override
+        public double re(double aRe, double aIm, double bRe, double bIm) {
+            return aRe + bRe;
+        }
+
+        @Override
+        public double im(double aRe, double aIm, double bRe, double bIm) {
+            return aIm + bIm;
+        }
+    };
+
+    Binary SUB = new Binary() {
+        @Override
+        public double re(double aRe, double aIm, double bRe, double bIm) {
+            return aRe - bRe;
+        }
+
+        @Override
+        public double im(double aRe, double aIm, double bRe, double bIm) {
+            return aIm - bIm;
+        }
+    };
+
+    Binary MUL = new Binary() {
+        @Override
+        public double re(double aRe, double aIm, double bRe, double bIm) {
+            return aRe * bRe - aIm * bIm;
+        }
+
+        @Override
+        public double im(double aRe, double aIm, double bRe, double bIm) {
+            return aRe * bIm + aIm * bRe;
+        }
+
+        @Override
+        public ComplexDouble identity() {
+            return ComplexDouble.ONE;
+        }
+    };
+}
@@ -0,0 +1,467 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import oracle.blis.binding.blis_h;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+/**
+ * A matrix of double precision complex elements, stored interleaved as pairs of real and imaginary parts.
+ * <p>
+ * Strides and offsets are in complex elements, as in BLIS. The Java accessors honour the trans and conj bits,
+ * so the elements of a conjugate transpose view are the conjugates of the transposed stored elements.
+ */
+public final class ComplexDoubleMatrix extends Matrix<ComplexDouble> {
+    // True if the conj bit is set, the matrix is a view of the conjugate of the stored matrix
+    final boolean conjugated;
+
+    ComplexDoubleMatrix(SegmentAllocator allocator, MemorySegment obj, MemorySegment buffer) {
+        super(allocator, obj, buffer);
+        this.conjugated = (info() & blis_h.BLIS_CONJ_BIT()) != 0;
+    }
+
+    ComplexDoubleMatrix(ComplexDoubleMatrix parent, long i, long j, long m, long n, int info) {
+        super(parent, i, j, m, n, info);
+        this.conjugated = (info & blis_h.BLIS_CONJ_BIT()) != 0;
+    }
+
+    // Index of the real part of an element, the imaginary part is at the next index
+    private long pairIndex(long i, long j) {
+        return linearIndex(i, j) * 2;
+    }
+
+    private double re(long index) {
+        return buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, index);
+    }
+
+    private double im(long index) {
+        double im = buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, index + 1);
+        return conjugated ? -im : im;
+    }
+
+    private ComplexDouble get(long index) {
+        return new ComplexDouble(re(index), im(index));
+    }
+
+    private void set(long index, double re, double im) {
+        buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, index, re);
+        buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, index + 1, conjugated ? -im : im);
+    }
+
+    public double re(long i, long j) {
+        Objects.checkIndex(i, rows);
+        Objects.checkIndex(j, columns);
+
+        return re(pairIndex(i, j));
+    }
+
+    public double im(long i, long j) {
+        Objects.checkIndex(i, rows);
+        Objects.checkIndex(j, columns);
+
+        return im(pairIndex(i, j));
+    }
+
+    public ComplexDouble get(long i, long j) {
+        Objects.checkIndex(i, rows);
+        Objects.checkIndex(j, columns);
+
+        return get(pairIndex(i, j));
+    }
+
+    public void set(long i, long j, double re, double im) {
+        Objects.checkIndex(i, rows);
+        Objects.checkIndex(j, columns);
+
+        set(pairIndex(i, j), re, im);
+    }
+
+    public void set(long i, long j, ComplexDouble v) {
+        set(i, j, v.re(), v.im());
+    }
+
+    // Unary, update a in place
+    public void elementwise(UnaryOperator<ComplexDouble> o) {
+        elementwise(this, o);
+    }
+
+    // Unary, update in r
+    public void elementwise(Matrix<ComplexDouble> r, UnaryOperator<ComplexDouble> o) {
+        ComplexDoubleMatrix result = cast(r);
+
+        checkSameDimensions(result);
+
+        MatrixEvent e = MatrixEvent.start();
+        boolean fastPath = o instanceof ComplexDoubleKernel.Unary;
+        if (o instanceof ComplexDoubleKernel.Unary k) {
+            // Operate on the parts, without a ComplexDouble per element
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    long index = pairIndex(i, j);
+                    double re = re(index);
+                    double im = im(index);
+                    result.set(result.pairIndex(i, j), k.re(re, im), k.im(re, im));
+                }
+            }
+        } else {
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    ComplexDouble rE = o.apply(get(pairIndex(i, j)));
+                    result.set(result.pairIndex(i, j), rE.re(), rE.im());
+                }
+            }
+        }
+        e.commitKernel("elementwiseUnary", result, this, null, null, o, fastPath);
+    }
+
+    // Binary, update a in place
+    public void elementwise(Matrix<ComplexDouble> b, BinaryOperator<ComplexDouble> o) {
+        elementwise(b, this, o);
+    }
+
+    // Binary, update to r
+    // B is the same size, a scalar, a row-vector, or a column-vector, broadcast over A
+    public void elementwise(Matrix<ComplexDouble> b, Matrix<ComplexDouble> r, BinaryOperator<ComplexDouble> o) {
+        ComplexDoubleMatrix that = cast(b);
+        ComplexDoubleMatrix result = cast(r);
+
+        checkSameDimensions(result);
+        // Throws unless B is the same size, a scalar, a row-vector, or a column-vector
+        Broadcast.of(this, that);
+
+        MatrixEvent e = MatrixEvent.start();
+        boolean fastPath = o instanceof ComplexDoubleKernel.Binary;
+        if (o instanceof ComplexDoubleKernel.Binary k) {
+            // Operate on the parts, without a ComplexDouble per element
+            for (long j = 0; j < columns; j++) {
+                long bj = that.columns == 1 ? 0 : j;
+                for (long i = 0; i < rows; i++) {
+                    long bi = that.rows == 1 ? 0 : i;
+                    long aIndex = pairIndex(i, j);
+                    long bIndex = that.pairIndex(bi, bj);
+                    double aRe = re(aIndex), aIm = im(aIndex);
+                    double bRe = that.re(bIndex), bIm = that.im(bIndex);
+                    result.set(result.pairIndex(i, j), k.re(aRe, aIm, bRe, bIm), k.im(aRe, aIm, bRe, bIm));
+                }
+            }
+        } else {
+            for (long j = 0; j < columns; j++) {
+                long bj = that.columns == 1 ? 0 : j;
+                for (long i = 0; i < rows; i++) {
+                    long bi = that.rows == 1 ? 0 : i;
+                    ComplexDouble rE = o.apply(get(pairIndex(i, j)), that.get(that.pairIndex(bi, bj)));
+                    result.set(result.pairIndex(i, j), rE.re(), rE.im());
+                }
+            }
+        }
+        e.commitKernel("elementwiseBinary", result, this, that, null, o, fastPath);
+    }
+
+    // Negate the imaginary parts in place
+    public void conjugate() {
+        for (long j = 0; j < columns; j++) {
+            for (long i = 0; i < rows; i++) {
+                long index = pairIndex(i, j) + 1;
+                buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, index, -buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, index));
+            }
+        }
+    }
+
+    // The identity of a kernel, otherwise zero
+    static ComplexDouble identity(BinaryOperator<ComplexDouble> o) {
+        return o instanceof ComplexDoubleKernel.Binary k ? k.identity() : ComplexDouble.ZERO;
+    }
+
+    public ComplexDouble reduction(BinaryOperator<ComplexDouble> o) {
+        return reduction(identity(o), o);
+    }
+
+    // The identity is the initial value of the reduction
+    public ComplexDouble reduction(ComplexDouble identity, BinaryOperator<ComplexDouble> o) {
+        MatrixEvent e = MatrixEvent.start();
+        if (o instanceof ComplexDoubleKernel.Binary k) {
+            double accRe = identity.re();
+            double accIm = identity.im();
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    long index = pairIndex(i, j);
+                    double re = re(index);
+                    double im = im(index);
+                    double r = k.re(accRe, accIm, re, im);
+                    accIm = k.im(accRe, accIm, re, im);
+                    accRe = r;
+                }
+            }
+            e.commitKernel("reduction", this, this, null, null, o, true);
+            return new ComplexDouble(accRe, accIm);
+        }
+
+        ComplexDouble acc = identity;
+        for (long j = 0; j < columns; j++) {
+            for (long i = 0; i < rows; i++) {
+                acc = o.apply(acc, get(pairIndex(i, j)));
+            }
+        }
+        e.commitKernel("reduction", this, this, null, null, o, false);
+        return acc;
+    }
+
+    public ComplexDouble sum() {
+        MatrixEvent e = MatrixEvent.start();
+        double re = 0.0;
+        double im = 0.0;
+        for (long j = 0; j < columns; j++) {
+            for (long i = 0; i < rows; i++) {
+                long index = pairIndex(i, j);
+                re += re(index);
+                im += im(index);
+            }
+        }
+        e.commitParallel("reduction", this, null, rows * columns, false, false);
+        return new ComplexDouble(re, im);
+    }
+
+    @FunctionalInterface
+    public interface MatrixConsumer {
+        void accept(long i, long j, ComplexDouble v);
+    }
+
+    @FunctionalInterface
+    public interface MatrixSupplier {
+        ComplexDouble accept(long i, long j, ComplexDouble v);
+    }
+
+    public void forEach(MatrixConsumer c) {
+        for (long j = 0; j < columns; j++) {
+            for (long i = 0; i < rows; i++) {
+                c.accept(i, j, get(pairIndex(i, j)));
+            }
+        }
+    }
+
+    public void setEach(MatrixSupplier c) {
+        for (long j = 0; j < columns; j++) {
+            for (long i = 0; i < rows; i++) {
+                long index = pairIndex(i, j);
+                ComplexDouble e = c.accept(i, j, get(index));
+                set(index, e.re(), e.im());
+            }
+        }
+    }
+
+    @Override
+    public ComplexDoubleMatrix subMatrix(long i, long j, long rows, long columns) {
+        return (ComplexDoubleMatrix) super.subMatrix(i, j, rows, columns);
+    }
+
+    @Override
+    ComplexDoubleMatrix view(long i, long j, long m, long n, int info) {
+        return new ComplexDoubleMatrix(this, i, j, m, n, info);
+    }
+
+    @Override
+    public ComplexDoubleMatrix withConjTrans(Trans t) {
+        return (ComplexDoubleMatrix) super.withConjTrans(t);
+    }
+
+    @Override
+    public ComplexDoubleMatrix withTransOnly(Trans t) {
+        return (ComplexDoubleMatrix) super.withTransOnly(t);
+    }
+
+    @Override
+    public void copyInto(Matrix<ComplexDouble> r) {
+        if (rows != r.rows || columns != r.columns) {
+            throw new IllegalArgumentException();
+        }
+
+        blis_h.bli_copym(obj(), cast(r).obj());
+    }
+
+    @Override
+    public void copyRowInto(int srcRow, Matrix<ComplexDouble> r, int dstRow) {
+        ComplexDoubleMatrix result = cast(r);
+
+        if (columns != r.columns) {
+            throw new IllegalArgumentException();
+        }
+        Objects.checkIndex(srcRow, rows);
+        Objects.checkIndex(dstRow, r.rows);
+
+        for (long j = 0; j < columns; j++) {
+            long index = pairIndex(srcRow, j);
+            result.set(result.pairIndex(dstRow, j), re(index), im(index));
+        }
+    }
+
+    // Copy the elements, in column-major order, into a new array of interleaved real and imaginary parts
+    public double[] toArray() {
+        double[] r = new double[Math.toIntExact(rows * columns * 2)];
+        if (!conjugated && rowStride == 1 && columnStride == rows) {
+            // Contiguous columns, without gaps between them
+            MemorySegment.copy(buffer, ValueLayout.JAVA_DOUBLE, pairIndex(0, 0) * Double.BYTES, r, 0, r.length);
+        } else {
+            int k = 0;
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    long index = pairIndex(i, j);
+                    r[k++] = re(index);
+                    r[k++] = im(index);
+                }
+            }
+        }
+        return r;
+    }
+
+    // Copy the elements, in column-major order, from an array of interleaved real and imaginary parts
+    public void copyFrom(double[] a) {
+        if (a.length != rows * columns * 2) {
+            throw new IllegalArgumentException("Array length must equal twice the number of elements");
+        }
+
+        if (!conjugated && rowStride == 1 && columnStride == rows) {
+            // Contiguous columns, without gaps between them
+            MemorySegment.copy(a, 0, buffer, ValueLayout.JAVA_DOUBLE, pairIndex(0, 0) * Double.BYTES, a.length);
+        } else {
+            int k = 0;
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    set(pairIndex(i, j), a[k], a[k + 1]);
+                    k += 2;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void transpose(Matrix<ComplexDouble> r) {
+        ComplexDoubleMatrix result = cast(r);
+
+        if (columns != r.rows || rows != r.columns) {
+            throw new IllegalArgumentException();
+        }
+
+        if (this == r) {
+            transposeInPlace();
+            return;
+        }
+
+        MatrixEvent e = MatrixEvent.start();
+        for (long j = 0; j < columns; j++) {
+            for (long i = 0; i < rows; i++) {
+                long index = pairIndex(i, j);
+                result.set(result.pairIndex(j, i), re(index), im(index));
+            }
+        }
+        e.commitParallel("transpose", result, this, 0, false, false);
+    }
+
+    @Override
+    public void transposeInPlace() {
+        if (rows != columns) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+
+        MatrixEvent e = MatrixEvent.start();
+        for (long j = 0; j < columns; j++) {
+            for (long i = 0; i < j; i++) {
+                long a = pairIndex(i, j);
+                long b = pairIndex(j, i);
+                double re = re(a);
+                double im = im(a);
+                set(a, re(b), im(b));
+                set(b, re, im);
+            }
+        }
+        e.commitParallel("transposeInPlace", this, null, 0, false, false);
+    }
+
+    @Override
+    public ComplexDoubleMatrix transpose() {
+        return transpose(allocator);
+    }
+
+    @Override
+    public ComplexDoubleMatrix transpose(SegmentAllocator sa) {
+        ComplexDoubleMatrix t = newComplexDoubleMatrix(sa, columns, rows);
+        transpose(t);
+        return t;
+    }
+
+    private static ComplexDoubleMatrix cast(Matrix<ComplexDouble> dest) {
+        return (ComplexDoubleMatrix) dest;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof ComplexDoubleMatrix that)) {
+            return false;
+        }
+
+        if (rows != that.rows || columns != that.columns) {
+            return false;
+        }
+
+        for (long j = 0; j < columns; j++) {
+            for (long i = 0; i < rows; i++) {
+                long index = pairIndex(i, j);
+                long thatIndex = that.pairIndex(i, j);
+
+                if (re(index) != that.re(thatIndex) || im(index) != that.im(thatIndex)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    public boolean equals(Matrix<ComplexDouble> m, double epsilon) {
+        ComplexDoubleMatrix that = cast(m);
+
+        if (rows != that.rows || columns != that.columns) {
+            return false;
+        }
+
+        for (long j = 0; j < columns; j++) {
+            for (long i = 0; i < rows; i++) {
+                long index = pairIndex(i, j);
+                long thatIndex = that.pairIndex(i, j);
+
+                if (Math.abs(re(index) - that.re(thatIndex)) > epsilon ||
+                        Math.abs(im(index) - that.im(thatIndex)) > epsilon) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+}
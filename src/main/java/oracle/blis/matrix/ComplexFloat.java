@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+// A single precision complex number, the element of a ComplexFloatMatrix
+public record ComplexFloat(float re, float im) {
+    public static final ComplexFloat ZERO = new ComplexFloat(0, 0);
+    public static final ComplexFloat ONE = new ComplexFloat(1, 0);
+
+    public ComplexFloat add(ComplexFloat b) {
+        return new ComplexFloat(re + b.re, im + b.im);
+    }
+
+    public ComplexFloat sub(ComplexFloat b) {
+        return new ComplexFloat(re - b.re, im - b.im);
+    }
+
+    public ComplexFloat mul(ComplexFloat b) {
+        return new ComplexFloat(re * b.re - im * b.im, re * b.im + im * b.re);
+    }
+
+    public ComplexFloat div(ComplexFloat b) {
+        float d = b.re * b.re + b.im * b.im;
+        return new ComplexFloat((re * b.re + im * b.im) / d, (im * b.re - re * b.im) / d);
+    }
+
+    public ComplexFloat neg() {
+        return new ComplexFloat(-re, -im);
+    }
+
+    public ComplexFloat conj() {
+        return new ComplexFloat(re, -im);
+    }
+
+    public float abs() {
+        return (float) Math.hypot(re, im);
+    }
+}
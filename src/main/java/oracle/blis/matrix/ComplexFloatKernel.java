@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+/**
+ * Operators on the real and imaginary parts of float precision complex numbers.
+ * <p>
+ * A ComplexFloatMatrix recognizes these operators and applies them to the pairs of parts of its elements
+ * in place, without allocating a ComplexFloat per element. They remain operators on ComplexFloat, so they
+ * can be applied to elements one at a time as well.
+ */
+public interface ComplexFloatKernel {
+
+    // Computes the real and imaginary parts of the result separately
+    interface Unary extends UnaryOperator<ComplexFloat> {
+        float re(float re, float im);
+
+        float im(float re, float im);
+
+        @Override
+        default ComplexFloat apply(ComplexFloat a) {
+            return new ComplexFloat(re(a.re(), a.im()), im(a.re(), a.im()));
+        }
+    }
+
+    interface Binary extends BinaryOperator<ComplexFloat> {
+        float re(float aRe, float aIm, float bRe, float bIm);
+
+        float im(float aRe, float aIm, float bRe, float bIm);
+
+        // The initial value of a reduction with this operator
+        default ComplexFloat identity() {
+            return ComplexFloat.ZERO;
+        }
+
+        @Override
+        default ComplexFloat apply(ComplexFloat a, ComplexFloat b) {
+            return new ComplexFloat(re(a.re(), a.im(), b.re(), b.im()), im(a.re(), a.im(), b.re(), b.im()));
+        }
+    }
+
+    Unary NEG = new Unary() {
+        @Override
+        public float re(float re, float im) {
+            return -re;
+        }
+
+        @Override
+        public float im(float re, float im) {
+            return -im;
+        }
+    };
+
+    Unary CONJ = new Unary() {
+        @Override
+        public float re(float re, float im) {
+            return re;
+        }
+
+        @Override
+        public float im(float re, float im) {
+            return -im;
+        }
+    };
+
+    Binary ADD = new Binary() {
+        @Override
+        public float re(float aRe, float aIm, float bRe, float bIm) {
+            return aRe + bRe;
+        }
+
+        @Override
+        public float im(float aRe, float aIm, float bRe, float bIm) {
+            return aIm + bIm;
+        }
+    };
+
+    Binary SUB = new Binary() {
+        @Override
+        public float re(float aRe, float aIm, float bRe, float bIm) {
+            return aRe - bRe;
+        }
+
+        @Override
+        public float im(float aRe, float aIm, float bRe, float bIm) {
+            return aIm - bIm;
+        }
+    };
+
+    Binary MUL = new Binary() {
+        @Override
+        public float re(float aRe, float aIm, float bRe, float bIm) {
+            return aRe * bRe - aIm * bIm;
+        }
+
+        @Override
+        public float im(float aRe, float aIm, float bRe, float bIm) {
+            return aRe * bIm + aIm * bRe;
+        }
+
+        @Override
+        public ComplexFloat identity() {
+            return ComplexFloat.ONE;
+        }
+    };
+}
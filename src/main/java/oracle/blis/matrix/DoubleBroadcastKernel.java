@@ -31,9 +31,46 @@ import java.util.stream.IntStream;
 
 /**
  * Kernels for unary, binary, ternary, and reduction operations that operate over contiguous regions of memory.
+ * <p>
+ * The strided operations operate over {@code count} contiguous regions of {@code length} elements, such as the
+ * columns of a column-major sub-matrix, where the regions of each operand start at an offset and are separated by
+ * a stride (both in elements).
  */
 public interface DoubleBroadcastKernel {
 
+    // Number of elements of a region at or below which a parallel kernel operates serially
+    long PARALLEL_THRESHOLD = 1L << 17;
+
+    // Number of elements of each chunk of a region operated on in parallel,
+    // such that a chunk of each operand of a ternary kernel fits in a 1MB L2 cache
+    long PARALLEL_CHUNK_SIZE = 1L << 14;
+
+    private static int chunks(long length) {
+        return Math.toIntExact((length + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE);
+    }
+
+    // Regions are operated on in parallel if each region is too small to be split into chunks,
+    // but together they are large enough
+    private static boolean isParallelOverRegions(long length, long count) {
+        return length <= PARALLEL_THRESHOLD && length * count > PARALLEL_THRESHOLD;
+    }
+
+    // Whether the kernel, if it is one, may operate on a region of length elements in parallel
+    static boolean isParallel(Object kernel, long length) {
+        boolean parallel = switch (kernel) {
+            case ParallelUnaryBroadcastKernel k -> k.parallel;
+            case ParallelBinaryBinaryBroadcastKernel k -> k.parallel;
+            case ParallelTernaryBroadcastKernel k -> k.parallel;
+            case ParallelReductionBroadcastKernel k -> k.parallel;
+            default -> false;
+        };
+        return parallel && length > PARALLEL_THRESHOLD;
+    }
+
+    private static MemorySegment slice(MemorySegment s, long offset, long length) {
+        return s.asSlice(offset * Double.BYTES, length * Double.BYTES);
+    }
+
     interface UnaryBroadcastKernel extends DoubleUnaryOperator {
         default void unaryBroadcast(MemorySegment a, MemorySegment r,
                                     long length) {
@@ -43,6 +80,21 @@ public interface DoubleBroadcastKernel {
                 r.setAtIndex(ValueLayout.JAVA_DOUBLE, i, rE);
             }
         }
+
+        default void unaryBroadcastStrided(MemorySegment a, long aOffset, long aStride,
+                                           MemorySegment r, long rOffset, long rStride,
+                                           long length, long count) {
+            if (aStride == length && rStride == length) {
+                long n = length * count;
+                unaryBroadcast(slice(a, aOffset, n), slice(r, rOffset, n), n);
+            } else {
+                for (long k = 0; k < count; k++) {
+                    unaryBroadcast(slice(a, aOffset + k * aStride, length),
+                            slice(r, rOffset + k * rStride, length),
+                            length);
+                }
+            }
+        }
     }
 
     abstract class ParallelUnaryBroadcastKernel implements UnaryBroadcastKernel {
@@ -56,7 +108,36 @@ public interface DoubleBroadcastKernel {
             this.parallel = parallel;
         }
 
-        // @@@ parallel unaryBroadcast
+        @Override
+        public void unaryBroadcast(MemorySegment a, MemorySegment r, long length) {
+            if (parallel && length > PARALLEL_THRESHOLD) {
+                IntStream.range(0, chunks(length)).parallel().forEach(c -> {
+                    long offset = c * PARALLEL_CHUNK_SIZE;
+                    long l = Math.min(PARALLEL_CHUNK_SIZE, length - offset);
+                    serialUnaryBroadcast(slice(a, offset, l), slice(r, offset, l), l);
+                });
+            } else {
+                serialUnaryBroadcast(a, r, length);
+            }
+        }
+
+        @Override
+        public void unaryBroadcastStrided(MemorySegment a, long aOffset, long aStride,
+                                          MemorySegment r, long rOffset, long rStride,
+                                          long length, long count) {
+            if (parallel && isParallelOverRegions(length, count)) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k ->
+                        serialUnaryBroadcast(slice(a, aOffset + k * aStride, length),
+                                slice(r, rOffset + k * rStride, length),
+                                length));
+            } else {
+                UnaryBroadcastKernel.super.unaryBroadcastStrided(a, aOffset, aStride, r, rOffset, rStride, length, count);
+            }
+        }
+
+        protected void serialUnaryBroadcast(MemorySegment a, MemorySegment r, long length) {
+            UnaryBroadcastKernel.super.unaryBroadcast(a, r, length);
+        }
     }
 
     interface BinaryBinaryBroadcastKernel extends DoubleBinaryOperator {
@@ -86,6 +167,52 @@ public interface DoubleBroadcastKernel {
                 r.setAtIndex(ValueLayout.JAVA_DOUBLE, i, rE);
             }
         }
+
+        default void binaryBroadcastScalarStrided(MemorySegment a, long aOffset, long aStride,
+                                                  double b,
+                                                  MemorySegment r, long rOffset, long rStride,
+                                                  long length, long count) {
+            if (aStride == length && rStride == length) {
+                long n = length * count;
+                binaryBroadcastScalar(slice(a, aOffset, n), b, slice(r, rOffset, n), 0, n);
+            } else {
+                for (long k = 0; k < count; k++) {
+                    binaryBroadcastScalar(slice(a, aOffset + k * aStride, length), b,
+                            slice(r, rOffset + k * rStride, length),
+                            0, length);
+                }
+            }
+        }
+
+        // The k'th element of b, at bOffset + k * bStride, is broadcast over the k'th region of a
+        default void binaryBroadcastVectorStrided(MemorySegment a, long aOffset, long aStride,
+                                                  MemorySegment b, long bOffset, long bStride,
+                                                  MemorySegment r, long rOffset, long rStride,
+                                                  long length, long count) {
+            for (long k = 0; k < count; k++) {
+                double bE = b.getAtIndex(ValueLayout.JAVA_DOUBLE, bOffset + k * bStride);
+                binaryBroadcastScalar(slice(a, aOffset + k * aStride, length), bE,
+                        slice(r, rOffset + k * rStride, length),
+                        0, length);
+            }
+        }
+
+        default void binaryBroadcastMatrixStrided(MemorySegment a, long aOffset, long aStride,
+                                                  MemorySegment b, long bOffset, long bStride,
+                                                  MemorySegment r, long rOffset, long rStride,
+                                                  long length, long count) {
+            if (aStride == length && bStride == length && rStride == length) {
+                long n = length * count;
+                binaryBroadcastMatrix(slice(a, aOffset, n), slice(b, bOffset, n), slice(r, rOffset, n), n);
+            } else {
+                for (long k = 0; k < count; k++) {
+                    binaryBroadcastMatrix(slice(a, aOffset + k * aStride, length),
+                            slice(b, bOffset + k * bStride, length),
+                            slice(r, rOffset + k * rStride, length),
+                            length);
+                }
+            }
+        }
     }
 
     abstract class ParallelBinaryBinaryBroadcastKernel implements BinaryBinaryBroadcastKernel {
@@ -99,19 +226,102 @@ public interface DoubleBroadcastKernel {
             this.parallel = parallel;
         }
 
+        @Override
+        public void binaryBroadcastScalar(MemorySegment a, double b, MemorySegment r, long offset, long length) {
+            if (parallel && length > PARALLEL_THRESHOLD) {
+                IntStream.range(0, chunks(length)).parallel().forEach(c -> {
+                    long o = c * PARALLEL_CHUNK_SIZE;
+                    long l = Math.min(PARALLEL_CHUNK_SIZE, length - o);
+                    serialBinaryBroadcastScalar(a, b, r, offset + o, l);
+                });
+            } else {
+                serialBinaryBroadcastScalar(a, b, r, offset, length);
+            }
+        }
+
         @Override
         public void binaryBroadcastVector(MemorySegment a, MemorySegment b, MemorySegment r, long aStride, long bLength) {
             if (parallel) {
                 IntStream.range(0, (int) bLength).parallel().forEach(j -> {
                     double bE = b.getAtIndex(ValueLayout.JAVA_DOUBLE, j);
-                    binaryBroadcastScalar(a, bE, r, j * aStride, aStride);
+                    serialBinaryBroadcastScalar(a, bE, r, j * aStride, aStride);
                 });
             } else {
                 BinaryBinaryBroadcastKernel.super.binaryBroadcastVector(a, b, r, aStride, bLength);
             }
         }
 
-        // @@@ parallel binaryBroadcastMatrix
+        @Override
+        public void binaryBroadcastMatrix(MemorySegment a, MemorySegment b, MemorySegment r, long length) {
+            if (parallel && length > PARALLEL_THRESHOLD) {
+                IntStream.range(0, chunks(length)).parallel().forEach(c -> {
+                    long offset = c * PARALLEL_CHUNK_SIZE;
+                    long l = Math.min(PARALLEL_CHUNK_SIZE, length - offset);
+                    serialBinaryBroadcastMatrix(slice(a, offset, l), slice(b, offset, l), slice(r, offset, l), l);
+                });
+            } else {
+                serialBinaryBroadcastMatrix(a, b, r, length);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastScalarStrided(MemorySegment a, long aOffset, long aStride,
+                                                 double b,
+                                                 MemorySegment r, long rOffset, long rStride,
+                                                 long length, long count) {
+            if (parallel && isParallelOverRegions(length, count)) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k ->
+                        serialBinaryBroadcastScalar(slice(a, aOffset + k * aStride, length), b,
+                                slice(r, rOffset + k * rStride, length),
+                                0, length));
+            } else {
+                BinaryBinaryBroadcastKernel.super.binaryBroadcastScalarStrided(a, aOffset, aStride, b,
+                        r, rOffset, rStride, length, count);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastVectorStrided(MemorySegment a, long aOffset, long aStride,
+                                                 MemorySegment b, long bOffset, long bStride,
+                                                 MemorySegment r, long rOffset, long rStride,
+                                                 long length, long count) {
+            if (parallel) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k -> {
+                    double bE = b.getAtIndex(ValueLayout.JAVA_DOUBLE, bOffset + k * bStride);
+                    serialBinaryBroadcastScalar(slice(a, aOffset + k * aStride, length), bE,
+                            slice(r, rOffset + k * rStride, length),
+                            0, length);
+                });
+            } else {
+                BinaryBinaryBroadcastKernel.super.binaryBroadcastVectorStrided(a, aOffset, aStride,
+                        b, bOffset, bStride, r, rOffset, rStride, length, count);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastMatrixStrided(MemorySegment a, long aOffset, long aStride,
+                                                 MemorySegment b, long bOffset, long bStride,
+                                                 MemorySegment r, long rOffset, long rStride,
+                                                 long length, long count) {
+            if (parallel && isParallelOverRegions(length, count)) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k ->
+                        serialBinaryBroadcastMatrix(slice(a, aOffset + k * aStride, length),
+                                slice(b, bOffset + k * bStride, length),
+                                slice(r, rOffset + k * rStride, length),
+                                length));
+            } else {
+                BinaryBinaryBroadcastKernel.super.binaryBroadcastMatrixStrided(a, aOffset, aStride,
+                        b, bOffset, bStride, r, rOffset, rStride, length, count);
+            }
+        }
+
+        protected void serialBinaryBroadcastScalar(MemorySegment a, double b, MemorySegment r, long offset, long length) {
+            BinaryBinaryBroadcastKernel.super.binaryBroadcastScalar(a, b, r, offset, length);
+        }
+
+        protected void serialBinaryBroadcastMatrix(MemorySegment a, MemorySegment b, MemorySegment r, long length) {
+            BinaryBinaryBroadcastKernel.super.binaryBroadcastMatrix(a, b, r, length);
+        }
     }
 
     interface TernaryBroadcastKernel extends DoubleTernaryOperator {
@@ -143,6 +353,58 @@ public interface DoubleBroadcastKernel {
                 r.setAtIndex(ValueLayout.JAVA_DOUBLE, i, rE);
             }
         }
+
+        default void binaryBroadcastScalarStrided(MemorySegment a, long aOffset, long aStride,
+                                                  double b, double c,
+                                                  MemorySegment r, long rOffset, long rStride,
+                                                  long length, long count) {
+            if (aStride == length && rStride == length) {
+                long n = length * count;
+                binaryBroadcastScalar(slice(a, aOffset, n), b, c, slice(r, rOffset, n), 0, n);
+            } else {
+                for (long k = 0; k < count; k++) {
+                    binaryBroadcastScalar(slice(a, aOffset + k * aStride, length), b, c,
+                            slice(r, rOffset + k * rStride, length),
+                            0, length);
+                }
+            }
+        }
+
+        // The k'th elements of b and c, at bOffset + k * bStride and cOffset + k * cStride,
+        // are broadcast over the k'th region of a
+        default void binaryBroadcastVectorStrided(MemorySegment a, long aOffset, long aStride,
+                                                  MemorySegment b, long bOffset, long bStride,
+                                                  MemorySegment c, long cOffset, long cStride,
+                                                  MemorySegment r, long rOffset, long rStride,
+                                                  long length, long count) {
+            for (long k = 0; k < count; k++) {
+                double bE = b.getAtIndex(ValueLayout.JAVA_DOUBLE, bOffset + k * bStride);
+                double cE = c.getAtIndex(ValueLayout.JAVA_DOUBLE, cOffset + k * cStride);
+                binaryBroadcastScalar(slice(a, aOffset + k * aStride, length), bE, cE,
+                        slice(r, rOffset + k * rStride, length),
+                        0, length);
+            }
+        }
+
+        default void binaryBroadcastMatrixStrided(MemorySegment a, long aOffset, long aStride,
+                                                  MemorySegment b, long bOffset, long bStride,
+                                                  MemorySegment c, long cOffset, long cStride,
+                                                  MemorySegment r, long rOffset, long rStride,
+                                                  long length, long count) {
+            if (aStride == length && bStride == length && cStride == length && rStride == length) {
+                long n = length * count;
+                binaryBroadcastMatrix(slice(a, aOffset, n), slice(b, bOffset, n), slice(c, cOffset, n),
+                        slice(r, rOffset, n), n);
+            } else {
+                for (long k = 0; k < count; k++) {
+                    binaryBroadcastMatrix(slice(a, aOffset + k * aStride, length),
+                            slice(b, bOffset + k * bStride, length),
+                            slice(c, cOffset + k * cStride, length),
+                            slice(r, rOffset + k * rStride, length),
+                            length);
+                }
+            }
+        }
     }
 
     abstract class ParallelTernaryBroadcastKernel implements TernaryBroadcastKernel {
@@ -156,26 +418,120 @@ public interface DoubleBroadcastKernel {
             this.parallel = parallel;
         }
 
+        @Override
+        public void binaryBroadcastScalar(MemorySegment a, double b, double c, MemorySegment r, long offset, long length) {
+            if (parallel && length > PARALLEL_THRESHOLD) {
+                IntStream.range(0, chunks(length)).parallel().forEach(k -> {
+                    long o = k * PARALLEL_CHUNK_SIZE;
+                    long l = Math.min(PARALLEL_CHUNK_SIZE, length - o);
+                    serialBinaryBroadcastScalar(a, b, c, r, offset + o, l);
+                });
+            } else {
+                serialBinaryBroadcastScalar(a, b, c, r, offset, length);
+            }
+        }
+
         @Override
         public void binaryBroadcastVector(MemorySegment a, MemorySegment b, MemorySegment c, MemorySegment r, long aStride, long bcLength) {
             if (parallel) {
                 IntStream.range(0, (int) bcLength).parallel().forEach(j -> {
                     double bE = b.getAtIndex(ValueLayout.JAVA_DOUBLE, j);
                     double cE = c.getAtIndex(ValueLayout.JAVA_DOUBLE, j);
-                    binaryBroadcastScalar(a, bE, cE, r, j * aStride, aStride);
+                    serialBinaryBroadcastScalar(a, bE, cE, r, j * aStride, aStride);
                 });
             } else {
                 TernaryBroadcastKernel.super.binaryBroadcastVector(a, b, c, r, aStride, bcLength);
             }
         }
 
-        // @@@ parallel binaryBroadcastMatrix
+        @Override
+        public void binaryBroadcastMatrix(MemorySegment a, MemorySegment b, MemorySegment c, MemorySegment r, long length) {
+            if (parallel && length > PARALLEL_THRESHOLD) {
+                IntStream.range(0, chunks(length)).parallel().forEach(k -> {
+                    long offset = k * PARALLEL_CHUNK_SIZE;
+                    long l = Math.min(PARALLEL_CHUNK_SIZE, length - offset);
+                    serialBinaryBroadcastMatrix(slice(a, offset, l), slice(b, offset, l), slice(c, offset, l),
+                            slice(r, offset, l), l);
+                });
+            } else {
+                serialBinaryBroadcastMatrix(a, b, c, r, length);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastScalarStrided(MemorySegment a, long aOffset, long aStride,
+                                                 double b, double c,
+                                                 MemorySegment r, long rOffset, long rStride,
+                                                 long length, long count) {
+            if (parallel && isParallelOverRegions(length, count)) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k ->
+                        serialBinaryBroadcastScalar(slice(a, aOffset + k * aStride, length), b, c,
+                                slice(r, rOffset + k * rStride, length),
+                                0, length));
+            } else {
+                TernaryBroadcastKernel.super.binaryBroadcastScalarStrided(a, aOffset, aStride, b, c,
+                        r, rOffset, rStride, length, count);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastVectorStrided(MemorySegment a, long aOffset, long aStride,
+                                                 MemorySegment b, long bOffset, long bStride,
+                                                 MemorySegment c, long cOffset, long cStride,
+                                                 MemorySegment r, long rOffset, long rStride,
+                                                 long length, long count) {
+            if (parallel) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k -> {
+                    double bE = b.getAtIndex(ValueLayout.JAVA_DOUBLE, bOffset + k * bStride);
+                    double cE = c.getAtIndex(ValueLayout.JAVA_DOUBLE, cOffset + k * cStride);
+                    serialBinaryBroadcastScalar(slice(a, aOffset + k * aStride, length), bE, cE,
+                            slice(r, rOffset + k * rStride, length),
+                            0, length);
+                });
+            } else {
+                TernaryBroadcastKernel.super.binaryBroadcastVectorStrided(a, aOffset, aStride,
+                        b, bOffset, bStride, c, cOffset, cStride, r, rOffset, rStride, length, count);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastMatrixStrided(MemorySegment a, long aOffset, long aStride,
+                                                 MemorySegment b, long bOffset, long bStride,
+                                                 MemorySegment c, long cOffset, long cStride,
+                                                 MemorySegment r, long rOffset, long rStride,
+                                                 long length, long count) {
+            if (parallel && isParallelOverRegions(length, count)) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k ->
+                        serialBinaryBroadcastMatrix(slice(a, aOffset + k * aStride, length),
+                                slice(b, bOffset + k * bStride, length),
+                                slice(c, cOffset + k * cStride, length),
+                                slice(r, rOffset + k * rStride, length),
+                                length));
+            } else {
+                TernaryBroadcastKernel.super.binaryBroadcastMatrixStrided(a, aOffset, aStride,
+                        b, bOffset, bStride, c, cOffset, cStride, r, rOffset, rStride, length, count);
+            }
+        }
+
+        protected void serialBinaryBroadcastScalar(MemorySegment a, double b, double c, MemorySegment r, long offset, long length) {
+            TernaryBroadcastKernel.super.binaryBroadcastScalar(a, b, c, r, offset, length);
+        }
+
+        protected void serialBinaryBroadcastMatrix(MemorySegment a, MemorySegment b, MemorySegment c, MemorySegment r,
+                                                   long length) {
+            TernaryBroadcastKernel.super.binaryBroadcastMatrix(a, b, c, r, length);
+        }
     }
 
     interface ReductionBroadcastKernel extends DoubleBinaryOperator {
+        // Identity of the operation, the initial value of the accumulator
+        default double identity() {
+            return 0.0;
+        }
+
         default double reduceBroadcastScalar(MemorySegment a,
                                              long offset, long length) {
-            double acc = 0.0;
+            double acc = identity();
             for (long i = 0; i < length; i++) {
                 double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, i + offset);
                 acc = applyAsDouble(acc, aE);
@@ -183,11 +539,33 @@ public interface DoubleBroadcastKernel {
             return acc;
         }
 
+        // Reduce count regions of a, each of length elements, r[rOffset + k * rStride] := reduction of region k
+        default void reduceBroadcastVectorStrided(MemorySegment a, long aOffset, long aStride,
+                                                  MemorySegment r, long rOffset, long rStride,
+                                                  long length, long count) {
+            for (long k = 0; k < count; k++) {
+                double rE = reduceBroadcastScalar(a, aOffset + k * aStride, length);
+                r.setAtIndex(ValueLayout.JAVA_DOUBLE, rOffset + k * rStride, rE);
+            }
+        }
+
+        // Reduce the rLength columns of a column-major matrix with aStride rows, r[j] := reduction of column j
         default void reduceBroadcastVector(MemorySegment a, MemorySegment r,
                                            long aStride, long rLength) {
-            for (long j = 0; j < rLength; j++) {
-                double rE = reduceBroadcastScalar(a, j * aStride, aStride);
-                r.setAtIndex(ValueLayout.JAVA_DOUBLE, j, rE);
+            reduceBroadcastVectorStrided(a, 0, aStride, r, 0, 1, aStride, rLength);
+        }
+
+        // Accumulate count regions of a into r, r[i] := o(r[i], a[aOffset + k * aStride + i]) for each region k
+        // Reduces the rows of a column-major matrix, streaming its columns through a block of the result
+        default void reduceBroadcastRegions(MemorySegment a, long aOffset, long aStride,
+                                            MemorySegment r, long rOffset,
+                                            long length, long count) {
+            for (long k = 0; k < count; k++) {
+                for (long i = 0; i < length; i++) {
+                    double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, aOffset + k * aStride + i);
+                    double rE = r.getAtIndex(ValueLayout.JAVA_DOUBLE, rOffset + i);
+                    r.setAtIndex(ValueLayout.JAVA_DOUBLE, rOffset + i, applyAsDouble(rE, aE));
+                }
             }
         }
     }
@@ -204,15 +582,23 @@ public interface DoubleBroadcastKernel {
         }
 
         @Override
-        public void reduceBroadcastVector(MemorySegment a, MemorySegment r, long aStride, long rLength) {
-            if (parallel) {
-                IntStream.range(0, (int) rLength).parallel().forEach(j -> {
-                    double rE = reduceBroadcastScalar(a, j * aStride, aStride);
-                    r.setAtIndex(ValueLayout.JAVA_DOUBLE, j, rE);
+        public void reduceBroadcastVectorStrided(MemorySegment a, long aOffset, long aStride,
+                                                 MemorySegment r, long rOffset, long rStride,
+                                                 long length, long count) {
+            if (parallel && length * count > PARALLEL_THRESHOLD) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k -> {
+                    double rE = reduceBroadcastScalar(a, aOffset + k * aStride, length);
+                    r.setAtIndex(ValueLayout.JAVA_DOUBLE, rOffset + k * rStride, rE);
                 });
             } else {
-                DoubleBroadcastKernel.ReductionBroadcastKernel.super.reduceBroadcastVector(a, r, aStride, rLength);
+                DoubleBroadcastKernel.ReductionBroadcastKernel.super.reduceBroadcastVectorStrided(a, aOffset, aStride,
+                        r, rOffset, rStride, length, count);
             }
         }
+
+        @Override
+        public void reduceBroadcastVector(MemorySegment a, MemorySegment r, long aStride, long rLength) {
+            reduceBroadcastVectorStrided(a, 0, aStride, r, 0, 1, aStride, rLength);
+        }
     }
 }
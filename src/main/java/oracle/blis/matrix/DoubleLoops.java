@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Scalar loops over strided double matrices, applying an operator to each element.
+ * <p>
+ * Loops are specialized per class of operator. The {@code Template} class is cloned, as a hidden class, for each
+ * class of operator it is used with, so each clone has its own call site of the operator. The JIT sees
+ * a call site that is monomorphic and may inline the operator into the loop, rather than a shared call site that
+ * becomes megamorphic once a few operators are used.
+ * <p>
+ * An element (i, j) of a matrix is at index {@code off + i * rs + j * cs} of its buffer. A stride of 0
+ * broadcasts an operand over rows or columns.
+ */
+interface DoubleLoops {
+
+    // r := o(a)
+    void unary(MemorySegment a, long aOff, long aRs, long aCs,
+               MemorySegment r, long rOff, long rRs, long rCs,
+               long rows, long columns, DoubleUnaryOperator o);
+
+    // r := o(a, b)
+    void binary(MemorySegment a, long aOff, long aRs, long aCs,
+                MemorySegment b, long bOff, long bRs, long bCs,
+                MemorySegment r, long rOff, long rRs, long rCs,
+                long rows, long columns, DoubleBinaryOperator o);
+
+    // r := o(a, b, c)
+    void ternary(MemorySegment a, long aOff, long aRs, long aCs,
+                 MemorySegment b, long bOff, long bRs, long bCs,
+                 MemorySegment c, long cOff, long cRs, long cCs,
+                 MemorySegment r, long rOff, long rRs, long rCs,
+                 long rows, long columns, DoubleTernaryOperator o);
+
+    // acc := o(acc, a), in column-major order
+    double reduce(MemorySegment a, long aOff, long aRs, long aCs,
+                  long rows, long columns, double acc, DoubleBinaryOperator o);
+
+    void forEach(MemorySegment a, long aOff, long aRs, long aCs,
+                 long rows, long columns, DoubleMatrix.MatrixConsumer c);
+
+    void setEach(MemorySegment a, long aOff, long aRs, long aCs,
+                 long rows, long columns, DoubleMatrix.MatrixSupplier s);
+
+    LoopSpecializer<DoubleLoops> SPECIALIZER = new LoopSpecializer<>(DoubleLoops.class, new Template());
+
+    // Returns the loops specialized for the class of the operator
+    static DoubleLoops of(Object o) {
+        return SPECIALIZER.get(o.getClass());
+    }
+
+    /*
+    The loops are written once, here, and cloned for each class of operator by the LoopSpecializer.
+    The class must not have static state, lambdas, or nested classes, so that it may be cloned.
+     */
+    final class Template implements DoubleLoops {
+        @Override
+        public void unary(MemorySegment a, long aOff, long aRs, long aCs,
+                          MemorySegment r, long rOff, long rRs, long rCs,
+                          long rows, long columns, DoubleUnaryOperator o) {
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, aOff + i * aRs + j * aCs);
+                    r.setAtIndex(ValueLayout.JAVA_DOUBLE, rOff + i * rRs + j * rCs, o.applyAsDouble(aE));
+                }
+            }
+        }
+
+        @Override
+        public void binary(MemorySegment a, long aOff, long aRs, long aCs,
+                           MemorySegment b, long bOff, long bRs, long bCs,
+                           MemorySegment r, long rOff, long rRs, long rCs,
+                           long rows, long columns, DoubleBinaryOperator o) {
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, aOff + i * aRs + j * aCs);
+                    double bE = b.getAtIndex(ValueLayout.JAVA_DOUBLE, bOff + i * bRs + j * bCs);
+                    r.setAtIndex(ValueLayout.JAVA_DOUBLE, rOff + i * rRs + j * rCs, o.applyAsDouble(aE, bE));
+                }
+            }
+        }
+
+        @Override
+        public void ternary(MemorySegment a, long aOff, long aRs, long aCs,
+                            MemorySegment b, long bOff, long bRs, long bCs,
+                            MemorySegment c, long cOff, long cRs, long cCs,
+                            MemorySegment r, long rOff, long rRs, long rCs,
+                            long rows, long columns, DoubleTernaryOperator o) {
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, aOff + i * aRs + j * aCs);
+                    double bE = b.getAtIndex(ValueLayout.JAVA_DOUBLE, bOff + i * bRs + j * bCs);
+                    double cE = c.getAtIndex(ValueLayout.JAVA_DOUBLE, cOff + i * cRs + j * cCs);
+                    r.setAtIndex(ValueLayout.JAVA_DOUBLE, rOff + i * rRs + j * rCs, o.applyAsDouble(aE, bE, cE));
+                }
+            }
+        }
+
+        @Override
+        public double reduce(MemorySegment a, long aOff, long aRs, long aCs,
+                             long rows, long columns, double acc, DoubleBinaryOperator o) {
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, aOff + i * aRs + j * aCs);
+                    acc = o.applyAsDouble(acc, aE);
+                }
+            }
+            return acc;
+        }
+
+        @Override
+        public void forEach(MemorySegment a, long aOff, long aRs, long aCs,
+                            long rows, long columns, DoubleMatrix.MatrixConsumer c) {
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, aOff + i * aRs + j * aCs);
+                    c.accept(i, j, aE);
+                }
+            }
+        }
+
+        @Override
+        public void setEach(MemorySegment a, long aOff, long aRs, long aCs,
+                            long rows, long columns, DoubleMatrix.MatrixSupplier s) {
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    long index = aOff + i * aRs + j * aCs;
+                    double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, index);
+                    a.setAtIndex(ValueLayout.JAVA_DOUBLE, index, s.accept(i, j, aE));
+                }
+            }
+        }
+    }
+}
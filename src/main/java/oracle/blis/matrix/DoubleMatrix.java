@@ -24,7 +24,6 @@
 package oracle.blis.matrix;
 
 import oracle.blis.binding.blis_h;
-import oracle.blis.binding.obj_t;
 
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.SegmentAllocator;
@@ -32,12 +31,17 @@ import java.lang.foreign.ValueLayout;
 import java.util.Objects;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoubleUnaryOperator;
+import java.util.stream.IntStream;
 
 public final class DoubleMatrix extends Matrix<Double> {
     DoubleMatrix(SegmentAllocator allocator, MemorySegment obj, MemorySegment buffer) {
         super(allocator, obj, buffer);
     }
 
+    DoubleMatrix(DoubleMatrix parent, long i, long j, long m, long n, int info) {
+        super(parent, i, j, m, n, info);
+    }
+
     public double get(long i, long j) {
         Objects.checkIndex(i, rows);
         Objects.checkIndex(j, columns);
@@ -63,24 +67,29 @@ public final class DoubleMatrix extends Matrix<Double> {
     public void elementwise(Matrix<Double> r, DoubleUnaryOperator o) {
         DoubleMatrix result = cast(r);
 
-        if (rows != result.rows || columns != result.columns) {
-            throw new IllegalArgumentException("All matrices must have the same dimensions");
-        }
+        checkSameDimensions(result);
 
-        if (isZeroOffset() && r.isZeroOffset() &&
+        MatrixEvent e = MatrixEvent.start();
+        boolean fastPath = true;
+        if (rowStride == 1 && result.rowStride == 1 &&
+                o instanceof DoubleBroadcastKernel.UnaryBroadcastKernel k) {
+            // Contiguous columns
+            k.unaryBroadcastStrided(buffer, linearIndex(0, 0), columnStride,
+                    result.buffer, result.linearIndex(0, 0), result.columnStride,
+                    rows, columns);
+        } else if (columnStride == 1 && result.columnStride == 1 &&
                 o instanceof DoubleBroadcastKernel.UnaryBroadcastKernel k) {
-            k.unaryBroadcast(buffer, r.buffer, rows * columns);
+            // Contiguous rows
+            k.unaryBroadcastStrided(buffer, linearIndex(0, 0), rowStride,
+                    result.buffer, result.linearIndex(0, 0), result.rowStride,
+                    columns, rows);
         } else {
-            for (long j = 0; j < columns; j++) {
-                for (long i = 0; i < rows; i++) {
-                    long aIndex = linearIndex(i, j);
-                    double aE = buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, aIndex);
-                    aE = o.applyAsDouble(aE);
-                    long rIndex = this == r ? aIndex : result.linearIndex(i, j);
-                    result.buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, rIndex, aE);
-                }
-            }
+            DoubleLoops.of(o).unary(buffer, linearIndex(0, 0), rowStride, columnStride,
+                    result.buffer, result.linearIndex(0, 0), result.rowStride, result.columnStride,
+                    rows, columns, o);
+            fastPath = false;
         }
+        e.commitKernel("elementwiseUnary", result, this, null, null, o, fastPath);
     }
 
     // Binary, update a in place
@@ -93,34 +102,17 @@ public final class DoubleMatrix extends Matrix<Double> {
         DoubleMatrix that = cast(b);
         DoubleMatrix result = cast(r);
 
-        if (rows != result.rows || columns != result.columns) {
-            throw new IllegalArgumentException("All matrices must have the same dimensions");
-        }
-
-        // Same rows and columns
-        if (rows == that.rows && columns == that.columns) {
-            elementwiseSameSize(this, that, result, o);
-        }
-        // B is a scalar
-        else if (that.rows == 1 && that.columns == 1) {
-            long bIndex = that.linearIndex(0, 0);
-            double bE = that.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, bIndex);
-
-            elementwiseWithScalar(this, bE, result, o);
-        }
-        // Same columns
-        // B is a row-vector
-        else if (that.rows == 1 && columns == that.columns) {
-            elementwiseRowVector(this, that, result, o);
-        }
-        // Same rows
-        // B is a column-vector
-        else if (rows == that.rows && that.columns == 1) {
-            elementwiseColumnVector(this, that, result, o);
-        } else {
-            throw new IllegalArgumentException(
-                    String.format("Mismatched matrices: a(%d, %d) x b(%d, %d)", rows, columns, that.rows, that.columns));
-        }
+        checkSameDimensions(result);
+
+        MatrixEvent e = MatrixEvent.start();
+        boolean fastPath = switch (Broadcast.of(this, that)) {
+            case SAME_SIZE -> elementwiseSameSize(this, that, result, o);
+            case SCALAR -> elementwiseWithScalar(this,
+                    that.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, that.linearIndex(0, 0)), result, o);
+            case ROW_VECTOR -> elementwiseRowVector(this, that, result, o);
+            case COLUMN_VECTOR -> elementwiseColumnVector(this, that, result, o);
+        };
+        e.commitKernel("elementwiseBinary", result, this, that, null, o, fastPath);
     }
 
 
@@ -133,25 +125,32 @@ public final class DoubleMatrix extends Matrix<Double> {
 
      Broadcast B over A
      */
-    private static void elementwiseSameSize(DoubleMatrix a, DoubleMatrix b, DoubleMatrix r,
-                                            DoubleBinaryOperator o) {
+    private static boolean elementwiseSameSize(DoubleMatrix a, DoubleMatrix b, DoubleMatrix r,
+                                               DoubleBinaryOperator o) {
         assert a.rows == b.rows && a.columns == b.columns;
 
-        if (a.isZeroOffset() && b.isZeroOffset() && r.isZeroOffset() &&
+        if (a.rowStride == 1 && b.rowStride == 1 && r.rowStride == 1 &&
                 o instanceof DoubleBroadcastKernel.BinaryBinaryBroadcastKernel k) {
-            k.binaryBroadcastMatrix(a.buffer, b.buffer, r.buffer, a.rows * a.columns);
+            // Contiguous columns
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
+        } else if (a.columnStride == 1 && b.columnStride == 1 && r.columnStride == 1 &&
+                o instanceof DoubleBroadcastKernel.BinaryBinaryBroadcastKernel k) {
+            // Contiguous rows
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
         } else {
-            for (long j = 0; j < a.columns; j++) {
-                for (long i = 0; i < a.rows; i++) {
-                    long aIndex = a.linearIndex(i, j);
-                    double aE = a.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, aIndex);
-                    long bIndex = b.linearIndex(i, j);
-                    double bE = b.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, bIndex);
-                    aE = o.applyAsDouble(aE, bE);
-                    long rIndex = a == r ? aIndex : r.linearIndex(i, j);
-                    r.buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, rIndex, aE);
-                }
-            }
+            DoubleLoops.of(o).binary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride, b.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
         }
     }
 
@@ -164,21 +163,31 @@ public final class DoubleMatrix extends Matrix<Double> {
 
     Broadcast b over A
      */
-    private static void elementwiseWithScalar(DoubleMatrix a, double bE, DoubleMatrix r,
-                                              DoubleBinaryOperator o) {
-        if (a.isZeroOffset() && r.isZeroOffset() &&
+    private static boolean elementwiseWithScalar(DoubleMatrix a, double bE, DoubleMatrix r,
+                                                 DoubleBinaryOperator o) {
+        if (a.rowStride == 1 && r.rowStride == 1 &&
                 o instanceof DoubleBroadcastKernel.BinaryBinaryBroadcastKernel k) {
-            k.binaryBroadcastScalar(a.buffer, bE, r.buffer, 0, a.rows * a.columns);
+            // Contiguous columns
+            k.binaryBroadcastScalarStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    bE,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
+        } else if (a.columnStride == 1 && r.columnStride == 1 &&
+                o instanceof DoubleBroadcastKernel.BinaryBinaryBroadcastKernel k) {
+            // Contiguous rows
+            k.binaryBroadcastScalarStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    bE,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
         } else {
-            for (long j = 0; j < a.columns; j++) {
-                for (long i = 0; i < a.rows; i++) {
-                    long aIndex = a.linearIndex(i, j);
-                    double aE = a.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, aIndex);
-                    aE = o.applyAsDouble(aE, bE);
-                    long rIndex = a == r ? aIndex : r.linearIndex(i, j);
-                    r.buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, rIndex, aE);
-                }
-            }
+            // Broadcast b with strides of 0
+            DoubleLoops.of(o).binary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    MemorySegment.ofArray(new double[]{bE}), 0, 0, 0,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
         }
     }
 
@@ -192,29 +201,33 @@ public final class DoubleMatrix extends Matrix<Double> {
 
     Broadcast B over the rows of A
      */
-    private static void elementwiseRowVector(DoubleMatrix a, DoubleMatrix b, DoubleMatrix r,
-                                             DoubleBinaryOperator o) {
+    private static boolean elementwiseRowVector(DoubleMatrix a, DoubleMatrix b, DoubleMatrix r,
+                                                DoubleBinaryOperator o) {
         assert b.rows == 1;
 
-        if (a.isZeroOffset() && b.isZeroOffset() && r.isZeroOffset() &&
-                a.rowStride == 1 && r.rowStride == 1 &&
-                b.columnStride == 1 &&
+        if (a.rowStride == 1 && r.rowStride == 1 &&
                 o instanceof DoubleBroadcastKernel.BinaryBinaryBroadcastKernel k) {
-            k.binaryBroadcastVector(a.buffer, b.buffer, r.buffer, a.columnStride, b.columns);
+            // Contiguous columns, broadcast each element of B over a column
+            k.binaryBroadcastVectorStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
+        } else if (a.columnStride == 1 && b.columnStride == 1 && r.columnStride == 1 &&
+                o instanceof DoubleBroadcastKernel.BinaryBinaryBroadcastKernel k) {
+            // Contiguous rows, broadcast B over each row with a stride of 0
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    b.buffer, b.linearIndex(0, 0), 0,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
         } else {
-            for (long j = 0; j < a.columns; j++) {
-                long bIndex = b.linearIndex(0, j);
-                double bE = b.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, bIndex);
-                // Apply b to row of A
-
-                for (long i = 0; i < a.rows; i++) {
-                    long aIndex = a.linearIndex(i, j);
-                    double aE = a.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, aIndex);
-                    aE = o.applyAsDouble(aE, bE);
-                    long rIndex = a == r ? aIndex : r.linearIndex(i, j);
-                    r.buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, rIndex, aE);
-                }
-            }
+            // Broadcast B over the rows with a row stride of 0
+            DoubleLoops.of(o).binary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), 0, b.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
         }
     }
 
@@ -228,30 +241,33 @@ public final class DoubleMatrix extends Matrix<Double> {
 
     Broadcast B over the columns of A
      */
-    private static void elementwiseColumnVector(DoubleMatrix a, DoubleMatrix b, DoubleMatrix r,
-                                                DoubleBinaryOperator o) {
+    private static boolean elementwiseColumnVector(DoubleMatrix a, DoubleMatrix b, DoubleMatrix r,
+                                                   DoubleBinaryOperator o) {
         assert b.columns == 1;
 
-        if (a.isZeroOffset() && b.isZeroOffset() && r.isZeroOffset() &&
-                a.columnStride == 1 && r.columnStride == 1 &&
-                b.rowStride == 1 &&
+        if (a.columnStride == 1 && r.columnStride == 1 &&
                 o instanceof DoubleBroadcastKernel.BinaryBinaryBroadcastKernel k) {
-            assert a.rowStride == b.rows;
-            k.binaryBroadcastVector(a.buffer, b.buffer, r.buffer, a.rowStride, b.rows);
+            // Contiguous rows, broadcast each element of B over a row
+            k.binaryBroadcastVectorStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
+        } else if (a.rowStride == 1 && b.rowStride == 1 && r.rowStride == 1 &&
+                o instanceof DoubleBroadcastKernel.BinaryBinaryBroadcastKernel k) {
+            // Contiguous columns, broadcast B over each column with a stride of 0
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), 0,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
         } else {
-            for (long i = 0; i < a.rows; i++) {
-                long bIndex = b.linearIndex(i, 0);
-                double bE = b.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, bIndex);
-                // Apply b to column of A
-
-                for (long j = 0; j < a.columns; j++) {
-                    long aIndex = a.linearIndex(i, j);
-                    double aE = a.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, aIndex);
-                    aE = o.applyAsDouble(aE, bE);
-                    long rIndex = a == r ? aIndex : r.linearIndex(i, j);
-                    r.buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, rIndex, aE);
-                }
-            }
+            // Broadcast B over the columns with a column stride of 0
+            DoubleLoops.of(o).binary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride, 0,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
         }
     }
 
@@ -267,35 +283,19 @@ public final class DoubleMatrix extends Matrix<Double> {
         DoubleMatrix cM = cast(c);
         DoubleMatrix result = cast(r);
 
-        if (rows != result.rows || columns != result.columns || bM.rows != cM.rows || bM.columns != cM.columns) {
-            throw new IllegalArgumentException("All matrices must have the same dimensions");
-        }
-
-        // Same rows and columns
-        if (rows == bM.rows && columns == bM.columns) {
-            elementwiseSameSize(this, bM, cM, result, o);
-        }
-        // B is a scalar
-        else if (bM.rows == 1 && bM.columns == 1) {
-            long bIndex = bM.linearIndex(0, 0);
-            double bE = bM.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, bIndex);
-            double cE = cM.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, bIndex);
-
-            elementwiseWithScalar(this, bE, cE, result, o);
-        }
-        // Same columns
-        // B is a row-vector
-        else if (bM.rows == 1 && columns == bM.columns) {
-            elementwiseRowVector(this, bM, cM, result, o);
-        }
-        // Same rows
-        // B is a column-vector
-        else if (rows == bM.rows && bM.columns == 1) {
-            elementwiseColumnVector(this, bM, cM, result, o);
-        } else {
-            throw new IllegalArgumentException(
-                    String.format("Mismatched matrices: a(%d, %d) x b(%d, %d)", rows, columns, bM.rows, bM.columns));
-        }
+        checkSameDimensions(result);
+        bM.checkSameDimensions(cM);
+
+        MatrixEvent e = MatrixEvent.start();
+        boolean fastPath = switch (Broadcast.of(this, bM)) {
+            case SAME_SIZE -> elementwiseSameSize(this, bM, cM, result, o);
+            case SCALAR -> elementwiseWithScalar(this,
+                    bM.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, bM.linearIndex(0, 0)),
+                    cM.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, cM.linearIndex(0, 0)), result, o);
+            case ROW_VECTOR -> elementwiseRowVector(this, bM, cM, result, o);
+            case COLUMN_VECTOR -> elementwiseColumnVector(this, bM, cM, result, o);
+        };
+        e.commitKernel("elementwiseTernary", result, this, bM, cM, o, fastPath);
     }
 
     /*
@@ -307,27 +307,35 @@ public final class DoubleMatrix extends Matrix<Double> {
 
      Broadcast B over A
      */
-    private static void elementwiseSameSize(DoubleMatrix a, DoubleMatrix b, DoubleMatrix c, DoubleMatrix r,
-                                            DoubleTernaryOperator o) {
+    private static boolean elementwiseSameSize(DoubleMatrix a, DoubleMatrix b, DoubleMatrix c, DoubleMatrix r,
+                                               DoubleTernaryOperator o) {
         assert a.rows == b.rows && a.columns == b.columns;
 
-        if (a.isZeroOffset() && b.isZeroOffset() && c.isZeroOffset() && r.isZeroOffset() &&
+        if (a.rowStride == 1 && b.rowStride == 1 && c.rowStride == 1 && r.rowStride == 1 &&
+                o instanceof DoubleBroadcastKernel.TernaryBroadcastKernel k) {
+            // Contiguous columns
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.columnStride,
+                    c.buffer, c.linearIndex(0, 0), c.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
+        } else if (a.columnStride == 1 && b.columnStride == 1 && c.columnStride == 1 && r.columnStride == 1 &&
                 o instanceof DoubleBroadcastKernel.TernaryBroadcastKernel k) {
-            k.binaryBroadcastMatrix(a.buffer, b.buffer, c.buffer, r.buffer, a.rows * a.columns);
+            // Contiguous rows
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride,
+                    c.buffer, c.linearIndex(0, 0), c.rowStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
         } else {
-            for (long j = 0; j < a.columns; j++) {
-                for (long i = 0; i < a.rows; i++) {
-                    long aIndex = a.linearIndex(i, j);
-                    double aE = a.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, aIndex);
-                    long bIndex = b.linearIndex(i, j);
-                    double bE = b.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, bIndex);
-                    long cIndex = c.linearIndex(i, j);
-                    double cE = c.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, cIndex);
-                    aE = o.applyAsDouble(aE, bE, cE);
-                    long rIndex = a == r ? aIndex : r.linearIndex(i, j);
-                    r.buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, rIndex, aE);
-                }
-            }
+            DoubleLoops.of(o).ternary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride, b.columnStride,
+                    c.buffer, c.linearIndex(0, 0), c.rowStride, c.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
         }
     }
 
@@ -340,21 +348,33 @@ public final class DoubleMatrix extends Matrix<Double> {
 
     Broadcast b over A
      */
-    private static void elementwiseWithScalar(DoubleMatrix a, double bE, double cE, DoubleMatrix r,
-                                              DoubleTernaryOperator o) {
-        if (a.isZeroOffset() && r.isZeroOffset() &&
+    private static boolean elementwiseWithScalar(DoubleMatrix a, double bE, double cE, DoubleMatrix r,
+                                                 DoubleTernaryOperator o) {
+        if (a.rowStride == 1 && r.rowStride == 1 &&
                 o instanceof DoubleBroadcastKernel.TernaryBroadcastKernel k) {
-            k.binaryBroadcastScalar(a.buffer, bE, cE, r.buffer, 0, a.rows * a.columns);
+            // Contiguous columns
+            k.binaryBroadcastScalarStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    bE, cE,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
+        } else if (a.columnStride == 1 && r.columnStride == 1 &&
+                o instanceof DoubleBroadcastKernel.TernaryBroadcastKernel k) {
+            // Contiguous rows
+            k.binaryBroadcastScalarStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    bE, cE,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
         } else {
-            for (long j = 0; j < a.columns; j++) {
-                for (long i = 0; i < a.rows; i++) {
-                    long aIndex = a.linearIndex(i, j);
-                    double aE = a.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, aIndex);
-                    aE = o.applyAsDouble(aE, bE, cE);
-                    long rIndex = a == r ? aIndex : r.linearIndex(i, j);
-                    r.buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, rIndex, aE);
-                }
-            }
+            // Broadcast b and c with strides of 0
+            MemorySegment bc = MemorySegment.ofArray(new double[]{bE, cE});
+            DoubleLoops.of(o).ternary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    bc, 0, 0, 0,
+                    bc, 1, 0, 0,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
         }
     }
 
@@ -368,31 +388,36 @@ public final class DoubleMatrix extends Matrix<Double> {
 
     Broadcast B over the rows of A
      */
-    private static void elementwiseRowVector(DoubleMatrix a, DoubleMatrix b, DoubleMatrix c, DoubleMatrix r,
-                                             DoubleTernaryOperator o) {
+    private static boolean elementwiseRowVector(DoubleMatrix a, DoubleMatrix b, DoubleMatrix c, DoubleMatrix r,
+                                                DoubleTernaryOperator o) {
         assert b.rows == 1;
 
-        if (a.isZeroOffset() && b.isZeroOffset() && c.isZeroOffset() && r.isZeroOffset() &&
-                a.rowStride == 1 && r.rowStride == 1 &&
-                b.columnStride == 1 &&
+        if (a.rowStride == 1 && r.rowStride == 1 &&
                 o instanceof DoubleBroadcastKernel.TernaryBroadcastKernel k) {
-            k.binaryBroadcastVector(a.buffer, b.buffer, c.buffer, r.buffer, a.columnStride, b.columns);
+            // Contiguous columns, broadcast each element of B and C over a column
+            k.binaryBroadcastVectorStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.columnStride,
+                    c.buffer, c.linearIndex(0, 0), c.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
+        } else if (a.columnStride == 1 && b.columnStride == 1 && c.columnStride == 1 && r.columnStride == 1 &&
+                o instanceof DoubleBroadcastKernel.TernaryBroadcastKernel k) {
+            // Contiguous rows, broadcast B and C over each row with a stride of 0
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    b.buffer, b.linearIndex(0, 0), 0,
+                    c.buffer, c.linearIndex(0, 0), 0,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
         } else {
-            for (long j = 0; j < a.columns; j++) {
-                long bIndex = b.linearIndex(0, j);
-                double bE = b.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, bIndex);
-                long cIndex = c.linearIndex(0, j);
-                double cE = c.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, cIndex);
-                // Apply b to row of A
-
-                for (long i = 0; i < a.rows; i++) {
-                    long aIndex = a.linearIndex(i, j);
-                    double aE = a.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, aIndex);
-                    aE = o.applyAsDouble(aE, bE, cE);
-                    long rIndex = a == r ? aIndex : r.linearIndex(i, j);
-                    r.buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, rIndex, aE);
-                }
-            }
+            // Broadcast B and C over the rows with a row stride of 0
+            DoubleLoops.of(o).ternary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), 0, b.columnStride,
+                    c.buffer, c.linearIndex(0, 0), 0, c.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
         }
     }
 
@@ -406,84 +431,202 @@ public final class DoubleMatrix extends Matrix<Double> {
 
     Broadcast B over the columns of A
      */
-    private static void elementwiseColumnVector(DoubleMatrix a, DoubleMatrix b, DoubleMatrix c, DoubleMatrix r,
-                                                DoubleTernaryOperator o) {
+    private static boolean elementwiseColumnVector(DoubleMatrix a, DoubleMatrix b, DoubleMatrix c, DoubleMatrix r,
+                                                   DoubleTernaryOperator o) {
         assert b.columns == 1;
 
-        if (a.isZeroOffset() && b.isZeroOffset() && c.isZeroOffset() && r.isZeroOffset() &&
-                a.columnStride == 1 && r.columnStride == 1 &&
-                b.rowStride == 1 &&
+        if (a.columnStride == 1 && r.columnStride == 1 &&
+                o instanceof DoubleBroadcastKernel.TernaryBroadcastKernel k) {
+            // Contiguous rows, broadcast each element of B and C over a row
+            k.binaryBroadcastVectorStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride,
+                    c.buffer, c.linearIndex(0, 0), c.rowStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
+        } else if (a.rowStride == 1 && b.rowStride == 1 && c.rowStride == 1 && r.rowStride == 1 &&
                 o instanceof DoubleBroadcastKernel.TernaryBroadcastKernel k) {
-            assert a.rowStride == b.rows;
-            k.binaryBroadcastVector(a.buffer, b.buffer, c.buffer, r.buffer, a.rowStride, b.rows);
+            // Contiguous columns, broadcast B and C over each column with a stride of 0
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), 0,
+                    c.buffer, c.linearIndex(0, 0), 0,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
         } else {
-            for (long i = 0; i < a.rows; i++) {
-                long bIndex = b.linearIndex(i, 0);
-                double bE = b.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, bIndex);
-                long cIndex = c.linearIndex(i, 0);
-                double cE = c.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, cIndex);
-                // Apply b to column of A
-
-                for (long j = 0; j < a.columns; j++) {
-                    long aIndex = a.linearIndex(i, j);
-                    double aE = a.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, aIndex);
-                    aE = o.applyAsDouble(aE, bE, cE);
-                    long rIndex = a == r ? aIndex : r.linearIndex(i, j);
-                    r.buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, rIndex, aE);
-                }
-            }
+            // Broadcast B and C over the columns with a column stride of 0
+            DoubleLoops.of(o).ternary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride, 0,
+                    c.buffer, c.linearIndex(0, 0), c.rowStride, 0,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
+        }
+    }
+
+
+    // Rows of the result of describeColumns, followed by a row for each quantile
+    public enum Statistic {
+        MIN, MAX, COUNT, MEAN,
+        // Sample variance
+        VARIANCE;
+
+        public int row() {
+            return ordinal();
         }
     }
 
+    // Statistics of each column in one pass, a (5 + quantiles) x columns matrix
+    // Quantiles in [0, 1] are approximate for columns with many rows, see ColumnStatistics
+    public DoubleMatrix describeColumns(double... quantiles) {
+        DoubleMatrix r = Matrix.newDoubleMatrix(Statistic.values().length + quantiles.length, columns);
+        describeColumns(r, quantiles);
+        return r;
+    }
 
-    // statistics -> 4 columns of min, max, mean, medium, rows is input columns
+    public void describeColumns(Matrix<Double> r, double... quantiles) {
+        ColumnStatistics.describe(this, cast(r), quantiles);
+    }
+
+    // Column index of the maximum element of each row, ignoring NaN, the first if several are equal
+    public long[] argmaxRow() {
+        return ArgReduction.row(this, true);
+    }
+
+    public long[] argminRow() {
+        return ArgReduction.row(this, false);
+    }
+
+    // Row index of the maximum element of each column, ignoring NaN, the first if several are equal
+    public long[] argmaxColumn() {
+        return ArgReduction.column(this, true);
+    }
+
+    public long[] argminColumn() {
+        return ArgReduction.column(this, false);
+    }
+
+    // The identity of a reduction kernel, otherwise 0.0
+    static double identity(DoubleBinaryOperator o) {
+        return o instanceof DoubleBroadcastKernel.ReductionBroadcastKernel k ? k.identity() : 0.0;
+    }
 
     public void reductionRow(Matrix<Double> r, DoubleBinaryOperator o) {
+        reductionRow(r, identity(o), o);
+    }
+
+    // The identity is the initial value of the reduction of each row
+    public void reductionRow(Matrix<Double> r, double identity, DoubleBinaryOperator o) {
         DoubleMatrix result = cast(r);
 
         if (result.columns != 1 || result.rows != rows) {
             throw new IllegalArgumentException();
         }
 
-        if (isZeroOffset() && r.isZeroOffset() &&
-                columnStride == 1 &&
+        MatrixEvent e = MatrixEvent.start();
+        if (columnStride == 1 &&
                 o instanceof DoubleBroadcastKernel.ReductionBroadcastKernel k) {
-            k.reduceBroadcastVector(buffer, r.buffer, rowStride, result.rows);
+            // Contiguous rows, reduce each row
+            k.reduceBroadcastVectorStrided(buffer, linearIndex(0, 0), rowStride,
+                    result.buffer, result.linearIndex(0, 0), result.rowStride,
+                    columns, rows);
+            applyIdentity(result, identity, k);
+            e.commitKernel("reductionRow", result, this, null, null, o, true);
+        } else if (rowStride == 1 && result.rowStride == 1) {
+            // Contiguous columns
+            reductionRowStreaming(this, result, identity, o);
+            e.commitParallel("reductionRow", this, result, rows * columns,
+                    o instanceof DoubleBroadcastKernel.ReductionBroadcastKernel,
+                    rows * columns > DoubleBroadcastKernel.PARALLEL_THRESHOLD);
         } else {
+            DoubleLoops loops = DoubleLoops.of(o);
             for (long i = 0; i < rows; i++) {
-                double acc = 0.0;
-                for (long j = 0; j < columns; j++) {
-                    long index = linearIndex(i, j);
-                    double e = buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, index);
-                    acc = o.applyAsDouble(acc, e);
-                }
+                double acc = loops.reduce(buffer, linearIndex(i, 0), rowStride, columnStride, 1, columns, identity, o);
                 result.set(i, 0, acc);
             }
+            e.commitKernel("reductionRow", result, this, null, null, o, false);
         }
     }
 
+    // r := o(identity, r), if the identity is not that of the kernel that reduced into r
+    private static void applyIdentity(DoubleMatrix r, double identity,
+                                      DoubleBroadcastKernel.ReductionBroadcastKernel k) {
+        if (Double.compare(identity, k.identity()) != 0) {
+            r.elementwise(e -> k.applyAsDouble(identity, e));
+        }
+    }
+
+    // Number of rows of a block of the result, such that it stays in the L1 cache while the columns are streamed
+    static final long REDUCTION_ROW_BLOCK = 1024;
+
+    /*
+    Column-major A, reduce each row
+
+    a a a a a   r
+    a a a a a > r
+    a a a a a   r
+
+    Stream the contiguous columns of A through a block of rows of R, accumulating each column into the block,
+    in parallel over blocks of rows
+     */
+    private static void reductionRowStreaming(DoubleMatrix a, DoubleMatrix r, double identity, DoubleBinaryOperator o) {
+        assert a.rowStride == 1 && r.rowStride == 1;
+
+        long blocks = (a.rows + REDUCTION_ROW_BLOCK - 1) / REDUCTION_ROW_BLOCK;
+        IntStream s = IntStream.range(0, Math.toIntExact(blocks));
+        if (a.rows * a.columns > DoubleBroadcastKernel.PARALLEL_THRESHOLD) {
+            s = s.parallel();
+        }
+        s.forEach(b -> {
+            long i = b * REDUCTION_ROW_BLOCK;
+            long length = Math.min(REDUCTION_ROW_BLOCK, a.rows - i);
+            long aOffset = a.linearIndex(i, 0);
+            long rOffset = r.linearIndex(i, 0);
+            for (long k = 0; k < length; k++) {
+                r.buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, rOffset + k, identity);
+            }
+            if (o instanceof DoubleBroadcastKernel.ReductionBroadcastKernel k) {
+                k.reduceBroadcastRegions(a.buffer, aOffset, a.columnStride, r.buffer, rOffset, length, a.columns);
+            } else {
+                // r := o(r, a), where r is broadcast over the columns with a column stride of 0
+                DoubleLoops.of(o).binary(r.buffer, rOffset, 1, 0,
+                        a.buffer, aOffset, 1, a.columnStride,
+                        r.buffer, rOffset, 1, 0,
+                        length, a.columns, o);
+            }
+        });
+    }
+
     public void reductionColumn(Matrix<Double> r, DoubleBinaryOperator o) {
+        reductionColumn(r, identity(o), o);
+    }
+
+    // The identity is the initial value of the reduction of each column
+    public void reductionColumn(Matrix<Double> r, double identity, DoubleBinaryOperator o) {
         DoubleMatrix result = cast(r);
 
         if (result.rows != 1 || result.columns != columns) {
             throw new IllegalArgumentException();
         }
 
-        if (isZeroOffset() && r.isZeroOffset() &&
-                rowStride == 1 &&
+        MatrixEvent e = MatrixEvent.start();
+        boolean fastPath = true;
+        if (rowStride == 1 &&
                 o instanceof DoubleBroadcastKernel.ReductionBroadcastKernel k) {
-            k.reduceBroadcastVector(buffer, r.buffer, columnStride, result.columns);
+            // Contiguous columns, reduce each column
+            k.reduceBroadcastVectorStrided(buffer, linearIndex(0, 0), columnStride,
+                    result.buffer, result.linearIndex(0, 0), result.columnStride,
+                    rows, columns);
+            applyIdentity(result, identity, k);
         } else {
+            DoubleLoops loops = DoubleLoops.of(o);
             for (long j = 0; j < columns; j++) {
-                double acc = 0.0;
-                for (long i = 0; i < rows; i++) {
-                    long index = linearIndex(i, j);
-                    double e = buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, index);
-                    acc = o.applyAsDouble(acc, e);
-                }
+                double acc = loops.reduce(buffer, linearIndex(0, j), rowStride, columnStride, rows, 1, identity, o);
                 result.set(0, j, acc);
             }
+            fastPath = false;
         }
+        e.commitKernel("reductionColumn", result, this, null, null, o, fastPath);
     }
 
     @FunctionalInterface
@@ -501,6 +644,11 @@ public final class DoubleMatrix extends Matrix<Double> {
         double apply(T t);
     }
 
+    @FunctionalInterface
+    public interface ReductionCombiner<T> {
+        T apply(T a, T b);
+    }
+
     public <T> void reductionColumn(Matrix<Double> r,
                                     ReductionSupplier<T> s, ReductionAccumulator<T> a, ReductionFinisher<T> f) {
         DoubleMatrix result = cast(r);
@@ -509,6 +657,7 @@ public final class DoubleMatrix extends Matrix<Double> {
             throw new IllegalArgumentException();
         }
 
+        MatrixEvent event = MatrixEvent.start();
         for (long j = 0; j < columns; j++) {
             T acc = s.apply(j);
             for (long i = 0; i < rows; i++) {
@@ -518,23 +667,120 @@ public final class DoubleMatrix extends Matrix<Double> {
             }
             result.set(0, j, f.apply(acc));
         }
+        event.commitParallel("reductionColumn", this, result, rows * columns, false, false);
+    }
+
+    // Parallel, each column is reduced in chunks of rows that are combined in order
+    // The supplier is called for each chunk of a column, and returns a new accumulator
+    public <T> void reductionColumn(Matrix<Double> r,
+                                    ReductionSupplier<T> s, ReductionAccumulator<T> a, ReductionCombiner<T> c,
+                                    ReductionFinisher<T> f) {
+        DoubleMatrix result = cast(r);
+
+        if (result.rows != 1 || result.columns != columns) {
+            throw new IllegalArgumentException();
+        }
+
+        MatrixEvent event = MatrixEvent.start();
+        long chunk = DoubleBroadcastKernel.PARALLEL_CHUNK_SIZE;
+        int chunksPerColumn = Math.toIntExact(Math.max(1, (rows + chunk - 1) / chunk));
+        Object[] partials = new Object[Math.toIntExact(columns * chunksPerColumn)];
+        IntStream tasks = IntStream.range(0, partials.length);
+        if (rows * columns > DoubleBroadcastKernel.PARALLEL_THRESHOLD) {
+            tasks = tasks.parallel();
+        }
+        tasks.forEach(t -> {
+            long j = t / chunksPerColumn;
+            long start = (t % chunksPerColumn) * chunk;
+            long end = Math.min(rows, start + chunk);
+            T acc = s.apply(j);
+            for (long i = start; i < end; i++) {
+                long index = linearIndex(i, j);
+                double e = buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, index);
+                acc = a.apply(acc, e);
+            }
+            partials[t] = acc;
+        });
+
+        for (int j = 0; j < columns; j++) {
+            @SuppressWarnings("unchecked")
+            T acc = (T) partials[j * chunksPerColumn];
+            for (int k = 1; k < chunksPerColumn; k++) {
+                @SuppressWarnings("unchecked")
+                T p = (T) partials[j * chunksPerColumn + k];
+                acc = c.apply(acc, p);
+            }
+            result.set(0, j, f.apply(acc));
+        }
+        event.commitParallel("reductionColumn", this, result, rows * columns, false,
+                rows * columns > DoubleBroadcastKernel.PARALLEL_THRESHOLD);
     }
 
     public double reduction(DoubleBinaryOperator o) {
-        if (isZeroOffset()
+        return reduction(identity(o), o);
+    }
+
+    // The identity is the initial value of the reduction
+    public double reduction(double identity, DoubleBinaryOperator o) {
+        MatrixEvent e = MatrixEvent.start();
+        if (rowStride == 1 && columnStride == rows
                 && o instanceof DoubleBroadcastKernel.ReductionBroadcastKernel k) {
-            return k.reduceBroadcastScalar(buffer, 0, rows * columns);
+            // Dense column-major, reduce the elements as one region
+            double acc = k.reduceBroadcastScalar(buffer, linearIndex(0, 0), rows * columns);
+            e.commitKernel("reduction", this, this, null, null, o, true);
+            return Double.compare(identity, k.identity()) != 0 ? o.applyAsDouble(identity, acc) : acc;
         } else {
-            double acc = 0.0;
-            for (long j = 0; j < columns; j++) {
-                for (long i = 0; i < rows; i++) {
-                    long index = linearIndex(i, j);
-                    double e = buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, index);
-                    acc = o.applyAsDouble(acc, e);
+            double acc = DoubleLoops.of(o).reduce(buffer, linearIndex(0, 0), rowStride, columnStride,
+                    rows, columns, identity, o);
+            e.commitKernel("reduction", this, this, null, null, o, false);
+            return acc;
+        }
+    }
+
+    // Parallel, the elements are reduced in chunks, in column-major order, that are combined in order
+    // The identity is the initial value of each chunk, and the operators must be associative
+    public double reduction(double identity, DoubleBinaryOperator accumulator, DoubleBinaryOperator combiner) {
+        long length = rows * columns;
+        if (length == 0) {
+            return identity;
+        }
+
+        MatrixEvent e = MatrixEvent.start();
+        long chunk = DoubleBroadcastKernel.PARALLEL_CHUNK_SIZE;
+        double[] partials = new double[Math.toIntExact((length + chunk - 1) / chunk)];
+        DoubleLoops loops = DoubleLoops.of(accumulator);
+        IntStream tasks = IntStream.range(0, partials.length);
+        if (length > DoubleBroadcastKernel.PARALLEL_THRESHOLD) {
+            tasks = tasks.parallel();
+        }
+        tasks.forEach(t -> {
+            long start = t * chunk;
+            long end = Math.min(length, start + chunk);
+            double acc = identity;
+            // Whole or partial columns of the chunk
+            for (long k = start; k < end; ) {
+                long i = k % rows;
+                long j = k / rows;
+                long n = Math.min(rows - i, end - k);
+                if (rowStride == 1 &&
+                        accumulator instanceof DoubleBroadcastKernel.ReductionBroadcastKernel kernel) {
+                    acc = accumulator.applyAsDouble(acc, kernel.reduceBroadcastScalar(buffer, linearIndex(i, j), n));
+                } else {
+                    acc = loops.reduce(buffer, linearIndex(i, j), rowStride, columnStride, n, 1, acc, accumulator);
                 }
+                k += n;
             }
-            return acc;
+            partials[t] = acc;
+        });
+
+        double acc = partials[0];
+        for (int t = 1; t < partials.length; t++) {
+            acc = combiner.applyAsDouble(acc, partials[t]);
         }
+        e.commitParallel("reduction", this, null, length,
+                rowStride == 1 && accumulator instanceof DoubleBroadcastKernel.ReductionBroadcastKernel,
+                length > DoubleBroadcastKernel.PARALLEL_THRESHOLD);
+        return acc;
     }
 
     @FunctionalInterface
@@ -548,35 +794,21 @@ public final class DoubleMatrix extends Matrix<Double> {
     }
 
     public void forEach(MatrixConsumer c) {
-        for (long j = 0; j < columns; j++) {
-            for (long i = 0; i < rows; i++) {
-                long index = linearIndex(i, j);
-                double e = buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, index);
-                c.accept(i, j, e);
-            }
-        }
+        DoubleLoops.of(c).forEach(buffer, linearIndex(0, 0), rowStride, columnStride, rows, columns, c);
     }
 
     public void setEach(MatrixSupplier c) {
-        for (long j = 0; j < columns; j++) {
-            for (long i = 0; i < rows; i++) {
-                long index = linearIndex(i, j);
-                double e = buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, index);
-                e = c.accept(i, j, e);
-                buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, index, e);
-            }
-        }
+        DoubleLoops.of(c).setEach(buffer, linearIndex(0, 0), rowStride, columnStride, rows, columns, c);
     }
 
     @Override
     public DoubleMatrix subMatrix(long i, long j, long rows, long columns) {
-        if (i + rows > this.rows || j + columns > this.columns) {
-            throw new IllegalArgumentException();
-        }
+        return (DoubleMatrix) super.subMatrix(i, j, rows, columns);
+    }
 
-        MemorySegment view = obj_t.allocate(allocator);
-        blis_h.bli_acquire_mpart(i, j, rows, columns, this.obj, view);
-        return new DoubleMatrix(allocator, view, buffer);
+    @Override
+    DoubleMatrix view(long i, long j, long m, long n, int info) {
+        return new DoubleMatrix(this, i, j, m, n, info);
     }
 
     @Override
@@ -596,7 +828,7 @@ public final class DoubleMatrix extends Matrix<Double> {
         }
 
         // @@@ TODO implement in Java?
-        blis_h.bli_copym(obj, cast(r).obj);
+        blis_h.bli_copym(obj(), cast(r).obj());
     }
 
     @Override
@@ -609,18 +841,120 @@ public final class DoubleMatrix extends Matrix<Double> {
         Objects.checkIndex(srcRow, rows);
         Objects.checkIndex(dstRow, r.rows);
 
-        for (int j = 0; j < columns; j++) {
-            result.set(dstRow, j, get(srcRow, j));
+        long srcIndex = linearIndex(srcRow, 0);
+        long dstIndex = result.linearIndex(dstRow, 0);
+        if (columnStride == 1 && result.columnStride == 1) {
+            // Contiguous rows
+            MemorySegment.copy(buffer, ValueLayout.JAVA_DOUBLE, srcIndex * Double.BYTES,
+                    result.buffer, ValueLayout.JAVA_DOUBLE, dstIndex * Double.BYTES,
+                    columns);
+        } else {
+            for (long j = 0; j < columns; j++) {
+                double e = buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, srcIndex + j * columnStride);
+                result.buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, dstIndex + j * result.columnStride, e);
+            }
         }
     }
 
     public void extractColumnInto(int column, double[] r, int offset) {
+        copyColumnInto(column, r, offset);
+    }
+
+    // Bulk copies between matrices and double[] arrays
+
+    public void copyColumnInto(long column, double[] r, int offset) {
+        Objects.checkIndex(column, columns);
+        int n = Math.toIntExact(rows);
+        Objects.checkFromIndexSize(offset, n, r.length);
+
+        long index = linearIndex(0, column);
+        if (rowStride == 1) {
+            // Contiguous column
+            MemorySegment.copy(buffer, ValueLayout.JAVA_DOUBLE, index * Double.BYTES, r, offset, n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                r[offset + i] = buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, index + i * rowStride);
+            }
+        }
+    }
+
+    public void copyColumnFrom(long column, double[] a, int offset) {
         Objects.checkIndex(column, columns);
-        Objects.checkIndex(offset, r.length);
-        Objects.checkFromIndexSize(offset, rows, r.length);
+        int n = Math.toIntExact(rows);
+        Objects.checkFromIndexSize(offset, n, a.length);
+
+        long index = linearIndex(0, column);
+        if (rowStride == 1) {
+            // Contiguous column
+            MemorySegment.copy(a, offset, buffer, ValueLayout.JAVA_DOUBLE, index * Double.BYTES, n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, index + i * rowStride, a[offset + i]);
+            }
+        }
+    }
+
+    // Gather the elements of a row
+    public void copyRowInto(long row, double[] r, int offset) {
+        Objects.checkIndex(row, rows);
+        int n = Math.toIntExact(columns);
+        Objects.checkFromIndexSize(offset, n, r.length);
+
+        long index = linearIndex(row, 0);
+        if (columnStride == 1) {
+            // Contiguous row
+            MemorySegment.copy(buffer, ValueLayout.JAVA_DOUBLE, index * Double.BYTES, r, offset, n);
+        } else {
+            for (int j = 0; j < n; j++) {
+                r[offset + j] = buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, index + j * columnStride);
+            }
+        }
+    }
+
+    // Scatter the elements of a row
+    public void copyRowFrom(long row, double[] a, int offset) {
+        Objects.checkIndex(row, rows);
+        int n = Math.toIntExact(columns);
+        Objects.checkFromIndexSize(offset, n, a.length);
 
-        for (int i = 0; i < rows; i++) {
-            r[offset + i] = get(i, column);
+        long index = linearIndex(row, 0);
+        if (columnStride == 1) {
+            // Contiguous row
+            MemorySegment.copy(a, offset, buffer, ValueLayout.JAVA_DOUBLE, index * Double.BYTES, n);
+        } else {
+            for (int j = 0; j < n; j++) {
+                buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, index + j * columnStride, a[offset + j]);
+            }
+        }
+    }
+
+    // Copy the elements, in column-major order, into a new array
+    public double[] toArray() {
+        double[] r = new double[Math.toIntExact(rows * columns)];
+        if (rowStride == 1 && columnStride == rows) {
+            // Contiguous columns, without gaps between them
+            MemorySegment.copy(buffer, ValueLayout.JAVA_DOUBLE, linearIndex(0, 0) * Double.BYTES, r, 0, r.length);
+        } else {
+            for (long j = 0; j < columns; j++) {
+                copyColumnInto(j, r, Math.toIntExact(j * rows));
+            }
+        }
+        return r;
+    }
+
+    // Copy the elements, in column-major order, from an array
+    public void copyFrom(double[] a) {
+        if (a.length != rows * columns) {
+            throw new IllegalArgumentException("Array length must equal the number of elements");
+        }
+
+        if (rowStride == 1 && columnStride == rows) {
+            // Contiguous columns, without gaps between them
+            MemorySegment.copy(a, 0, buffer, ValueLayout.JAVA_DOUBLE, linearIndex(0, 0) * Double.BYTES, a.length);
+        } else {
+            for (long j = 0; j < columns; j++) {
+                copyColumnFrom(j, a, Math.toIntExact(j * rows));
+            }
         }
     }
 
@@ -632,9 +966,125 @@ public final class DoubleMatrix extends Matrix<Double> {
             throw new IllegalArgumentException();
         }
 
-        for (int j = 0; j < columns; j++) {
-            for (int i = 0; i < rows; i++) {
-                result.set(j, i, get(i, j));
+        if (this == r) {
+            transposeInPlace();
+            return;
+        }
+
+        MatrixEvent e = MatrixEvent.start();
+        forEachTransposeTile((i0, j0) -> transposeTile(this, result, i0, j0));
+        e.commitParallel("transpose", result, this, 0, true, isTransposedInParallel());
+    }
+
+    @Override
+    public void transposeInPlace() {
+        if (rows != columns) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+
+        MatrixEvent e = MatrixEvent.start();
+        forEachUpperTransposeTile((i0, j0) -> swapTransposeTile(this, i0, j0));
+        e.commitParallel("transposeInPlace", this, null, 0, true, isTransposedInParallel());
+    }
+
+    /*
+    Transpose the tile of A at (i0, j0) into the tile of R at (j0, i0)
+
+    The tile is transposed in 4 x 4 micro-tiles, held in local variables, so that both the
+    columns of A and the columns of R are accessed contiguously (for column-major matrices)
+     */
+    private static void transposeTile(DoubleMatrix a, DoubleMatrix r, long i0, long j0) {
+        MemorySegment aB = a.buffer;
+        MemorySegment rB = r.buffer;
+        long ars = a.rowStride, acs = a.columnStride;
+        long rrs = r.rowStride, rcs = r.columnStride;
+        long iEnd = Math.min(i0 + TRANSPOSE_TILE, a.rows);
+        long jEnd = Math.min(j0 + TRANSPOSE_TILE, a.columns);
+        long iMicroEnd = i0 + ((iEnd - i0) & ~3);
+        long jMicroEnd = j0 + ((jEnd - j0) & ~3);
+
+        for (long j = j0; j < jMicroEnd; j += 4) {
+            for (long i = i0; i < iMicroEnd; i += 4) {
+                long ai = a.linearIndex(i, j);
+                // Column j of A
+                double a00 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai);
+                double a10 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai + ars);
+                double a20 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai + 2 * ars);
+                double a30 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai + 3 * ars);
+                // Column j + 1 of A
+                ai += acs;
+                double a01 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai);
+                double a11 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai + ars);
+                double a21 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai + 2 * ars);
+                double a31 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai + 3 * ars);
+                // Column j + 2 of A
+                ai += acs;
+                double a02 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai);
+                double a12 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai + ars);
+                double a22 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai + 2 * ars);
+                double a32 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai + 3 * ars);
+                // Column j + 3 of A
+                ai += acs;
+                double a03 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai);
+                double a13 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai + ars);
+                double a23 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai + 2 * ars);
+                double a33 = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ai + 3 * ars);
+
+                long ri = r.linearIndex(j, i);
+                // Column i of R, row i of A
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri, a00);
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri + rrs, a01);
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri + 2 * rrs, a02);
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri + 3 * rrs, a03);
+                // Column i + 1 of R, row i + 1 of A
+                ri += rcs;
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri, a10);
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri + rrs, a11);
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri + 2 * rrs, a12);
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri + 3 * rrs, a13);
+                // Column i + 2 of R, row i + 2 of A
+                ri += rcs;
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri, a20);
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri + rrs, a21);
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri + 2 * rrs, a22);
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri + 3 * rrs, a23);
+                // Column i + 3 of R, row i + 3 of A
+                ri += rcs;
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri, a30);
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri + rrs, a31);
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri + 2 * rrs, a32);
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, ri + 3 * rrs, a33);
+            }
+        }
+
+        // Remaining rows and columns of the tile that do not fill a micro-tile
+        for (long j = j0; j < jEnd; j++) {
+            for (long i = j < jMicroEnd ? iMicroEnd : i0; i < iEnd; i++) {
+                double e = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, a.linearIndex(i, j));
+                rB.setAtIndex(ValueLayout.JAVA_DOUBLE, r.linearIndex(j, i), e);
+            }
+        }
+    }
+
+    /*
+    Swap the tile of A at (i0, j0) with the transpose of the tile at (j0, i0), or if the tiles are the
+    same tile on the diagonal, transpose the tile in place
+     */
+    private static void swapTransposeTile(DoubleMatrix a, long i0, long j0) {
+        MemorySegment aB = a.buffer;
+        long iEnd = Math.min(i0 + TRANSPOSE_TILE, a.rows);
+        long jEnd = Math.min(j0 + TRANSPOSE_TILE, a.columns);
+
+        for (long j = j0; j < jEnd; j++) {
+            // On the diagonal only swap the elements below the diagonal
+            long iStart = i0 == j0 ? j + 1 : i0;
+            for (long i = iStart; i < iEnd; i++) {
+                long ijIndex = a.linearIndex(i, j);
+                long jiIndex = a.linearIndex(j, i);
+                double ij = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, ijIndex);
+                double ji = aB.getAtIndex(ValueLayout.JAVA_DOUBLE, jiIndex);
+                aB.setAtIndex(ValueLayout.JAVA_DOUBLE, ijIndex, ji);
+                aB.setAtIndex(ValueLayout.JAVA_DOUBLE, jiIndex, ij);
             }
         }
     }
@@ -651,38 +1101,6 @@ public final class DoubleMatrix extends Matrix<Double> {
         return t;
     }
 
-    // a a a
-    // a a a
-    // a a a
-    //    x
-    // b b b
-    // b b b
-    // b b b
-    public void concatVertically(Matrix<Double> b, Matrix<Double> r) {
-        if (b.columns != columns || r.columns != columns || r.rows < b.rows + rows) {
-            throw new IllegalArgumentException();
-        }
-        cast(b);
-        cast(r);
-
-        copyInto(r.subMatrix(0, 0, rows, columns));
-        b.copyInto(r.subMatrix(rows, 0, b.rows, columns));
-    }
-
-    // a a a    b b b
-    // a a a  x b b b
-    // a a a    b b b
-    public void concatHorizontally(Matrix<Double> b, Matrix<Double> c) {
-        if (b.rows != rows || c.rows != rows || c.columns < b.columns + columns) {
-            throw new IllegalArgumentException();
-        }
-        cast(b);
-        cast(c);
-
-        copyInto(c.subMatrix(0, 0, rows, columns));
-        b.copyInto(c.subMatrix(0, columns, rows, b.columns));
-    }
-
     private static DoubleMatrix cast(Matrix<Double> dest) {
         return (DoubleMatrix) dest;
     }
@@ -701,6 +1119,20 @@ public final class DoubleMatrix extends Matrix<Double> {
         return sum() / (rows * columns);
     }
 
+    // Sum of all elements with a summation algorithm, in parallel for large matrices
+    public double sum(Summation s) {
+        return s.sum(this);
+    }
+
+    public double mean(Summation s) {
+        return sum(s) / (rows * columns);
+    }
+
+    // A lazy expression of this matrix, whose elementwise operations are fused on evaluation
+    public MatrixExpr expr() {
+        return MatrixExpr.of(this);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (!(obj instanceof DoubleMatrix that)) {
@@ -0,0 +1,454 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+/**
+ * Kernels for unary, binary, ternary, and reduction operations that operate over contiguous regions of memory,
+ * loading and storing vectors of elements using the Vector API.
+ * <p>
+ * Each kernel is also a scalar operator, which is applied to the tail of a region that does not fill a vector,
+ * and to the elements of matrices that cannot be operated on as a contiguous region.
+ */
+public interface DoubleVectorKernel {
+
+    VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private static DoubleVector load(MemorySegment s, long index) {
+        return DoubleVector.fromMemorySegment(SPECIES, s, index * Double.BYTES, ByteOrder.nativeOrder());
+    }
+
+    private static void store(DoubleVector v, MemorySegment s, long index) {
+        v.intoMemorySegment(s, index * Double.BYTES, ByteOrder.nativeOrder());
+    }
+
+    private static long loopBound(long length) {
+        return length - length % SPECIES.length();
+    }
+
+    abstract class UnaryVectorKernel extends DoubleBroadcastKernel.ParallelUnaryBroadcastKernel {
+        public UnaryVectorKernel() {
+            this(false);
+        }
+
+        public UnaryVectorKernel(boolean parallel) {
+            super(parallel);
+        }
+
+        public abstract DoubleVector apply(DoubleVector a);
+
+        @Override
+        protected void serialUnaryBroadcast(MemorySegment a, MemorySegment r, long length) {
+            long i = 0;
+            for (long upperBound = loopBound(length); i < upperBound; i += SPECIES.length()) {
+                store(apply(load(a, i)), r, i);
+            }
+            for (; i < length; i++) {
+                double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, i);
+                r.setAtIndex(ValueLayout.JAVA_DOUBLE, i, applyAsDouble(aE));
+            }
+        }
+    }
+
+    abstract class BinaryVectorKernel extends DoubleBroadcastKernel.ParallelBinaryBinaryBroadcastKernel {
+        public BinaryVectorKernel() {
+            this(false);
+        }
+
+        public BinaryVectorKernel(boolean parallel) {
+            super(parallel);
+        }
+
+        public abstract DoubleVector apply(DoubleVector a, DoubleVector b);
+
+        @Override
+        protected void serialBinaryBroadcastScalar(MemorySegment a, double b, MemorySegment r, long offset, long length) {
+            DoubleVector bV = DoubleVector.broadcast(SPECIES, b);
+            long i = 0;
+            for (long upperBound = loopBound(length); i < upperBound; i += SPECIES.length()) {
+                store(apply(load(a, offset + i), bV), r, offset + i);
+            }
+            for (; i < length; i++) {
+                double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, offset + i);
+                r.setAtIndex(ValueLayout.JAVA_DOUBLE, offset + i, applyAsDouble(aE, b));
+            }
+        }
+
+        @Override
+        protected void serialBinaryBroadcastMatrix(MemorySegment a, MemorySegment b, MemorySegment r, long length) {
+            long i = 0;
+            for (long upperBound = loopBound(length); i < upperBound; i += SPECIES.length()) {
+                store(apply(load(a, i), load(b, i)), r, i);
+            }
+            for (; i < length; i++) {
+                double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, i);
+                double bE = b.getAtIndex(ValueLayout.JAVA_DOUBLE, i);
+                r.setAtIndex(ValueLayout.JAVA_DOUBLE, i, applyAsDouble(aE, bE));
+            }
+        }
+    }
+
+    abstract class TernaryVectorKernel extends DoubleBroadcastKernel.ParallelTernaryBroadcastKernel {
+        public TernaryVectorKernel() {
+            this(false);
+        }
+
+        public TernaryVectorKernel(boolean parallel) {
+            super(parallel);
+        }
+
+        public abstract DoubleVector apply(DoubleVector a, DoubleVector b, DoubleVector c);
+
+        @Override
+        protected void serialBinaryBroadcastScalar(MemorySegment a, double b, double c, MemorySegment r, long offset, long length) {
+            DoubleVector bV = DoubleVector.broadcast(SPECIES, b);
+            DoubleVector cV = DoubleVector.broadcast(SPECIES, c);
+            long i = 0;
+            for (long upperBound = loopBound(length); i < upperBound; i += SPECIES.length()) {
+                store(apply(load(a, offset + i), bV, cV), r, offset + i);
+            }
+            for (; i < length; i++) {
+                double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, offset + i);
+                r.setAtIndex(ValueLayout.JAVA_DOUBLE, offset + i, applyAsDouble(aE, b, c));
+            }
+        }
+
+        @Override
+        protected void serialBinaryBroadcastMatrix(MemorySegment a, MemorySegment b, MemorySegment c, MemorySegment r,
+                                                   long length) {
+            long i = 0;
+            for (long upperBound = loopBound(length); i < upperBound; i += SPECIES.length()) {
+                store(apply(load(a, i), load(b, i), load(c, i)), r, i);
+            }
+            for (; i < length; i++) {
+                double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, i);
+                double bE = b.getAtIndex(ValueLayout.JAVA_DOUBLE, i);
+                double cE = c.getAtIndex(ValueLayout.JAVA_DOUBLE, i);
+                r.setAtIndex(ValueLayout.JAVA_DOUBLE, i, applyAsDouble(aE, bE, cE));
+            }
+        }
+    }
+
+    abstract class ReductionVectorKernel extends DoubleBroadcastKernel.ParallelReductionBroadcastKernel {
+        // Identity of the operation, the initial value of each lane of the accumulator
+        final double identity;
+
+        public ReductionVectorKernel(double identity) {
+            this(false, identity);
+        }
+
+        public ReductionVectorKernel(boolean parallel, double identity) {
+            super(parallel);
+            this.identity = identity;
+        }
+
+        @Override
+        public double identity() {
+            return identity;
+        }
+
+        public abstract DoubleVector apply(DoubleVector acc, DoubleVector a);
+
+        public abstract double reduceLanes(DoubleVector acc);
+
+        @Override
+        public double reduceBroadcastScalar(MemorySegment a, long offset, long length) {
+            DoubleVector accV = DoubleVector.broadcast(SPECIES, identity);
+            long i = 0;
+            for (long upperBound = loopBound(length); i < upperBound; i += SPECIES.length()) {
+                accV = apply(accV, load(a, offset + i));
+            }
+            double acc = reduceLanes(accV);
+            for (; i < length; i++) {
+                double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, offset + i);
+                acc = applyAsDouble(acc, aE);
+            }
+            return acc;
+        }
+
+        @Override
+        public void reduceBroadcastRegions(MemorySegment a, long aOffset, long aStride,
+                                           MemorySegment r, long rOffset,
+                                           long length, long count) {
+            long upperBound = loopBound(length);
+            for (long k = 0; k < count; k++) {
+                long aK = aOffset + k * aStride;
+                long i = 0;
+                for (; i < upperBound; i += SPECIES.length()) {
+                    DoubleVector accV = load(r, rOffset + i);
+                    store(apply(accV, load(a, aK + i)), r, rOffset + i);
+                }
+                for (; i < length; i++) {
+                    double aE = a.getAtIndex(ValueLayout.JAVA_DOUBLE, aK + i);
+                    double rE = r.getAtIndex(ValueLayout.JAVA_DOUBLE, rOffset + i);
+                    r.setAtIndex(ValueLayout.JAVA_DOUBLE, rOffset + i, applyAsDouble(rE, aE));
+                }
+            }
+        }
+    }
+
+    // Unary kernels
+
+    UnaryVectorKernel ABS = abs(false);
+
+    UnaryVectorKernel NEG = neg(false);
+
+    static UnaryVectorKernel abs(boolean parallel) {
+        return new UnaryVectorKernel(parallel) {
+            @Override
+            public double applyAsDouble(double a) {
+                return Math.abs(a);
+            }
+
+            @Override
+            public DoubleVector apply(DoubleVector a) {
+                return a.abs();
+            }
+        };
+    }
+
+    static UnaryVectorKernel neg(boolean parallel) {
+        return new UnaryVectorKernel(parallel) {
+            @Override
+            public double applyAsDouble(double a) {
+                return -a;
+            }
+
+            @Override
+            public DoubleVector apply(DoubleVector a) {
+                return a.neg();
+            }
+        };
+    }
+
+    // Binary kernels
+
+    BinaryVectorKernel ADD = add(false);
+
+    BinaryVectorKernel SUB = sub(false);
+
+    BinaryVectorKernel MUL = mul(false);
+
+    BinaryVectorKernel DIV = div(false);
+
+    BinaryVectorKernel MIN = min(false);
+
+    BinaryVectorKernel MAX = max(false);
+
+    static BinaryVectorKernel add(boolean parallel) {
+        return new BinaryVectorKernel(parallel) {
+            @Override
+            public double applyAsDouble(double a, double b) {
+                return a + b;
+            }
+
+            @Override
+            public DoubleVector apply(DoubleVector a, DoubleVector b) {
+                return a.add(b);
+            }
+        };
+    }
+
+    static BinaryVectorKernel sub(boolean parallel) {
+        return new BinaryVectorKernel(parallel) {
+            @Override
+            public double applyAsDouble(double a, double b) {
+                return a - b;
+            }
+
+            @Override
+            public DoubleVector apply(DoubleVector a, DoubleVector b) {
+                return a.sub(b);
+            }
+        };
+    }
+
+    static BinaryVectorKernel mul(boolean parallel) {
+        return new BinaryVectorKernel(parallel) {
+            @Override
+            public double applyAsDouble(double a, double b) {
+                return a * b;
+            }
+
+            @Override
+            public DoubleVector apply(DoubleVector a, DoubleVector b) {
+                return a.mul(b);
+            }
+        };
+    }
+
+    static BinaryVectorKernel div(boolean parallel) {
+        return new BinaryVectorKernel(parallel) {
+            @Override
+            public double applyAsDouble(double a, double b) {
+                return a / b;
+            }
+
+            @Override
+            public DoubleVector apply(DoubleVector a, DoubleVector b) {
+                return a.div(b);
+            }
+        };
+    }
+
+    static BinaryVectorKernel min(boolean parallel) {
+        return new BinaryVectorKernel(parallel) {
+            @Override
+            public double applyAsDouble(double a, double b) {
+                return Math.min(a, b);
+            }
+
+            @Override
+            public DoubleVector apply(DoubleVector a, DoubleVector b) {
+                return a.min(b);
+            }
+        };
+    }
+
+    static BinaryVectorKernel max(boolean parallel) {
+        return new BinaryVectorKernel(parallel) {
+            @Override
+            public double applyAsDouble(double a, double b) {
+                return Math.max(a, b);
+            }
+
+            @Override
+            public DoubleVector apply(DoubleVector a, DoubleVector b) {
+                return a.max(b);
+            }
+        };
+    }
+
+    // Ternary kernels
+
+    // a * b + c
+    TernaryVectorKernel FMA = fma(false);
+
+    static TernaryVectorKernel fma(boolean parallel) {
+        return new TernaryVectorKernel(parallel) {
+            @Override
+            public double applyAsDouble(double a, double b, double c) {
+                return Math.fma(a, b, c);
+            }
+
+            @Override
+            public DoubleVector apply(DoubleVector a, DoubleVector b, DoubleVector c) {
+                return a.fma(b, c);
+            }
+        };
+    }
+
+    // Reduction kernels
+
+    ReductionVectorKernel SUM = sum(false);
+
+    ReductionVectorKernel MIN_REDUCTION = minReduction(false);
+
+    ReductionVectorKernel MAX_REDUCTION = maxReduction(false);
+
+    ReductionVectorKernel PRODUCT = product(false);
+
+    static ReductionVectorKernel sum(boolean parallel) {
+        return new ReductionVectorKernel(parallel, 0.0) {
+            @Override
+            public double applyAsDouble(double acc, double a) {
+                return acc + a;
+            }
+
+            @Override
+            public DoubleVector apply(DoubleVector acc, DoubleVector a) {
+                return acc.add(a);
+            }
+
+            @Override
+            public double reduceLanes(DoubleVector acc) {
+                return acc.reduceLanes(VectorOperators.ADD);
+            }
+        };
+    }
+
+    static ReductionVectorKernel minReduction(boolean parallel) {
+        return new ReductionVectorKernel(parallel, Double.POSITIVE_INFINITY) {
+            @Override
+            public double applyAsDouble(double acc, double a) {
+                return Math.min(acc, a);
+            }
+
+            @Override
+            public DoubleVector apply(DoubleVector acc, DoubleVector a) {
+                return acc.min(a);
+            }
+
+            @Override
+            public double reduceLanes(DoubleVector acc) {
+                return acc.reduceLanes(VectorOperators.MIN);
+            }
+        };
+    }
+
+    static ReductionVectorKernel maxReduction(boolean parallel) {
+        return new ReductionVectorKernel(parallel, Double.NEGATIVE_INFINITY) {
+            @Override
+            public double applyAsDouble(double acc, double a) {
+                return Math.max(acc, a);
+            }
+
+            @Override
+            public DoubleVector apply(DoubleVector acc, DoubleVector a) {
+                return acc.max(a);
+            }
+
+            @Override
+            public double reduceLanes(DoubleVector acc) {
+                return acc.reduceLanes(VectorOperators.MAX);
+            }
+        };
+    }
+
+    static ReductionVectorKernel product(boolean parallel) {
+        return new ReductionVectorKernel(parallel, 1.0) {
+            @Override
+            public double applyAsDouble(double acc, double a) {
+                return acc * a;
+            }
+
+            @Override
+            public DoubleVector apply(DoubleVector acc, DoubleVector a) {
+                return acc.mul(a);
+            }
+
+            @Override
+            public double reduceLanes(DoubleVector acc) {
+                return acc.reduceLanes(VectorOperators.MUL);
+            }
+        };
+    }
+}
@@ -0,0 +1,577 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.stream.IntStream;
+
+/**
+ * Kernels for unary, binary, ternary, and reduction operations that operate over contiguous regions of memory.
+ * <p>
+ * The strided operations operate over {@code count} contiguous regions of {@code length} elements, such as the
+ * columns of a column-major sub-matrix, where the regions of each operand start at an offset and are separated by
+ * a stride (both in elements).
+ */
+public interface FloatBroadcastKernel {
+
+    // Number of elements of a region at or below which a parallel kernel operates serially
+    long PARALLEL_THRESHOLD = 1L << 17;
+
+    // Number of elements of each chunk of a region operated on in parallel,
+    // such that a chunk of each operand of a ternary kernel fits in a 1MB L2 cache
+    long PARALLEL_CHUNK_SIZE = 1L << 14;
+
+    private static int chunks(long length) {
+        return Math.toIntExact((length + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE);
+    }
+
+    // Regions are operated on in parallel if each region is too small to be split into chunks,
+    // but together they are large enough
+    private static boolean isParallelOverRegions(long length, long count) {
+        return length <= PARALLEL_THRESHOLD && length * count > PARALLEL_THRESHOLD;
+    }
+
+    // Whether the kernel, if it is one, may operate on a region of length elements in parallel
+    static boolean isParallel(Object kernel, long length) {
+        boolean parallel = switch (kernel) {
+            case ParallelUnaryBroadcastKernel k -> k.parallel;
+            case ParallelBinaryBinaryBroadcastKernel k -> k.parallel;
+            case ParallelTernaryBroadcastKernel k -> k.parallel;
+            case ParallelReductionBroadcastKernel k -> k.parallel;
+            default -> false;
+        };
+        return parallel && length > PARALLEL_THRESHOLD;
+    }
+
+    private static MemorySegment slice(MemorySegment s, long offset, long length) {
+        return s.asSlice(offset * Float.BYTES, length * Float.BYTES);
+    }
+
+    interface UnaryBroadcastKernel extends FloatUnaryOperator {
+        default void unaryBroadcast(MemorySegment a, MemorySegment r,
+                                    long length) {
+            for (long i = 0; i < length; i++) {
+                float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+                float rE = applyAsFloat(aE);
+                r.setAtIndex(ValueLayout.JAVA_FLOAT, i, rE);
+            }
+        }
+
+        default void unaryBroadcastStrided(MemorySegment a, long aOffset, long aStride,
+                                           MemorySegment r, long rOffset, long rStride,
+                                           long length, long count) {
+            if (aStride == length && rStride == length) {
+                long n = length * count;
+                unaryBroadcast(slice(a, aOffset, n), slice(r, rOffset, n), n);
+            } else {
+                for (long k = 0; k < count; k++) {
+                    unaryBroadcast(slice(a, aOffset + k * aStride, length),
+                            slice(r, rOffset + k * rStride, length),
+                            length);
+                }
+            }
+        }
+    }
+
+    abstract class ParallelUnaryBroadcastKernel implements UnaryBroadcastKernel {
+        final boolean parallel;
+
+        public ParallelUnaryBroadcastKernel() {
+            this(false);
+        }
+
+        public ParallelUnaryBroadcastKernel(boolean parallel) {
+            this.parallel = parallel;
+        }
+
+        @Override
+        public void unaryBroadcast(MemorySegment a, MemorySegment r, long length) {
+            if (parallel && length > PARALLEL_THRESHOLD) {
+                IntStream.range(0, chunks(length)).parallel().forEach(c -> {
+                    long offset = c * PARALLEL_CHUNK_SIZE;
+                    long l = Math.min(PARALLEL_CHUNK_SIZE, length - offset);
+                    serialUnaryBroadcast(slice(a, offset, l), slice(r, offset, l), l);
+                });
+            } else {
+                serialUnaryBroadcast(a, r, length);
+            }
+        }
+
+        @Override
+        public void unaryBroadcastStrided(MemorySegment a, long aOffset, long aStride,
+                                          MemorySegment r, long rOffset, long rStride,
+                                          long length, long count) {
+            if (parallel && isParallelOverRegions(length, count)) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k ->
+                        serialUnaryBroadcast(slice(a, aOffset + k * aStride, length),
+                                slice(r, rOffset + k * rStride, length),
+                                length));
+            } else {
+                UnaryBroadcastKernel.super.unaryBroadcastStrided(a, aOffset, aStride, r, rOffset, rStride, length, count);
+            }
+        }
+
+        protected void serialUnaryBroadcast(MemorySegment a, MemorySegment r, long length) {
+            UnaryBroadcastKernel.super.unaryBroadcast(a, r, length);
+        }
+    }
+
+    interface BinaryBinaryBroadcastKernel extends FloatBinaryOperator {
+        default void binaryBroadcastScalar(MemorySegment a, float b, MemorySegment r,
+                                           long offset, long length) {
+            for (long i = 0; i < length; i++) {
+                float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, offset + i);
+                float rE = applyAsFloat(aE, b);
+                r.setAtIndex(ValueLayout.JAVA_FLOAT, offset + i, rE);
+            }
+        }
+
+        default void binaryBroadcastVector(MemorySegment a, MemorySegment b, MemorySegment r,
+                                           long aStride, long bLength) {
+            for (long j = 0; j < bLength; j++) {
+                float bE = b.getAtIndex(ValueLayout.JAVA_FLOAT, j);
+                binaryBroadcastScalar(a, bE, r, j * aStride, aStride);
+            }
+        }
+
+        default void binaryBroadcastMatrix(MemorySegment a, MemorySegment b, MemorySegment r,
+                                           long length) {
+            for (long i = 0; i < length; i++) {
+                float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+                float bE = b.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+                float rE = applyAsFloat(aE, bE);
+                r.setAtIndex(ValueLayout.JAVA_FLOAT, i, rE);
+            }
+        }
+
+        default void binaryBroadcastScalarStrided(MemorySegment a, long aOffset, long aStride,
+                                                  float b,
+                                                  MemorySegment r, long rOffset, long rStride,
+                                                  long length, long count) {
+            if (aStride == length && rStride == length) {
+                long n = length * count;
+                binaryBroadcastScalar(slice(a, aOffset, n), b, slice(r, rOffset, n), 0, n);
+            } else {
+                for (long k = 0; k < count; k++) {
+                    binaryBroadcastScalar(slice(a, aOffset + k * aStride, length), b,
+                            slice(r, rOffset + k * rStride, length),
+                            0, length);
+                }
+            }
+        }
+
+        // The k'th element of b, at bOffset + k * bStride, is broadcast over the k'th region of a
+        default void binaryBroadcastVectorStrided(MemorySegment a, long aOffset, long aStride,
+                                                  MemorySegment b, long bOffset, long bStride,
+                                                  MemorySegment r, long rOffset, long rStride,
+                                                  long length, long count) {
+            for (long k = 0; k < count; k++) {
+                float bE = b.getAtIndex(ValueLayout.JAVA_FLOAT, bOffset + k * bStride);
+                binaryBroadcastScalar(slice(a, aOffset + k * aStride, length), bE,
+                        slice(r, rOffset + k * rStride, length),
+                        0, length);
+            }
+        }
+
+        default void binaryBroadcastMatrixStrided(MemorySegment a, long aOffset, long aStride,
+                                                  MemorySegment b, long bOffset, long bStride,
+                                                  MemorySegment r, long rOffset, long rStride,
+                                                  long length, long count) {
+            if (aStride == length && bStride == length && rStride == length) {
+                long n = length * count;
+                binaryBroadcastMatrix(slice(a, aOffset, n), slice(b, bOffset, n), slice(r, rOffset, n), n);
+            } else {
+                for (long k = 0; k < count; k++) {
+                    binaryBroadcastMatrix(slice(a, aOffset + k * aStride, length),
+                            slice(b, bOffset + k * bStride, length),
+                            slice(r, rOffset + k * rStride, length),
+                            length);
+                }
+            }
+        }
+    }
+
+    abstract class ParallelBinaryBinaryBroadcastKernel implements BinaryBinaryBroadcastKernel {
+        final boolean parallel;
+
+        public ParallelBinaryBinaryBroadcastKernel() {
+            this(false);
+        }
+
+        public ParallelBinaryBinaryBroadcastKernel(boolean parallel) {
+            this.parallel = parallel;
+        }
+
+        @Override
+        public void binaryBroadcastScalar(MemorySegment a, float b, MemorySegment r, long offset, long length) {
+            if (parallel && length > PARALLEL_THRESHOLD) {
+                IntStream.range(0, chunks(length)).parallel().forEach(c -> {
+                    long o = c * PARALLEL_CHUNK_SIZE;
+                    long l = Math.min(PARALLEL_CHUNK_SIZE, length - o);
+                    serialBinaryBroadcastScalar(a, b, r, offset + o, l);
+                });
+            } else {
+                serialBinaryBroadcastScalar(a, b, r, offset, length);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastVector(MemorySegment a, MemorySegment b, MemorySegment r, long aStride, long bLength) {
+            if (parallel) {
+                IntStream.range(0, (int) bLength).parallel().forEach(j -> {
+                    float bE = b.getAtIndex(ValueLayout.JAVA_FLOAT, j);
+                    serialBinaryBroadcastScalar(a, bE, r, j * aStride, aStride);
+                });
+            } else {
+                BinaryBinaryBroadcastKernel.super.binaryBroadcastVector(a, b, r, aStride, bLength);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastMatrix(MemorySegment a, MemorySegment b, MemorySegment r, long length) {
+            if (parallel && length > PARALLEL_THRESHOLD) {
+                IntStream.range(0, chunks(length)).parallel().forEach(c -> {
+                    long offset = c * PARALLEL_CHUNK_SIZE;
+                    long l = Math.min(PARALLEL_CHUNK_SIZE, length - offset);
+                    serialBinaryBroadcastMatrix(slice(a, offset, l), slice(b, offset, l), slice(r, offset, l), l);
+                });
+            } else {
+                serialBinaryBroadcastMatrix(a, b, r, length);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastScalarStrided(MemorySegment a, long aOffset, long aStride,
+                                                 float b,
+                                                 MemorySegment r, long rOffset, long rStride,
+                                                 long length, long count) {
+            if (parallel && isParallelOverRegions(length, count)) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k ->
+                        serialBinaryBroadcastScalar(slice(a, aOffset + k * aStride, length), b,
+                                slice(r, rOffset + k * rStride, length),
+                                0, length));
+            } else {
+                BinaryBinaryBroadcastKernel.super.binaryBroadcastScalarStrided(a, aOffset, aStride, b,
+                        r, rOffset, rStride, length, count);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastVectorStrided(MemorySegment a, long aOffset, long aStride,
+                                                 MemorySegment b, long bOffset, long bStride,
+                                                 MemorySegment r, long rOffset, long rStride,
+                                                 long length, long count) {
+            if (parallel) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k -> {
+                    float bE = b.getAtIndex(ValueLayout.JAVA_FLOAT, bOffset + k * bStride);
+                    serialBinaryBroadcastScalar(slice(a, aOffset + k * aStride, length), bE,
+                            slice(r, rOffset + k * rStride, length),
+                            0, length);
+                });
+            } else {
+                BinaryBinaryBroadcastKernel.super.binaryBroadcastVectorStrided(a, aOffset, aStride,
+                        b, bOffset, bStride, r, rOffset, rStride, length, count);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastMatrixStrided(MemorySegment a, long aOffset, long aStride,
+                                                 MemorySegment b, long bOffset, long bStride,
+                                                 MemorySegment r, long rOffset, long rStride,
+                                                 long length, long count) {
+            if (parallel && isParallelOverRegions(length, count)) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k ->
+                        serialBinaryBroadcastMatrix(slice(a, aOffset + k * aStride, length),
+                                slice(b, bOffset + k * bStride, length),
+                                slice(r, rOffset + k * rStride, length),
+                                length));
+            } else {
+                BinaryBinaryBroadcastKernel.super.binaryBroadcastMatrixStrided(a, aOffset, aStride,
+                        b, bOffset, bStride, r, rOffset, rStride, length, count);
+            }
+        }
+
+        protected void serialBinaryBroadcastScalar(MemorySegment a, float b, MemorySegment r, long offset, long length) {
+            BinaryBinaryBroadcastKernel.super.binaryBroadcastScalar(a, b, r, offset, length);
+        }
+
+        protected void serialBinaryBroadcastMatrix(MemorySegment a, MemorySegment b, MemorySegment r, long length) {
+            BinaryBinaryBroadcastKernel.super.binaryBroadcastMatrix(a, b, r, length);
+        }
+    }
+
+    interface TernaryBroadcastKernel extends FloatTernaryOperator {
+        default void binaryBroadcastScalar(MemorySegment a, float b, float c, MemorySegment r,
+                                           long offset, long length) {
+            for (long i = 0; i < length; i++) {
+                float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, offset + i);
+                float rE = applyAsFloat(aE, b, c);
+                r.setAtIndex(ValueLayout.JAVA_FLOAT, offset + i, rE);
+            }
+        }
+
+        default void binaryBroadcastVector(MemorySegment a, MemorySegment b, MemorySegment c, MemorySegment r,
+                                           long aStride, long bcLength) {
+            for (long j = 0; j < bcLength; j++) {
+                float bE = b.getAtIndex(ValueLayout.JAVA_FLOAT, j);
+                float cE = c.getAtIndex(ValueLayout.JAVA_FLOAT, j);
+                binaryBroadcastScalar(a, bE, cE, r, j * aStride, aStride);
+            }
+        }
+
+        default void binaryBroadcastMatrix(MemorySegment a, MemorySegment b, MemorySegment c, MemorySegment r,
+                                           long length) {
+            for (long i = 0; i < length; i++) {
+                float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+                float bE = b.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+                float cE = c.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+                float rE = applyAsFloat(aE, bE, cE);
+                r.setAtIndex(ValueLayout.JAVA_FLOAT, i, rE);
+            }
+        }
+
+        default void binaryBroadcastScalarStrided(MemorySegment a, long aOffset, long aStride,
+                                                  float b, float c,
+                                                  MemorySegment r, long rOffset, long rStride,
+                                                  long length, long count) {
+            if (aStride == length && rStride == length) {
+                long n = length * count;
+                binaryBroadcastScalar(slice(a, aOffset, n), b, c, slice(r, rOffset, n), 0, n);
+            } else {
+                for (long k = 0; k < count; k++) {
+                    binaryBroadcastScalar(slice(a, aOffset + k * aStride, length), b, c,
+                            slice(r, rOffset + k * rStride, length),
+                            0, length);
+                }
+            }
+        }
+
+        // The k'th elements of b and c, at bOffset + k * bStride and cOffset + k * cStride,
+        // are broadcast over the k'th region of a
+        default void binaryBroadcastVectorStrided(MemorySegment a, long aOffset, long aStride,
+                                                  MemorySegment b, long bOffset, long bStride,
+                                                  MemorySegment c, long cOffset, long cStride,
+                                                  MemorySegment r, long rOffset, long rStride,
+                                                  long length, long count) {
+            for (long k = 0; k < count; k++) {
+                float bE = b.getAtIndex(ValueLayout.JAVA_FLOAT, bOffset + k * bStride);
+                float cE = c.getAtIndex(ValueLayout.JAVA_FLOAT, cOffset + k * cStride);
+                binaryBroadcastScalar(slice(a, aOffset + k * aStride, length), bE, cE,
+                        slice(r, rOffset + k * rStride, length),
+                        0, length);
+            }
+        }
+
+        default void binaryBroadcastMatrixStrided(MemorySegment a, long aOffset, long aStride,
+                                                  MemorySegment b, long bOffset, long bStride,
+                                                  MemorySegment c, long cOffset, long cStride,
+                                                  MemorySegment r, long rOffset, long rStride,
+                                                  long length, long count) {
+            if (aStride == length && bStride == length && cStride == length && rStride == length) {
+                long n = length * count;
+                binaryBroadcastMatrix(slice(a, aOffset, n), slice(b, bOffset, n), slice(c, cOffset, n),
+                        slice(r, rOffset, n), n);
+            } else {
+                for (long k = 0; k < count; k++) {
+                    binaryBroadcastMatrix(slice(a, aOffset + k * aStride, length),
+                            slice(b, bOffset + k * bStride, length),
+                            slice(c, cOffset + k * cStride, length),
+                            slice(r, rOffset + k * rStride, length),
+                            length);
+                }
+            }
+        }
+    }
+
+    abstract class ParallelTernaryBroadcastKernel implements TernaryBroadcastKernel {
+        final boolean parallel;
+
+        public ParallelTernaryBroadcastKernel() {
+            this(false);
+        }
+
+        public ParallelTernaryBroadcastKernel(boolean parallel) {
+            this.parallel = parallel;
+        }
+
+        @Override
+        public void binaryBroadcastScalar(MemorySegment a, float b, float c, MemorySegment r, long offset, long length) {
+            if (parallel && length > PARALLEL_THRESHOLD) {
+                IntStream.range(0, chunks(length)).parallel().forEach(k -> {
+                    long o = k * PARALLEL_CHUNK_SIZE;
+                    long l = Math.min(PARALLEL_CHUNK_SIZE, length - o);
+                    serialBinaryBroadcastScalar(a, b, c, r, offset + o, l);
+                });
+            } else {
+                serialBinaryBroadcastScalar(a, b, c, r, offset, length);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastVector(MemorySegment a, MemorySegment b, MemorySegment c, MemorySegment r, long aStride, long bcLength) {
+            if (parallel) {
+                IntStream.range(0, (int) bcLength).parallel().forEach(j -> {
+                    float bE = b.getAtIndex(ValueLayout.JAVA_FLOAT, j);
+                    float cE = c.getAtIndex(ValueLayout.JAVA_FLOAT, j);
+                    serialBinaryBroadcastScalar(a, bE, cE, r, j * aStride, aStride);
+                });
+            } else {
+                TernaryBroadcastKernel.super.binaryBroadcastVector(a, b, c, r, aStride, bcLength);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastMatrix(MemorySegment a, MemorySegment b, MemorySegment c, MemorySegment r, long length) {
+            if (parallel && length > PARALLEL_THRESHOLD) {
+                IntStream.range(0, chunks(length)).parallel().forEach(k -> {
+                    long offset = k * PARALLEL_CHUNK_SIZE;
+                    long l = Math.min(PARALLEL_CHUNK_SIZE, length - offset);
+                    serialBinaryBroadcastMatrix(slice(a, offset, l), slice(b, offset, l), slice(c, offset, l),
+                            slice(r, offset, l), l);
+                });
+            } else {
+                serialBinaryBroadcastMatrix(a, b, c, r, length);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastScalarStrided(MemorySegment a, long aOffset, long aStride,
+                                                 float b, float c,
+                                                 MemorySegment r, long rOffset, long rStride,
+                                                 long length, long count) {
+            if (parallel && isParallelOverRegions(length, count)) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k ->
+                        serialBinaryBroadcastScalar(slice(a, aOffset + k * aStride, length), b, c,
+                                slice(r, rOffset + k * rStride, length),
+                                0, length));
+            } else {
+                TernaryBroadcastKernel.super.binaryBroadcastScalarStrided(a, aOffset, aStride, b, c,
+                        r, rOffset, rStride, length, count);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastVectorStrided(MemorySegment a, long aOffset, long aStride,
+                                                 MemorySegment b, long bOffset, long bStride,
+                                                 MemorySegment c, long cOffset, long cStride,
+                                                 MemorySegment r, long rOffset, long rStride,
+                                                 long length, long count) {
+            if (parallel) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k -> {
+                    float bE = b.getAtIndex(ValueLayout.JAVA_FLOAT, bOffset + k * bStride);
+                    float cE = c.getAtIndex(ValueLayout.JAVA_FLOAT, cOffset + k * cStride);
+                    serialBinaryBroadcastScalar(slice(a, aOffset + k * aStride, length), bE, cE,
+                            slice(r, rOffset + k * rStride, length),
+                            0, length);
+                });
+            } else {
+                TernaryBroadcastKernel.super.binaryBroadcastVectorStrided(a, aOffset, aStride,
+                        b, bOffset, bStride, c, cOffset, cStride, r, rOffset, rStride, length, count);
+            }
+        }
+
+        @Override
+        public void binaryBroadcastMatrixStrided(MemorySegment a, long aOffset, long aStride,
+                                                 MemorySegment b, long bOffset, long bStride,
+                                                 MemorySegment c, long cOffset, long cStride,
+                                                 MemorySegment r, long rOffset, long rStride,
+                                                 long length, long count) {
+            if (parallel && isParallelOverRegions(length, count)) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k ->
+                        serialBinaryBroadcastMatrix(slice(a, aOffset + k * aStride, length),
+                                slice(b, bOffset + k * bStride, length),
+                                slice(c, cOffset + k * cStride, length),
+                                slice(r, rOffset + k * rStride, length),
+                                length));
+            } else {
+                TernaryBroadcastKernel.super.binaryBroadcastMatrixStrided(a, aOffset, aStride,
+                        b, bOffset, bStride, c, cOffset, cStride, r, rOffset, rStride, length, count);
+            }
+        }
+
+        protected void serialBinaryBroadcastScalar(MemorySegment a, float b, float c, MemorySegment r, long offset, long length) {
+            TernaryBroadcastKernel.super.binaryBroadcastScalar(a, b, c, r, offset, length);
+        }
+
+        protected void serialBinaryBroadcastMatrix(MemorySegment a, MemorySegment b, MemorySegment c, MemorySegment r,
+                                                   long length) {
+            TernaryBroadcastKernel.super.binaryBroadcastMatrix(a, b, c, r, length);
+        }
+    }
+
+    interface ReductionBroadcastKernel extends FloatBinaryOperator {
+        // Identity of the operation, the initial value of the accumulator
+        default float identity() {
+            return 0.0f;
+        }
+
+        default float reduceBroadcastScalar(MemorySegment a,
+                                             long offset, long length) {
+            float acc = identity();
+            for (long i = 0; i < length; i++) {
+                float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, i + offset);
+                acc = applyAsFloat(acc, aE);
+            }
+            return acc;
+        }
+
+        // Reduce count regions of a, each of length elements, r[rOffset + k * rStride] := reduction of region k
+        default void reduceBroadcastVectorStrided(MemorySegment a, long aOffset, long aStride,
+                                                  MemorySegment r, long rOffset, long rStride,
+                                                  long length, long count) {
+            for (long k = 0; k < count; k++) {
+                float rE = reduceBroadcastScalar(a, aOffset + k * aStride, length);
+                r.setAtIndex(ValueLayout.JAVA_FLOAT, rOffset + k * rStride, rE);
+            }
+        }
+    }
+
+    abstract class ParallelReductionBroadcastKernel implements ReductionBroadcastKernel {
+        final boolean parallel;
+
+        public ParallelReductionBroadcastKernel() {
+            this(false);
+        }
+
+        public ParallelReductionBroadcastKernel(boolean parallel) {
+            this.parallel = parallel;
+        }
+
+        @Override
+        public void reduceBroadcastVectorStrided(MemorySegment a, long aOffset, long aStride,
+                                                 MemorySegment r, long rOffset, long rStride,
+                                                 long length, long count) {
+            if (parallel && length * count > PARALLEL_THRESHOLD) {
+                IntStream.range(0, Math.toIntExact(count)).parallel().forEach(k -> {
+                    float rE = reduceBroadcastScalar(a, aOffset + k * aStride, length);
+                    r.setAtIndex(ValueLayout.JAVA_FLOAT, rOffset + k * rStride, rE);
+                });
+            } else {
+                FloatBroadcastKernel.ReductionBroadcastKernel.super.reduceBroadcastVectorStrided(a, aOffset, aStride,
+                        r, rOffset, rStride, length, count);
+            }
+        }
+    }
+}
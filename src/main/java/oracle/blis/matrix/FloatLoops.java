@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Scalar loops over strided float matrices, applying an operator to each element.
+ * <p>
+ * The loops are specialized per class of operator, and index and broadcast operands, as {@link DoubleLoops} do.
+ */
+interface FloatLoops {
+
+    // r := o(a)
+    void unary(MemorySegment a, long aOff, long aRs, long aCs,
+               MemorySegment r, long rOff, long rRs, long rCs,
+               long rows, long columns, FloatUnaryOperator o);
+
+    // r := o(a, b)
+    void binary(MemorySegment a, long aOff, long aRs, long aCs,
+                MemorySegment b, long bOff, long bRs, long bCs,
+                MemorySegment r, long rOff, long rRs, long rCs,
+                long rows, long columns, FloatBinaryOperator o);
+
+    // r := o(a, b, c)
+    void ternary(MemorySegment a, long aOff, long aRs, long aCs,
+                 MemorySegment b, long bOff, long bRs, long bCs,
+                 MemorySegment c, long cOff, long cRs, long cCs,
+                 MemorySegment r, long rOff, long rRs, long rCs,
+                 long rows, long columns, FloatTernaryOperator o);
+
+    // acc := o(acc, a), in column-major order
+    float reduce(MemorySegment a, long aOff, long aRs, long aCs,
+                 long rows, long columns, float acc, FloatBinaryOperator o);
+
+    void forEach(MemorySegment a, long aOff, long aRs, long aCs,
+                 long rows, long columns, FloatMatrix.MatrixConsumer c);
+
+    void setEach(MemorySegment a, long aOff, long aRs, long aCs,
+                 long rows, long columns, FloatMatrix.MatrixSupplier s);
+
+    LoopSpecializer<FloatLoops> SPECIALIZER = new LoopSpecializer<>(FloatLoops.class, new Template());
+
+    // Returns the loops specialized for the class of the operator
+    static FloatLoops of(Object o) {
+        return SPECIALIZER.get(o.getClass());
+    }
+
+    /*
+    The loops are written once, here, and cloned for each class of operator by the LoopSpecializer.
+    The class must not have static state, lambdas, or nested classes, so that it may be cloned.
+     */
+    final class Template implements FloatLoops {
+        @Override
+        public void unary(MemorySegment a, long aOff, long aRs, long aCs,
+                          MemorySegment r, long rOff, long rRs, long rCs,
+                          long rows, long columns, FloatUnaryOperator o) {
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, aOff + i * aRs + j * aCs);
+                    r.setAtIndex(ValueLayout.JAVA_FLOAT, rOff + i * rRs + j * rCs, o.applyAsFloat(aE));
+                }
+            }
+        }
+
+        @Override
+        public void binary(MemorySegment a, long aOff, long aRs, long aCs,
+                           MemorySegment b, long bOff, long bRs, long bCs,
+                           MemorySegment r, long rOff, long rRs, long rCs,
+                           long rows, long columns, FloatBinaryOperator o) {
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, aOff + i * aRs + j * aCs);
+                    float bE = b.getAtIndex(ValueLayout.JAVA_FLOAT, bOff + i * bRs + j * bCs);
+                    r.setAtIndex(ValueLayout.JAVA_FLOAT, rOff + i * rRs + j * rCs, o.applyAsFloat(aE, bE));
+                }
+            }
+        }
+
+        @Override
+        public void ternary(MemorySegment a, long aOff, long aRs, long aCs,
+                            MemorySegment b, long bOff, long bRs, long bCs,
+                            MemorySegment c, long cOff, long cRs, long cCs,
+                            MemorySegment r, long rOff, long rRs, long rCs,
+                            long rows, long columns, FloatTernaryOperator o) {
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, aOff + i * aRs + j * aCs);
+                    float bE = b.getAtIndex(ValueLayout.JAVA_FLOAT, bOff + i * bRs + j * bCs);
+                    float cE = c.getAtIndex(ValueLayout.JAVA_FLOAT, cOff + i * cRs + j * cCs);
+                    r.setAtIndex(ValueLayout.JAVA_FLOAT, rOff + i * rRs + j * rCs, o.applyAsFloat(aE, bE, cE));
+                }
+            }
+        }
+
+        @Override
+        public float reduce(MemorySegment a, long aOff, long aRs, long aCs,
+                            long rows, long columns, float acc, FloatBinaryOperator o) {
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, aOff + i * aRs + j * aCs);
+                    acc = o.applyAsFloat(acc, aE);
+                }
+            }
+            return acc;
+        }
+
+        @Override
+        public void forEach(MemorySegment a, long aOff, long aRs, long aCs,
+                            long rows, long columns, FloatMatrix.MatrixConsumer c) {
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, aOff + i * aRs + j * aCs);
+                    c.accept(i, j, aE);
+                }
+            }
+        }
+
+        @Override
+        public void setEach(MemorySegment a, long aOff, long aRs, long aCs,
+                            long rows, long columns, FloatMatrix.MatrixSupplier s) {
+            for (long j = 0; j < columns; j++) {
+                for (long i = 0; i < rows; i++) {
+                    long index = aOff + i * aRs + j * aCs;
+                    float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, index);
+                    a.setAtIndex(ValueLayout.JAVA_FLOAT, index, s.accept(i, j, aE));
+                }
+            }
+        }
+    }
+}
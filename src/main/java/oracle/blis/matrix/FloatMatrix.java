@@ -0,0 +1,988 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import oracle.blis.binding.blis_h;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.util.Objects;
+
+/**
+ * A matrix of single precision elements.
+ * <p>
+ * The elementwise operations with broadcasting, reductions, views, transposes and copies mirror those of
+ * {@link DoubleMatrix}, with {@link FloatBroadcastKernel} and {@link FloatVectorKernel} as the kernels.
+ * <p>
+ * Unlike {@link DoubleMatrix}, there is no streaming of contiguous columns in {@code reductionRow}, no parallel
+ * reduction with a combiner, no {@code describeColumns}, {@code argmin} or {@code argmax}, no sum with a
+ * {@link Summation} algorithm, and no lazy {@link MatrixExpr} expressions.
+ */
+public final class FloatMatrix extends Matrix<Float> {
+    FloatMatrix(SegmentAllocator allocator, MemorySegment obj, MemorySegment buffer) {
+        super(allocator, obj, buffer);
+    }
+
+    FloatMatrix(FloatMatrix parent, long i, long j, long m, long n, int info) {
+        super(parent, i, j, m, n, info);
+    }
+
+    public float get(long i, long j) {
+        Objects.checkIndex(i, rows);
+        Objects.checkIndex(j, columns);
+
+        long index = linearIndex(i, j);
+        return buffer.getAtIndex(ValueLayout.JAVA_FLOAT, index);
+    }
+
+    public void set(long i, long j, float v) {
+        Objects.checkIndex(i, rows);
+        Objects.checkIndex(j, columns);
+
+        long index = linearIndex(i, j);
+        buffer.setAtIndex(ValueLayout.JAVA_FLOAT, index, v);
+    }
+
+    // Unary, update a in place
+    public void elementwise(FloatUnaryOperator o) {
+        elementwise(this, o);
+    }
+
+    // Unary, update in r
+    public void elementwise(Matrix<Float> r, FloatUnaryOperator o) {
+        FloatMatrix result = cast(r);
+
+        checkSameDimensions(result);
+
+        MatrixEvent e = MatrixEvent.start();
+        boolean fastPath = true;
+        if (rowStride == 1 && result.rowStride == 1 &&
+                o instanceof FloatBroadcastKernel.UnaryBroadcastKernel k) {
+            // Contiguous columns
+            k.unaryBroadcastStrided(buffer, linearIndex(0, 0), columnStride,
+                    result.buffer, result.linearIndex(0, 0), result.columnStride,
+                    rows, columns);
+        } else if (columnStride == 1 && result.columnStride == 1 &&
+                o instanceof FloatBroadcastKernel.UnaryBroadcastKernel k) {
+            // Contiguous rows
+            k.unaryBroadcastStrided(buffer, linearIndex(0, 0), rowStride,
+                    result.buffer, result.linearIndex(0, 0), result.rowStride,
+                    columns, rows);
+        } else {
+            FloatLoops.of(o).unary(buffer, linearIndex(0, 0), rowStride, columnStride,
+                    result.buffer, result.linearIndex(0, 0), result.rowStride, result.columnStride,
+                    rows, columns, o);
+            fastPath = false;
+        }
+        e.commitKernel("elementwiseUnary", result, this, null, null, o, fastPath);
+    }
+
+    // Binary, update a in place
+    public void elementwise(Matrix<Float> b, FloatBinaryOperator o) {
+        elementwise(b, this, o);
+    }
+
+    // Binary, update to r
+    public void elementwise(Matrix<Float> b, Matrix<Float> r, FloatBinaryOperator o) {
+        FloatMatrix that = cast(b);
+        FloatMatrix result = cast(r);
+
+        checkSameDimensions(result);
+
+        MatrixEvent e = MatrixEvent.start();
+        boolean fastPath = switch (Broadcast.of(this, that)) {
+            case SAME_SIZE -> elementwiseSameSize(this, that, result, o);
+            case SCALAR -> elementwiseWithScalar(this,
+                    that.buffer.getAtIndex(ValueLayout.JAVA_FLOAT, that.linearIndex(0, 0)), result, o);
+            case ROW_VECTOR -> elementwiseRowVector(this, that, result, o);
+            case COLUMN_VECTOR -> elementwiseColumnVector(this, that, result, o);
+        };
+        e.commitKernel("elementwiseBinary", result, this, that, null, o, fastPath);
+    }
+
+
+    /*
+    A and B are the same size
+
+     a a a a a   b b b b b
+     a a a a a X b b b b b
+     a a a a a   b b b b b
+
+     Broadcast B over A
+     */
+    private static boolean elementwiseSameSize(FloatMatrix a, FloatMatrix b, FloatMatrix r,
+                                               FloatBinaryOperator o) {
+        assert a.rows == b.rows && a.columns == b.columns;
+
+        if (a.rowStride == 1 && b.rowStride == 1 && r.rowStride == 1 &&
+                o instanceof FloatBroadcastKernel.BinaryBinaryBroadcastKernel k) {
+            // Contiguous columns
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
+        } else if (a.columnStride == 1 && b.columnStride == 1 && r.columnStride == 1 &&
+                o instanceof FloatBroadcastKernel.BinaryBinaryBroadcastKernel k) {
+            // Contiguous rows
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
+        } else {
+            FloatLoops.of(o).binary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride, b.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
+        }
+    }
+
+    /*
+    B is a scalar
+
+    a a a a a   b
+    a a a a a X
+    a a a a a
+
+    Broadcast b over A
+     */
+    private static boolean elementwiseWithScalar(FloatMatrix a, float bE, FloatMatrix r,
+                                                 FloatBinaryOperator o) {
+        if (a.rowStride == 1 && r.rowStride == 1 &&
+                o instanceof FloatBroadcastKernel.BinaryBinaryBroadcastKernel k) {
+            // Contiguous columns
+            k.binaryBroadcastScalarStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    bE,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
+        } else if (a.columnStride == 1 && r.columnStride == 1 &&
+                o instanceof FloatBroadcastKernel.BinaryBinaryBroadcastKernel k) {
+            // Contiguous rows
+            k.binaryBroadcastScalarStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    bE,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
+        } else {
+            // Broadcast b with strides of 0
+            FloatLoops.of(o).binary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    MemorySegment.ofArray(new float[]{bE}), 0, 0, 0,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
+        }
+    }
+
+    /*
+    Same columns
+    B is a row-vector
+
+    a a a a a   b b b b b
+    a a a a a X
+    a a a a a
+
+    Broadcast B over the rows of A
+     */
+    private static boolean elementwiseRowVector(FloatMatrix a, FloatMatrix b, FloatMatrix r,
+                                                FloatBinaryOperator o) {
+        assert b.rows == 1;
+
+        if (a.rowStride == 1 && r.rowStride == 1 &&
+                o instanceof FloatBroadcastKernel.BinaryBinaryBroadcastKernel k) {
+            // Contiguous columns, broadcast each element of B over a column
+            k.binaryBroadcastVectorStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
+        } else if (a.columnStride == 1 && b.columnStride == 1 && r.columnStride == 1 &&
+                o instanceof FloatBroadcastKernel.BinaryBinaryBroadcastKernel k) {
+            // Contiguous rows, broadcast B over each row with a stride of 0
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    b.buffer, b.linearIndex(0, 0), 0,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
+        } else {
+            // Broadcast B over the rows with a row stride of 0
+            FloatLoops.of(o).binary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), 0, b.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
+        }
+    }
+
+    /*
+    Same rows
+    B is a column-vector
+
+    a a a a a   b
+    a a a a a X b
+    a a a a a   b
+
+    Broadcast B over the columns of A
+     */
+    private static boolean elementwiseColumnVector(FloatMatrix a, FloatMatrix b, FloatMatrix r,
+                                                   FloatBinaryOperator o) {
+        assert b.columns == 1;
+
+        if (a.columnStride == 1 && r.columnStride == 1 &&
+                o instanceof FloatBroadcastKernel.BinaryBinaryBroadcastKernel k) {
+            // Contiguous rows, broadcast each element of B over a row
+            k.binaryBroadcastVectorStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
+        } else if (a.rowStride == 1 && b.rowStride == 1 && r.rowStride == 1 &&
+                o instanceof FloatBroadcastKernel.BinaryBinaryBroadcastKernel k) {
+            // Contiguous columns, broadcast B over each column with a stride of 0
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), 0,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
+        } else {
+            // Broadcast B over the columns with a column stride of 0
+            FloatLoops.of(o).binary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride, 0,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
+        }
+    }
+
+
+    // Binary, update a in place
+    public void elementwise(Matrix<Float> b, Matrix<Float> c, FloatTernaryOperator o) {
+        elementwise(b, c, this, o);
+    }
+
+    // Binary, update to r
+    public void elementwise(Matrix<Float> b, Matrix<Float> c, Matrix<Float> r, FloatTernaryOperator o) {
+        FloatMatrix bM = cast(b);
+        FloatMatrix cM = cast(c);
+        FloatMatrix result = cast(r);
+
+        checkSameDimensions(result);
+        bM.checkSameDimensions(cM);
+
+        MatrixEvent e = MatrixEvent.start();
+        boolean fastPath = switch (Broadcast.of(this, bM)) {
+            case SAME_SIZE -> elementwiseSameSize(this, bM, cM, result, o);
+            case SCALAR -> elementwiseWithScalar(this,
+                    bM.buffer.getAtIndex(ValueLayout.JAVA_FLOAT, bM.linearIndex(0, 0)),
+                    cM.buffer.getAtIndex(ValueLayout.JAVA_FLOAT, cM.linearIndex(0, 0)), result, o);
+            case ROW_VECTOR -> elementwiseRowVector(this, bM, cM, result, o);
+            case COLUMN_VECTOR -> elementwiseColumnVector(this, bM, cM, result, o);
+        };
+        e.commitKernel("elementwiseTernary", result, this, bM, cM, o, fastPath);
+    }
+
+    /*
+    A and B are the same size
+
+     a a a a a   b b b b b
+     a a a a a X b b b b b
+     a a a a a   b b b b b
+
+     Broadcast B over A
+     */
+    private static boolean elementwiseSameSize(FloatMatrix a, FloatMatrix b, FloatMatrix c, FloatMatrix r,
+                                               FloatTernaryOperator o) {
+        assert a.rows == b.rows && a.columns == b.columns;
+
+        if (a.rowStride == 1 && b.rowStride == 1 && c.rowStride == 1 && r.rowStride == 1 &&
+                o instanceof FloatBroadcastKernel.TernaryBroadcastKernel k) {
+            // Contiguous columns
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.columnStride,
+                    c.buffer, c.linearIndex(0, 0), c.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
+        } else if (a.columnStride == 1 && b.columnStride == 1 && c.columnStride == 1 && r.columnStride == 1 &&
+                o instanceof FloatBroadcastKernel.TernaryBroadcastKernel k) {
+            // Contiguous rows
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride,
+                    c.buffer, c.linearIndex(0, 0), c.rowStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
+        } else {
+            FloatLoops.of(o).ternary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride, b.columnStride,
+                    c.buffer, c.linearIndex(0, 0), c.rowStride, c.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
+        }
+    }
+
+    /*
+    B is a scalar
+
+    a a a a a   b
+    a a a a a X
+    a a a a a
+
+    Broadcast b over A
+     */
+    private static boolean elementwiseWithScalar(FloatMatrix a, float bE, float cE, FloatMatrix r,
+                                                 FloatTernaryOperator o) {
+        if (a.rowStride == 1 && r.rowStride == 1 &&
+                o instanceof FloatBroadcastKernel.TernaryBroadcastKernel k) {
+            // Contiguous columns
+            k.binaryBroadcastScalarStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    bE, cE,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
+        } else if (a.columnStride == 1 && r.columnStride == 1 &&
+                o instanceof FloatBroadcastKernel.TernaryBroadcastKernel k) {
+            // Contiguous rows
+            k.binaryBroadcastScalarStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    bE, cE,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
+        } else {
+            // Broadcast b and c with strides of 0
+            MemorySegment bc = MemorySegment.ofArray(new float[]{bE, cE});
+            FloatLoops.of(o).ternary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    bc, 0, 0, 0,
+                    bc, 1, 0, 0,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
+        }
+    }
+
+    /*
+    Same columns
+    B is a row-vector
+
+    a a a a a   b b b b b
+    a a a a a X
+    a a a a a
+
+    Broadcast B over the rows of A
+     */
+    private static boolean elementwiseRowVector(FloatMatrix a, FloatMatrix b, FloatMatrix c, FloatMatrix r,
+                                                FloatTernaryOperator o) {
+        assert b.rows == 1;
+
+        if (a.rowStride == 1 && r.rowStride == 1 &&
+                o instanceof FloatBroadcastKernel.TernaryBroadcastKernel k) {
+            // Contiguous columns, broadcast each element of B and C over a column
+            k.binaryBroadcastVectorStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.columnStride,
+                    c.buffer, c.linearIndex(0, 0), c.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
+        } else if (a.columnStride == 1 && b.columnStride == 1 && c.columnStride == 1 && r.columnStride == 1 &&
+                o instanceof FloatBroadcastKernel.TernaryBroadcastKernel k) {
+            // Contiguous rows, broadcast B and C over each row with a stride of 0
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    b.buffer, b.linearIndex(0, 0), 0,
+                    c.buffer, c.linearIndex(0, 0), 0,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
+        } else {
+            // Broadcast B and C over the rows with a row stride of 0
+            FloatLoops.of(o).ternary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), 0, b.columnStride,
+                    c.buffer, c.linearIndex(0, 0), 0, c.columnStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
+        }
+    }
+
+    /*
+    Same rows
+    B is a column-vector
+
+    a a a a a   b
+    a a a a a X b
+    a a a a a   b
+
+    Broadcast B over the columns of A
+     */
+    private static boolean elementwiseColumnVector(FloatMatrix a, FloatMatrix b, FloatMatrix c, FloatMatrix r,
+                                                   FloatTernaryOperator o) {
+        assert b.columns == 1;
+
+        if (a.columnStride == 1 && r.columnStride == 1 &&
+                o instanceof FloatBroadcastKernel.TernaryBroadcastKernel k) {
+            // Contiguous rows, broadcast each element of B and C over a row
+            k.binaryBroadcastVectorStrided(a.buffer, a.linearIndex(0, 0), a.rowStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride,
+                    c.buffer, c.linearIndex(0, 0), c.rowStride,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride,
+                    a.columns, a.rows);
+            return true;
+        } else if (a.rowStride == 1 && b.rowStride == 1 && c.rowStride == 1 && r.rowStride == 1 &&
+                o instanceof FloatBroadcastKernel.TernaryBroadcastKernel k) {
+            // Contiguous columns, broadcast B and C over each column with a stride of 0
+            k.binaryBroadcastMatrixStrided(a.buffer, a.linearIndex(0, 0), a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), 0,
+                    c.buffer, c.linearIndex(0, 0), 0,
+                    r.buffer, r.linearIndex(0, 0), r.columnStride,
+                    a.rows, a.columns);
+            return true;
+        } else {
+            // Broadcast B and C over the columns with a column stride of 0
+            FloatLoops.of(o).ternary(a.buffer, a.linearIndex(0, 0), a.rowStride, a.columnStride,
+                    b.buffer, b.linearIndex(0, 0), b.rowStride, 0,
+                    c.buffer, c.linearIndex(0, 0), c.rowStride, 0,
+                    r.buffer, r.linearIndex(0, 0), r.rowStride, r.columnStride,
+                    a.rows, a.columns, o);
+            return false;
+        }
+    }
+
+
+    // The identity of a reduction kernel, otherwise 0.0f
+    static float identity(FloatBinaryOperator o) {
+        return o instanceof FloatBroadcastKernel.ReductionBroadcastKernel k ? k.identity() : 0.0f;
+    }
+
+    public void reductionRow(Matrix<Float> r, FloatBinaryOperator o) {
+        reductionRow(r, identity(o), o);
+    }
+
+    // The identity is the initial value of the reduction of each row
+    public void reductionRow(Matrix<Float> r, float identity, FloatBinaryOperator o) {
+        FloatMatrix result = cast(r);
+
+        if (result.columns != 1 || result.rows != rows) {
+            throw new IllegalArgumentException();
+        }
+
+        MatrixEvent e = MatrixEvent.start();
+        boolean fastPath = true;
+        if (columnStride == 1 &&
+                o instanceof FloatBroadcastKernel.ReductionBroadcastKernel k) {
+            // Contiguous rows, reduce each row
+            k.reduceBroadcastVectorStrided(buffer, linearIndex(0, 0), rowStride,
+                    result.buffer, result.linearIndex(0, 0), result.rowStride,
+                    columns, rows);
+            applyIdentity(result, identity, k);
+        } else {
+            FloatLoops loops = FloatLoops.of(o);
+            for (long i = 0; i < rows; i++) {
+                float acc = loops.reduce(buffer, linearIndex(i, 0), rowStride, columnStride, 1, columns, identity, o);
+                result.set(i, 0, acc);
+            }
+            fastPath = false;
+        }
+        e.commitKernel("reductionRow", result, this, null, null, o, fastPath);
+    }
+
+    // r := o(identity, r), if the identity is not that of the kernel that reduced into r
+    private static void applyIdentity(FloatMatrix r, float identity,
+                                      FloatBroadcastKernel.ReductionBroadcastKernel k) {
+        if (Float.compare(identity, k.identity()) != 0) {
+            r.elementwise(e -> k.applyAsFloat(identity, e));
+        }
+    }
+
+    public void reductionColumn(Matrix<Float> r, FloatBinaryOperator o) {
+        reductionColumn(r, identity(o), o);
+    }
+
+    // The identity is the initial value of the reduction of each column
+    public void reductionColumn(Matrix<Float> r, float identity, FloatBinaryOperator o) {
+        FloatMatrix result = cast(r);
+
+        if (result.rows != 1 || result.columns != columns) {
+            throw new IllegalArgumentException();
+        }
+
+        MatrixEvent e = MatrixEvent.start();
+        boolean fastPath = true;
+        if (rowStride == 1 &&
+                o instanceof FloatBroadcastKernel.ReductionBroadcastKernel k) {
+            // Contiguous columns, reduce each column
+            k.reduceBroadcastVectorStrided(buffer, linearIndex(0, 0), columnStride,
+                    result.buffer, result.linearIndex(0, 0), result.columnStride,
+                    rows, columns);
+            applyIdentity(result, identity, k);
+        } else {
+            FloatLoops loops = FloatLoops.of(o);
+            for (long j = 0; j < columns; j++) {
+                float acc = loops.reduce(buffer, linearIndex(0, j), rowStride, columnStride, rows, 1, identity, o);
+                result.set(0, j, acc);
+            }
+            fastPath = false;
+        }
+        e.commitKernel("reductionColumn", result, this, null, null, o, fastPath);
+    }
+
+    @FunctionalInterface
+    public interface ReductionSupplier<T> {
+        T apply(long j);
+    }
+
+    @FunctionalInterface
+    public interface ReductionAccumulator<T> {
+        T apply(T t, float v);
+    }
+
+    @FunctionalInterface
+    public interface ReductionFinisher<T> {
+        float apply(T t);
+    }
+
+    public <T> void reductionColumn(Matrix<Float> r,
+                                    ReductionSupplier<T> s, ReductionAccumulator<T> a, ReductionFinisher<T> f) {
+        FloatMatrix result = cast(r);
+
+        if (result.rows != 1 || result.columns != columns) {
+            throw new IllegalArgumentException();
+        }
+
+        MatrixEvent event = MatrixEvent.start();
+        for (long j = 0; j < columns; j++) {
+            T acc = s.apply(j);
+            for (long i = 0; i < rows; i++) {
+                long index = linearIndex(i, j);
+                float e = buffer.getAtIndex(ValueLayout.JAVA_FLOAT, index);
+                acc = a.apply(acc, e);
+            }
+            result.set(0, j, f.apply(acc));
+        }
+        event.commitParallel("reductionColumn", this, result, rows * columns, false, false);
+    }
+
+    public float reduction(FloatBinaryOperator o) {
+        return reduction(identity(o), o);
+    }
+
+    // The identity is the initial value of the reduction
+    public float reduction(float identity, FloatBinaryOperator o) {
+        MatrixEvent e = MatrixEvent.start();
+        if (rowStride == 1 && columnStride == rows
+                && o instanceof FloatBroadcastKernel.ReductionBroadcastKernel k) {
+            // Dense column-major, reduce the elements as one region
+            float acc = k.reduceBroadcastScalar(buffer, linearIndex(0, 0), rows * columns);
+            e.commitKernel("reduction", this, this, null, null, o, true);
+            return Float.compare(identity, k.identity()) != 0 ? o.applyAsFloat(identity, acc) : acc;
+        } else {
+            float acc = FloatLoops.of(o).reduce(buffer, linearIndex(0, 0), rowStride, columnStride,
+                    rows, columns, identity, o);
+            e.commitKernel("reduction", this, this, null, null, o, false);
+            return acc;
+        }
+    }
+
+    @FunctionalInterface
+    public interface MatrixConsumer {
+        void accept(long i, long j, float v);
+    }
+
+    @FunctionalInterface
+    public interface MatrixSupplier {
+        float accept(long i, long j, float v);
+    }
+
+    public void forEach(MatrixConsumer c) {
+        FloatLoops.of(c).forEach(buffer, linearIndex(0, 0), rowStride, columnStride, rows, columns, c);
+    }
+
+    public void setEach(MatrixSupplier c) {
+        FloatLoops.of(c).setEach(buffer, linearIndex(0, 0), rowStride, columnStride, rows, columns, c);
+    }
+
+    @Override
+    public FloatMatrix subMatrix(long i, long j, long rows, long columns) {
+        return (FloatMatrix) super.subMatrix(i, j, rows, columns);
+    }
+
+    @Override
+    FloatMatrix view(long i, long j, long m, long n, int info) {
+        return new FloatMatrix(this, i, j, m, n, info);
+    }
+
+    @Override
+    public FloatMatrix withConjTrans(Trans t) {
+        return (FloatMatrix) super.withConjTrans(t);
+    }
+
+    @Override
+    public FloatMatrix withTransOnly(Trans t) {
+        return (FloatMatrix) super.withTransOnly(t);
+    }
+
+    @Override
+    public void copyInto(Matrix<Float> r) {
+        if (rows != r.rows || columns != r.columns) {
+            throw new IllegalArgumentException();
+        }
+
+        blis_h.bli_copym(obj(), cast(r).obj());
+    }
+
+    @Override
+    public void copyRowInto(int srcRow, Matrix<Float> r, int dstRow) {
+        FloatMatrix result = cast(r);
+
+        if (columns != r.columns) {
+            throw new IllegalArgumentException();
+        }
+        Objects.checkIndex(srcRow, rows);
+        Objects.checkIndex(dstRow, r.rows);
+
+        long srcIndex = linearIndex(srcRow, 0);
+        long dstIndex = result.linearIndex(dstRow, 0);
+        if (columnStride == 1 && result.columnStride == 1) {
+            // Contiguous rows
+            MemorySegment.copy(buffer, ValueLayout.JAVA_FLOAT, srcIndex * Float.BYTES,
+                    result.buffer, ValueLayout.JAVA_FLOAT, dstIndex * Float.BYTES,
+                    columns);
+        } else {
+            for (long j = 0; j < columns; j++) {
+                float e = buffer.getAtIndex(ValueLayout.JAVA_FLOAT, srcIndex + j * columnStride);
+                result.buffer.setAtIndex(ValueLayout.JAVA_FLOAT, dstIndex + j * result.columnStride, e);
+            }
+        }
+    }
+
+    public void extractColumnInto(int column, float[] r, int offset) {
+        copyColumnInto(column, r, offset);
+    }
+
+    // Bulk copies between matrices and float[] arrays
+
+    public void copyColumnInto(long column, float[] r, int offset) {
+        Objects.checkIndex(column, columns);
+        int n = Math.toIntExact(rows);
+        Objects.checkFromIndexSize(offset, n, r.length);
+
+        long index = linearIndex(0, column);
+        if (rowStride == 1) {
+            // Contiguous column
+            MemorySegment.copy(buffer, ValueLayout.JAVA_FLOAT, index * Float.BYTES, r, offset, n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                r[offset + i] = buffer.getAtIndex(ValueLayout.JAVA_FLOAT, index + i * rowStride);
+            }
+        }
+    }
+
+    public void copyColumnFrom(long column, float[] a, int offset) {
+        Objects.checkIndex(column, columns);
+        int n = Math.toIntExact(rows);
+        Objects.checkFromIndexSize(offset, n, a.length);
+
+        long index = linearIndex(0, column);
+        if (rowStride == 1) {
+            // Contiguous column
+            MemorySegment.copy(a, offset, buffer, ValueLayout.JAVA_FLOAT, index * Float.BYTES, n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                buffer.setAtIndex(ValueLayout.JAVA_FLOAT, index + i * rowStride, a[offset + i]);
+            }
+        }
+    }
+
+    // Gather the elements of a row
+    public void copyRowInto(long row, float[] r, int offset) {
+        Objects.checkIndex(row, rows);
+        int n = Math.toIntExact(columns);
+        Objects.checkFromIndexSize(offset, n, r.length);
+
+        long index = linearIndex(row, 0);
+        if (columnStride == 1) {
+            // Contiguous row
+            MemorySegment.copy(buffer, ValueLayout.JAVA_FLOAT, index * Float.BYTES, r, offset, n);
+        } else {
+            for (int j = 0; j < n; j++) {
+                r[offset + j] = buffer.getAtIndex(ValueLayout.JAVA_FLOAT, index + j * columnStride);
+            }
+        }
+    }
+
+    // Scatter the elements of a row
+    public void copyRowFrom(long row, float[] a, int offset) {
+        Objects.checkIndex(row, rows);
+        int n = Math.toIntExact(columns);
+        Objects.checkFromIndexSize(offset, n, a.length);
+
+        long index = linearIndex(row, 0);
+        if (columnStride == 1) {
+            // Contiguous row
+            MemorySegment.copy(a, offset, buffer, ValueLayout.JAVA_FLOAT, index * Float.BYTES, n);
+        } else {
+            for (int j = 0; j < n; j++) {
+                buffer.setAtIndex(ValueLayout.JAVA_FLOAT, index + j * columnStride, a[offset + j]);
+            }
+        }
+    }
+
+    // Copy the elements, in column-major order, into a new array
+    public float[] toArray() {
+        float[] r = new float[Math.toIntExact(rows * columns)];
+        if (rowStride == 1 && columnStride == rows) {
+            // Contiguous columns, without gaps between them
+            MemorySegment.copy(buffer, ValueLayout.JAVA_FLOAT, linearIndex(0, 0) * Float.BYTES, r, 0, r.length);
+        } else {
+            for (long j = 0; j < columns; j++) {
+                copyColumnInto(j, r, Math.toIntExact(j * rows));
+            }
+        }
+        return r;
+    }
+
+    // Copy the elements, in column-major order, from an array
+    public void copyFrom(float[] a) {
+        if (a.length != rows * columns) {
+            throw new IllegalArgumentException("Array length must equal the number of elements");
+        }
+
+        if (rowStride == 1 && columnStride == rows) {
+            // Contiguous columns, without gaps between them
+            MemorySegment.copy(a, 0, buffer, ValueLayout.JAVA_FLOAT, linearIndex(0, 0) * Float.BYTES, a.length);
+        } else {
+            for (long j = 0; j < columns; j++) {
+                copyColumnFrom(j, a, Math.toIntExact(j * rows));
+            }
+        }
+    }
+
+    @Override
+    public void transpose(Matrix<Float> r) {
+        FloatMatrix result = cast(r);
+
+        if (columns != r.rows || rows != r.columns) {
+            throw new IllegalArgumentException();
+        }
+
+        if (this == r) {
+            transposeInPlace();
+            return;
+        }
+
+        MatrixEvent e = MatrixEvent.start();
+        forEachTransposeTile((i0, j0) -> transposeTile(this, result, i0, j0));
+        e.commitParallel("transpose", result, this, 0, true, isTransposedInParallel());
+    }
+
+    @Override
+    public void transposeInPlace() {
+        if (rows != columns) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+
+        MatrixEvent e = MatrixEvent.start();
+        forEachUpperTransposeTile((i0, j0) -> swapTransposeTile(this, i0, j0));
+        e.commitParallel("transposeInPlace", this, null, 0, true, isTransposedInParallel());
+    }
+
+    /*
+    Transpose the tile of A at (i0, j0) into the tile of R at (j0, i0)
+
+    The tile is transposed in 4 x 4 micro-tiles, held in local variables, so that both the
+    columns of A and the columns of R are accessed contiguously (for column-major matrices)
+     */
+    private static void transposeTile(FloatMatrix a, FloatMatrix r, long i0, long j0) {
+        MemorySegment aB = a.buffer;
+        MemorySegment rB = r.buffer;
+        long ars = a.rowStride, acs = a.columnStride;
+        long rrs = r.rowStride, rcs = r.columnStride;
+        long iEnd = Math.min(i0 + TRANSPOSE_TILE, a.rows);
+        long jEnd = Math.min(j0 + TRANSPOSE_TILE, a.columns);
+        long iMicroEnd = i0 + ((iEnd - i0) & ~3);
+        long jMicroEnd = j0 + ((jEnd - j0) & ~3);
+
+        for (long j = j0; j < jMicroEnd; j += 4) {
+            for (long i = i0; i < iMicroEnd; i += 4) {
+                long ai = a.linearIndex(i, j);
+                // Column j of A
+                float a00 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai);
+                float a10 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai + ars);
+                float a20 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai + 2 * ars);
+                float a30 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai + 3 * ars);
+                // Column j + 1 of A
+                ai += acs;
+                float a01 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai);
+                float a11 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai + ars);
+                float a21 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai + 2 * ars);
+                float a31 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai + 3 * ars);
+                // Column j + 2 of A
+                ai += acs;
+                float a02 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai);
+                float a12 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai + ars);
+                float a22 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai + 2 * ars);
+                float a32 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai + 3 * ars);
+                // Column j + 3 of A
+                ai += acs;
+                float a03 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai);
+                float a13 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai + ars);
+                float a23 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai + 2 * ars);
+                float a33 = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ai + 3 * ars);
+
+                long ri = r.linearIndex(j, i);
+                // Column i of R, row i of A
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri, a00);
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri + rrs, a01);
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri + 2 * rrs, a02);
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri + 3 * rrs, a03);
+                // Column i + 1 of R, row i + 1 of A
+                ri += rcs;
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri, a10);
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri + rrs, a11);
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri + 2 * rrs, a12);
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri + 3 * rrs, a13);
+                // Column i + 2 of R, row i + 2 of A
+                ri += rcs;
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri, a20);
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri + rrs, a21);
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri + 2 * rrs, a22);
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri + 3 * rrs, a23);
+                // Column i + 3 of R, row i + 3 of A
+                ri += rcs;
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri, a30);
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri + rrs, a31);
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri + 2 * rrs, a32);
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, ri + 3 * rrs, a33);
+            }
+        }
+
+        // Remaining rows and columns of the tile that do not fill a micro-tile
+        for (long j = j0; j < jEnd; j++) {
+            for (long i = j < jMicroEnd ? iMicroEnd : i0; i < iEnd; i++) {
+                float e = aB.getAtIndex(ValueLayout.JAVA_FLOAT, a.linearIndex(i, j));
+                rB.setAtIndex(ValueLayout.JAVA_FLOAT, r.linearIndex(j, i), e);
+            }
+        }
+    }
+
+    /*
+    Swap the tile of A at (i0, j0) with the transpose of the tile at (j0, i0), or if the tiles are the
+    same tile on the diagonal, transpose the tile in place
+     */
+    private static void swapTransposeTile(FloatMatrix a, long i0, long j0) {
+        MemorySegment aB = a.buffer;
+        long iEnd = Math.min(i0 + TRANSPOSE_TILE, a.rows);
+        long jEnd = Math.min(j0 + TRANSPOSE_TILE, a.columns);
+
+        for (long j = j0; j < jEnd; j++) {
+            // On the diagonal only swap the elements below the diagonal
+            long iStart = i0 == j0 ? j + 1 : i0;
+            for (long i = iStart; i < iEnd; i++) {
+                long ijIndex = a.linearIndex(i, j);
+                long jiIndex = a.linearIndex(j, i);
+                float ij = aB.getAtIndex(ValueLayout.JAVA_FLOAT, ijIndex);
+                float ji = aB.getAtIndex(ValueLayout.JAVA_FLOAT, jiIndex);
+                aB.setAtIndex(ValueLayout.JAVA_FLOAT, ijIndex, ji);
+                aB.setAtIndex(ValueLayout.JAVA_FLOAT, jiIndex, ij);
+            }
+        }
+    }
+
+    @Override
+    public FloatMatrix transpose() {
+        return transpose(allocator);
+    }
+
+    @Override
+    public FloatMatrix transpose(SegmentAllocator sa) {
+        FloatMatrix t = newFloatMatrix(sa, columns, rows);
+        transpose(t);
+        return t;
+    }
+
+    private static FloatMatrix cast(Matrix<Float> dest) {
+        return (FloatMatrix) dest;
+    }
+
+    // Apply Float.sum(a, b) to all elements
+    public void add(Matrix<Float> b) {
+        elementwise(b, Float::sum);
+    }
+
+    // Apply Float.sum(acc, a) to all elements
+    public float sum() {
+        return reduction(Float::sum);
+    }
+
+    public float mean() {
+        return sum() / (rows * columns);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof FloatMatrix that)) {
+            return false;
+        }
+
+        if (rows != that.rows || columns != that.columns) {
+            return false;
+        }
+
+        for (int j = 0; j < columns; j++) {
+            for (int i = 0; i < rows; i++) {
+                float e = get(i, j);
+                float thatE = that.get(i, j);
+
+                if (e != thatE) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    public boolean equals(Matrix<Float> m, float epsilon) {
+        FloatMatrix that = cast(m);
+
+        if (rows != that.rows || columns != that.columns) {
+            return false;
+        }
+
+        for (int j = 0; j < columns; j++) {
+            for (int i = 0; i < rows; i++) {
+                float e = get(i, j);
+                float thatE = that.get(i, j);
+
+                if (Math.abs(e - thatE) > epsilon) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+/**
+ * Kernels for unary, binary, ternary, and reduction operations that operate over contiguous regions of memory,
+ * loading and storing vectors of elements using the Vector API.
+ * <p>
+ * Each kernel is also a scalar operator, which is applied to the tail of a region that does not fill a vector,
+ * and to the elements of matrices that cannot be operated on as a contiguous region.
+ */
+public interface FloatVectorKernel {
+
+    VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private static FloatVector load(MemorySegment s, long index) {
+        return FloatVector.fromMemorySegment(SPECIES, s, index * Float.BYTES, ByteOrder.nativeOrder());
+    }
+
+    private static void store(FloatVector v, MemorySegment s, long index) {
+        v.intoMemorySegment(s, index * Float.BYTES, ByteOrder.nativeOrder());
+    }
+
+    private static long loopBound(long length) {
+        return length - length % SPECIES.length();
+    }
+
+    abstract class UnaryVectorKernel extends FloatBroadcastKernel.ParallelUnaryBroadcastKernel {
+        public UnaryVectorKernel() {
+            this(false);
+        }
+
+        public UnaryVectorKernel(boolean parallel) {
+            super(parallel);
+        }
+
+        public abstract FloatVector apply(FloatVector a);
+
+        @Override
+        protected void serialUnaryBroadcast(MemorySegment a, MemorySegment r, long length) {
+            long i = 0;
+            for (long upperBound = loopBound(length); i < upperBound; i += SPECIES.length()) {
+                store(apply(load(a, i)), r, i);
+            }
+            for (; i < length; i++) {
+                float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+                r.setAtIndex(ValueLayout.JAVA_FLOAT, i, applyAsFloat(aE));
+            }
+        }
+    }
+
+    abstract class BinaryVectorKernel extends FloatBroadcastKernel.ParallelBinaryBinaryBroadcastKernel {
+        public BinaryVectorKernel() {
+            this(false);
+        }
+
+        public BinaryVectorKernel(boolean parallel) {
+            super(parallel);
+        }
+
+        public abstract FloatVector apply(FloatVector a, FloatVector b);
+
+        @Override
+        protected void serialBinaryBroadcastScalar(MemorySegment a, float b, MemorySegment r, long offset, long length) {
+            FloatVector bV = FloatVector.broadcast(SPECIES, b);
+            long i = 0;
+            for (long upperBound = loopBound(length); i < upperBound; i += SPECIES.length()) {
+                store(apply(load(a, offset + i), bV), r, offset + i);
+            }
+            for (; i < length; i++) {
+                float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, offset + i);
+                r.setAtIndex(ValueLayout.JAVA_FLOAT, offset + i, applyAsFloat(aE, b));
+            }
+        }
+
+        @Override
+        protected void serialBinaryBroadcastMatrix(MemorySegment a, MemorySegment b, MemorySegment r, long length) {
+            long i = 0;
+            for (long upperBound = loopBound(length); i < upperBound; i += SPECIES.length()) {
+                store(apply(load(a, i), load(b, i)), r, i);
+            }
+            for (; i < length; i++) {
+                float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+                float bE = b.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+                r.setAtIndex(ValueLayout.JAVA_FLOAT, i, applyAsFloat(aE, bE));
+            }
+        }
+    }
+
+    abstract class TernaryVectorKernel extends FloatBroadcastKernel.ParallelTernaryBroadcastKernel {
+        public TernaryVectorKernel() {
+            this(false);
+        }
+
+        public TernaryVectorKernel(boolean parallel) {
+            super(parallel);
+        }
+
+        public abstract FloatVector apply(FloatVector a, FloatVector b, FloatVector c);
+
+        @Override
+        protected void serialBinaryBroadcastScalar(MemorySegment a, float b, float c, MemorySegment r, long offset, long length) {
+            FloatVector bV = FloatVector.broadcast(SPECIES, b);
+            FloatVector cV = FloatVector.broadcast(SPECIES, c);
+            long i = 0;
+            for (long upperBound = loopBound(length); i < upperBound; i += SPECIES.length()) {
+                store(apply(load(a, offset + i), bV, cV), r, offset + i);
+            }
+            for (; i < length; i++) {
+                float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, offset + i);
+                r.setAtIndex(ValueLayout.JAVA_FLOAT, offset + i, applyAsFloat(aE, b, c));
+            }
+        }
+
+        @Override
+        protected void serialBinaryBroadcastMatrix(MemorySegment a, MemorySegment b, MemorySegment c, MemorySegment r,
+                                                   long length) {
+            long i = 0;
+            for (long upperBound = loopBound(length); i < upperBound; i += SPECIES.length()) {
+                store(apply(load(a, i), load(b, i), load(c, i)), r, i);
+            }
+            for (; i < length; i++) {
+                float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+                float bE = b.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+                float cE = c.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+                r.setAtIndex(ValueLayout.JAVA_FLOAT, i, applyAsFloat(aE, bE, cE));
+            }
+        }
+    }
+
+    abstract class ReductionVectorKernel extends FloatBroadcastKernel.ParallelReductionBroadcastKernel {
+        // Identity of the operation, the initial value of each lane of the accumulator
+        final float identity;
+
+        public ReductionVectorKernel(float identity) {
+            this(false, identity);
+        }
+
+        public ReductionVectorKernel(boolean parallel, float identity) {
+            super(parallel);
+            this.identity = identity;
+        }
+
+        @Override
+        public float identity() {
+            return identity;
+        }
+
+        public abstract FloatVector apply(FloatVector acc, FloatVector a);
+
+        public abstract float reduceLanes(FloatVector acc);
+
+        @Override
+        public float reduceBroadcastScalar(MemorySegment a, long offset, long length) {
+            FloatVector accV = FloatVector.broadcast(SPECIES, identity);
+            long i = 0;
+            for (long upperBound = loopBound(length); i < upperBound; i += SPECIES.length()) {
+                accV = apply(accV, load(a, offset + i));
+            }
+            float acc = reduceLanes(accV);
+            for (; i < length; i++) {
+                float aE = a.getAtIndex(ValueLayout.JAVA_FLOAT, offset + i);
+                acc = applyAsFloat(acc, aE);
+            }
+            return acc;
+        }
+    }
+
+    // Unary kernels
+
+    UnaryVectorKernel ABS = abs(false);
+
+    UnaryVectorKernel NEG = neg(false);
+
+    static UnaryVectorKernel abs(boolean parallel) {
+        return new UnaryVectorKernel(parallel) {
+            @Override
+            public float applyAsFloat(float a) {
+                return Math.abs(a);
+            }
+
+            @Override
+            public FloatVector apply(FloatVector a) {
+                return a.abs();
+            }
+        };
+    }
+
+    static UnaryVectorKernel neg(boolean parallel) {
+        return new UnaryVectorKernel(parallel) {
+            @Override
+            public float applyAsFloat(float a) {
+                return -a;
+            }
+
+            @Override
+            public FloatVector apply(FloatVector a) {
+                return a.neg();
+            }
+        };
+    }
+
+    // Binary kernels
+
+    BinaryVectorKernel ADD = add(false);
+
+    BinaryVectorKernel SUB = sub(false);
+
+    BinaryVectorKernel MUL = mul(false);
+
+    BinaryVectorKernel DIV = div(false);
+
+    BinaryVectorKernel MIN = min(false);
+
+    BinaryVectorKernel MAX = max(false);
+
+    static BinaryVectorKernel add(boolean parallel) {
+        return new BinaryVectorKernel(parallel) {
+            @Override
+            public float applyAsFloat(float a, float b) {
+                return a + b;
+            }
+
+            @Override
+            public FloatVector apply(FloatVector a, FloatVector b) {
+                return a.add(b);
+            }
+        };
+    }
+
+    static BinaryVectorKernel sub(boolean parallel) {
+        return new BinaryVectorKernel(parallel) {
+            @Override
+            public float applyAsFloat(float a, float b) {
+                return a - b;
+            }
+
+            @Override
+            public FloatVector apply(FloatVector a, FloatVector b) {
+                return a.sub(b);
+            }
+        };
+    }
+
+    static BinaryVectorKernel mul(boolean parallel) {
+        return new BinaryVectorKernel(parallel) {
+            @Override
+            public float applyAsFloat(float a, float b) {
+                return a * b;
+            }
+
+            @Override
+            public FloatVector apply(FloatVector a, FloatVector b) {
+                return a.mul(b);
+            }
+        };
+    }
+
+    static BinaryVectorKernel div(boolean parallel) {
+        return new BinaryVectorKernel(parallel) {
+            @Override
+            public float applyAsFloat(float a, float b) {
+                return a / b;
+            }
+
+            @Override
+            public FloatVector apply(FloatVector a, FloatVector b) {
+                return a.div(b);
+            }
+        };
+    }
+
+    static BinaryVectorKernel min(boolean parallel) {
+        return new BinaryVectorKernel(parallel) {
+            @Override
+            public float applyAsFloat(float a, float b) {
+                return Math.min(a, b);
+            }
+
+            @Override
+            public FloatVector apply(FloatVector a, FloatVector b) {
+                return a.min(b);
+            }
+        };
+    }
+
+    static BinaryVectorKernel max(boolean parallel) {
+        return new BinaryVectorKernel(parallel) {
+            @Override
+            public float applyAsFloat(float a, float b) {
+                return Math.max(a, b);
+            }
+
+            @Override
+            public FloatVector apply(FloatVector a, FloatVector b) {
+                return a.max(b);
+            }
+        };
+    }
+
+    // Ternary kernels
+
+    // a * b + c
+    TernaryVectorKernel FMA = fma(false);
+
+    static TernaryVectorKernel fma(boolean parallel) {
+        return new TernaryVectorKernel(parallel) {
+            @Override
+            public float applyAsFloat(float a, float b, float c) {
+                return Math.fma(a, b, c);
+            }
+
+            @Override
+            public FloatVector apply(FloatVector a, FloatVector b, FloatVector c) {
+                return a.fma(b, c);
+            }
+        };
+    }
+
+    // Reduction kernels
+
+    ReductionVectorKernel SUM = sum(false);
+
+    ReductionVectorKernel MIN_REDUCTION = minReduction(false);
+
+    ReductionVectorKernel MAX_REDUCTION = maxReduction(false);
+
+    static ReductionVectorKernel sum(boolean parallel) {
+        return new ReductionVectorKernel(parallel, 0.0f) {
+            @Override
+            public float applyAsFloat(float acc, float a) {
+                return acc + a;
+            }
+
+            @Override
+            public FloatVector apply(FloatVector acc, FloatVector a) {
+                return acc.add(a);
+            }
+
+            @Override
+            public float reduceLanes(FloatVector acc) {
+                return acc.reduceLanes(VectorOperators.ADD);
+            }
+        };
+    }
+
+    static ReductionVectorKernel minReduction(boolean parallel) {
+        return new ReductionVectorKernel(parallel, Float.POSITIVE_INFINITY) {
+            @Override
+            public float applyAsFloat(float acc, float a) {
+                return Math.min(acc, a);
+            }
+
+            @Override
+            public FloatVector apply(FloatVector acc, FloatVector a) {
+                return acc.min(a);
+            }
+
+            @Override
+            public float reduceLanes(FloatVector acc) {
+                return acc.reduceLanes(VectorOperators.MIN);
+            }
+        };
+    }
+
+    static ReductionVectorKernel maxReduction(boolean parallel) {
+        return new ReductionVectorKernel(parallel, Float.NEGATIVE_INFINITY) {
+            @Override
+            public float applyAsFloat(float acc, float a) {
+                return Math.max(acc, a);
+            }
+
+            @Override
+            public FloatVector apply(FloatVector acc, FloatVector a) {
+                return acc.max(a);
+            }
+
+            @Override
+            public float reduceLanes(FloatVector acc) {
+                return acc.reduceLanes(VectorOperators.MAX);
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Specializes scalar loops per class of operator, for {@link DoubleLoops} and {@link FloatLoops}.
+ * <p>
+ * The loops of an element type are written once, in a template class, that is cloned as a hidden class for each
+ * class of operator it is used with. Each clone has its own call sites of the operator, which the JIT sees as
+ * monomorphic. If the template cannot be cloned the shared, unspecialized, template is used.
+ * <p>
+ * A template must not have static state, lambdas, or nested classes, so that it may be cloned.
+ *
+ * @param <L> the type of the loops
+ */
+final class LoopSpecializer<L> extends ClassValue<L> {
+    private final Class<L> loops;
+    private final L shared;
+    private final byte[] templateBytes;
+
+    LoopSpecializer(Class<L> loops, L shared) {
+        this.loops = loops;
+        this.shared = shared;
+        this.templateBytes = templateBytes(shared.getClass());
+    }
+
+    private static byte[] templateBytes(Class<?> template) {
+        // The class file of a nested class, such as DoubleLoops$Template.class
+        String name = template.getName().substring(template.getPackageName().length() + 1) + ".class";
+        try (InputStream in = template.getResourceAsStream(name)) {
+            return in != null ? in.readAllBytes() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Clones the template as a hidden class, that may be unloaded with the class of the operator
+    @Override
+    protected L computeValue(Class<?> type) {
+        if (templateBytes == null) {
+            return shared;
+        }
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup().defineHiddenClass(templateBytes, true);
+            MethodHandle c = l.findConstructor(l.lookupClass(), MethodType.methodType(void.class));
+            return loops.cast(c.invoke());
+        } catch (Throwable t) {
+            // Fall back to the shared, unspecialized, loops
+            return shared;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * A double matrix whose elements are stored in a file that is mapped into memory, so that matrices larger
+ * than physical memory are paged in on demand.
+ * <p>
+ * The file starts with a header of {@value #HEADER_SIZE} bytes, holding the element type, shape, and strides,
+ * followed by the elements. The header is in native byte order.
+ * <p>
+ * The mapping is unmapped when the arena it is mapped with is closed. A matrix that is mapped read-only must
+ * not be updated, by Java or by BLIS.
+ */
+public final class MappedDoubleMatrix {
+    // Header layout
+    // magic, 8 bytes
+    // version, int
+    // element type, int
+    // rows, columns, row stride, column stride, long
+    static final long HEADER_SIZE = 64;
+
+    static final long MAGIC = 0x5854_4d53_494c_42L; // "BLISMTX"
+    static final int VERSION = 1;
+    static final int TYPE_DOUBLE = 1;
+
+    public enum Advice {
+        NORMAL(0),
+        RANDOM(1),
+        SEQUENTIAL(2),
+        WILL_NEED(3),
+        DONT_NEED(4),
+        ;
+
+        // Value of the POSIX_MADV_* constant
+        final int v;
+
+        Advice(int v) {
+            this.v = v;
+        }
+    }
+
+    // Mapping of the whole file, header and elements
+    final MemorySegment mapped;
+    final DoubleMatrix matrix;
+
+    MappedDoubleMatrix(MemorySegment mapped, DoubleMatrix matrix) {
+        this.mapped = mapped;
+        this.matrix = matrix;
+    }
+
+    public DoubleMatrix matrix() {
+        return matrix;
+    }
+
+    public boolean isReadOnly() {
+        return mapped.isReadOnly();
+    }
+
+    // Write any updated elements back to the file
+    public void force() {
+        mapped.force();
+    }
+
+    // Advise how the elements will be accessed, if supported by the platform
+    public void advise(Advice advice) {
+        Optional<MethodHandle> h = Madvise.POSIX_MADVISE;
+        if (h.isPresent()) {
+            int r;
+            try {
+                r = (int) h.get().invokeExact(mapped, mapped.byteSize(), advice.v);
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+            if (r != 0) {
+                throw new IllegalStateException("posix_madvise failed with error " + r);
+            }
+        } else if (advice == Advice.WILL_NEED) {
+            mapped.load();
+        }
+    }
+
+    // Create a file, replacing any existing file, for a column-major matrix and map it read-write
+    public static MappedDoubleMatrix create(Arena arena, Path path, long rows, long columns) throws IOException {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException(String.format("Negative dimensions (%d, %d)", rows, columns));
+        }
+        long size;
+        try {
+            size = Math.addExact(HEADER_SIZE, Math.multiplyExact(Math.multiplyExact(rows, columns), (long) Double.BYTES));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(String.format("Dimensions (%d, %d) overflow the file size", rows, columns), e);
+        }
+        try (FileChannel fc = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MemorySegment mapped = fc.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+            mapped.set(ValueLayout.JAVA_LONG, 0, MAGIC);
+            mapped.set(ValueLayout.JAVA_INT, 8, VERSION);
+            mapped.set(ValueLayout.JAVA_INT, 12, TYPE_DOUBLE);
+            mapped.set(ValueLayout.JAVA_LONG, 16, rows);
+            mapped.set(ValueLayout.JAVA_LONG, 24, columns);
+            mapped.set(ValueLayout.JAVA_LONG, 32, 1);
+            mapped.set(ValueLayout.JAVA_LONG, 40, rows);
+            return map(arena, mapped, HEADER_SIZE, rows, columns, 1, rows);
+        }
+    }
+
+    // Open an existing file of a matrix and map it, read-only or read-write
+    public static MappedDoubleMatrix open(Arena arena, Path path, FileChannel.MapMode mode) throws IOException {
+        if (mode != FileChannel.MapMode.READ_ONLY && mode != FileChannel.MapMode.READ_WRITE) {
+            throw new IllegalArgumentException("Unsupported map mode " + mode);
+        }
+
+        try (FileChannel fc = mode == FileChannel.MapMode.READ_ONLY
+                ? FileChannel.open(path, StandardOpenOption.READ)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = fc.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("File too small for header: " + path);
+            }
+            MemorySegment mapped = fc.map(mode, 0, size, arena);
+            if (mapped.get(ValueLayout.JAVA_LONG, 0) != MAGIC) {
+                throw new IOException("Not a matrix file: " + path);
+            }
+            if (mapped.get(ValueLayout.JAVA_INT, 8) != VERSION) {
+                throw new IOException("Unsupported version " + mapped.get(ValueLayout.JAVA_INT, 8));
+            }
+            if (mapped.get(ValueLayout.JAVA_INT, 12) != TYPE_DOUBLE) {
+                throw new IOException("Unsupported element type " + mapped.get(ValueLayout.JAVA_INT, 12));
+            }
+            long rows = mapped.get(ValueLayout.JAVA_LONG, 16);
+            long columns = mapped.get(ValueLayout.JAVA_LONG, 24);
+            long rowStride = mapped.get(ValueLayout.JAVA_LONG, 32);
+            long columnStride = mapped.get(ValueLayout.JAVA_LONG, 40);
+            if (rows < 0 || columns < 0) {
+                throw new IOException("Invalid dimensions " + rows + " x " + columns + ": " + path);
+            }
+            if (rowStride < 1 || columnStride < 1) {
+                throw new IOException("Invalid strides " + rowStride + ", " + columnStride + ": " + path);
+            }
+            // Number of elements spanned by the strides
+            long extent;
+            try {
+                extent = rows == 0 || columns == 0
+                        ? 0
+                        : Math.addExact(Math.addExact(
+                                Math.multiplyExact(rows - 1, rowStride),
+                                Math.multiplyExact(columns - 1, columnStride)), 1);
+                if (Math.addExact(HEADER_SIZE, Math.multiplyExact(extent, (long) Double.BYTES)) > size) {
+                    throw new IOException("File too small for elements: " + path);
+                }
+            } catch (ArithmeticException e) {
+                throw new IOException("Elements overflow the file: " + path, e);
+            }
+            return map(arena, mapped, HEADER_SIZE, rows, columns, rowStride, columnStride);
+        }
+    }
+
+    // Attach a matrix to the elements of a mapped file, starting at the given byte offset
+    static MappedDoubleMatrix map(Arena arena, MemorySegment mapped, long offset,
+                                  long rows, long columns, long rowStride, long columnStride) {
+        MemorySegment buffer = mapped.asSlice(offset);
+        MemorySegment obj = Matrix.newObj_t(arena, rows, columns, buffer, rowStride, columnStride);
+        return new MappedDoubleMatrix(mapped, new DoubleMatrix(arena, obj, buffer));
+    }
+
+    private static final class Madvise {
+        // int posix_madvise(void *addr, size_t len, int advice)
+        static final Optional<MethodHandle> POSIX_MADVISE = Linker.nativeLinker().defaultLookup()
+                .find("posix_madvise")
+                .map(a -> Linker.nativeLinker().downcallHandle(a,
+                        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+                                ValueLayout.ADDRESS, ValueLayout.JAVA_LONG, ValueLayout.JAVA_INT)));
+    }
+}
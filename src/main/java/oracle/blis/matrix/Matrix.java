@@ -31,13 +31,26 @@ import java.lang.foreign.MemoryLayout;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.SegmentAllocator;
 import java.lang.foreign.ValueLayout;
+import java.util.stream.IntStream;
 
-public abstract sealed class Matrix<T> permits DoubleMatrix, Matrix.PolymorphicConstant {
-    // Allocator to allocate view obj_t
+public abstract sealed class Matrix<T> permits DoubleMatrix, FloatMatrix, ComplexDoubleMatrix, ComplexFloatMatrix,
+        Matrix.PolymorphicConstant {
+    // Allocator to allocate matrices derived from this matrix
     final SegmentAllocator allocator;
 
     // Pointer to BLIS object of obj_t
-    final MemorySegment obj;
+    // If this matrix is a view, the obj_t of the matrix it is a partition of
+    final MemorySegment root;
+
+    // True if this matrix is a view, whose obj_t is materialized on demand from the root
+    final boolean isView;
+
+    // Info bits of a view
+    final int viewInfo;
+
+    // Diagonal offset of a view, if set on the view or inherited from a view it was set on
+    boolean hasViewDiagOffset;
+    long viewDiagOffset;
 
     // Pointer to buffer of elements
     final MemorySegment buffer;
@@ -51,18 +64,115 @@ public abstract sealed class Matrix<T> permits DoubleMatrix, Matrix.PolymorphicC
     final long columnStride;  // column stride
 
 
+    // True if the trans bit is set, the matrix is a view of the transpose of the stored matrix
+    final boolean transposed;
+
+
     Matrix(SegmentAllocator allocator, MemorySegment obj, MemorySegment buffer) {
         this.allocator = allocator;
-        this.obj = obj;
+        this.root = obj;
+        this.isView = false;
+        this.viewInfo = 0;
         this.buffer = buffer;
+        this.transposed = (info() & blis_h.BLIS_TRANS_BIT()) != 0;
+        // If transposed swap the dimensions, offsets, and strides of the stored matrix
+        int r = transposed ? 1 : 0;
+        int c = transposed ? 0 : 1;
         MemorySegment dim = obj_t.dim(obj);
-        this.rows = dim.getAtIndex(ValueLayout.JAVA_LONG, 0);
-        this.columns = dim.getAtIndex(ValueLayout.JAVA_LONG, 1);
+        this.rows = dim.getAtIndex(ValueLayout.JAVA_LONG, r);
+        this.columns = dim.getAtIndex(ValueLayout.JAVA_LONG, c);
         MemorySegment off = obj_t.off(obj);
-        this.rowOffset = off.getAtIndex(ValueLayout.JAVA_LONG, 0);
-        this.columnOffset = off.getAtIndex(ValueLayout.JAVA_LONG, 1);
-        this.rowStride = obj_t.rs(obj);
-        this.columnStride = obj_t.cs(obj);
+        this.rowOffset = off.getAtIndex(ValueLayout.JAVA_LONG, r);
+        this.columnOffset = off.getAtIndex(ValueLayout.JAVA_LONG, c);
+        this.rowStride = transposed ? obj_t.cs(obj) : obj_t.rs(obj);
+        this.columnStride = transposed ? obj_t.rs(obj) : obj_t.cs(obj);
+    }
+
+    // A view of the partition of the stored matrix of the parent, starting at stored row i and stored column j,
+    // with m stored rows and n stored columns, and the given info bits
+    // No obj_t is allocated, the dimensions, offsets, and strides are held in fields
+    Matrix(Matrix<T> parent, long i, long j, long m, long n, int info) {
+        this.allocator = parent.allocator;
+        this.root = parent.root;
+        this.isView = true;
+        this.viewInfo = info;
+        this.buffer = parent.buffer;
+        if (parent.hasViewDiagOffset) {
+            // Partition the materialized parent to inherit its diagonal offset
+            MemorySegment view = ObjSlots.next();
+            blis_h.bli_acquire_mpart(i, j, m, n, parent.obj(), view);
+            this.hasViewDiagOffset = true;
+            this.viewDiagOffset = obj_t.diag_off(view);
+        }
+        this.transposed = (info & blis_h.BLIS_TRANS_BIT()) != 0;
+        long storedRowOffset = parent.storedRowOffset() + i;
+        long storedColumnOffset = parent.storedColumnOffset() + j;
+        long storedRowStride = parent.transposed ? parent.columnStride : parent.rowStride;
+        long storedColumnStride = parent.transposed ? parent.rowStride : parent.columnStride;
+        this.rows = transposed ? n : m;
+        this.columns = transposed ? m : n;
+        this.rowOffset = transposed ? storedColumnOffset : storedRowOffset;
+        this.columnOffset = transposed ? storedRowOffset : storedColumnOffset;
+        this.rowStride = transposed ? storedColumnStride : storedRowStride;
+        this.columnStride = transposed ? storedRowStride : storedColumnStride;
+    }
+
+    // Returns the obj_t of this matrix, to pass to BLIS
+    // The obj_t of a view is materialized into a per-thread slot, and is only valid until the
+    // slots of the thread are reused, so it must be passed to BLIS immediately and not retained
+    final MemorySegment obj() {
+        return isView ? materialize() : root;
+    }
+
+    private MemorySegment materialize() {
+        MemorySegment view = ObjSlots.next();
+        MemorySegment off = obj_t.off(root);
+        blis_h.bli_acquire_mpart(
+                storedRowOffset() - off.getAtIndex(ValueLayout.JAVA_LONG, 0),
+                storedColumnOffset() - off.getAtIndex(ValueLayout.JAVA_LONG, 1),
+                storedRows(), storedColumns(),
+                root, view);
+        obj_t.info(view, viewInfo);
+        if (hasViewDiagOffset) {
+            obj_t.diag_off(view, viewDiagOffset);
+        }
+        return view;
+    }
+
+    // A ring of obj_t per thread into which views are materialized
+    // The ring is larger than the number of operands of any BLIS operation
+    private static final class ObjSlots {
+        static final int SIZE = 16;
+
+        static final ThreadLocal<ObjSlots> SLOTS = ThreadLocal.withInitial(ObjSlots::new);
+
+        final MemorySegment[] slots = new MemorySegment[SIZE];
+        int next;
+
+        ObjSlots() {
+            // Freed when the thread, and so its slots, are no longer reachable
+            Arena arena = Arena.ofAuto();
+            for (int i = 0; i < SIZE; i++) {
+                slots[i] = obj_t.allocate(arena);
+            }
+        }
+
+        static MemorySegment next() {
+            ObjSlots s = SLOTS.get();
+            MemorySegment slot = s.slots[s.next];
+            s.next = (s.next + 1) & (SIZE - 1);
+            return slot;
+        }
+    }
+
+    // Returns an obj_t from the ring of this thread, into which an obj_t may be copied and modified
+    // before passing it to BLIS
+    static MemorySegment objSlot() {
+        return ObjSlots.next();
+    }
+
+    final int info() {
+        return isView ? viewInfo : obj_t.info(root);
     }
 
     public String toDimString() {
@@ -77,6 +187,22 @@ public abstract sealed class Matrix<T> permits DoubleMatrix, Matrix.PolymorphicC
         return rowOffset == 0 && columnOffset == 0;
     }
 
+    final long storedRows() {
+        return transposed ? columns : rows;
+    }
+
+    final long storedColumns() {
+        return transposed ? rows : columns;
+    }
+
+    final long storedRowOffset() {
+        return transposed ? columnOffset : rowOffset;
+    }
+
+    final long storedColumnOffset() {
+        return transposed ? rowOffset : columnOffset;
+    }
+
     public MemorySegment buffer() {
         return buffer;
     }
@@ -106,24 +232,157 @@ public abstract sealed class Matrix<T> permits DoubleMatrix, Matrix.PolymorphicC
     }
 
     public void randm() {
-        blis_h.bli_randm(obj);
+        blis_h.bli_randm(obj());
     }
 
-    public abstract Matrix<T> subMatrix(long i, long j, long rows, long columns);
+    public Matrix<T> subMatrix(long i, long j, long rows, long columns) {
+        if (i + rows > this.rows || j + columns > this.columns) {
+            throw new IllegalArgumentException();
+        }
+
+        if (transposed) {
+            // Partition the stored matrix
+            return view(j, i, columns, rows, info());
+        } else {
+            return view(i, j, rows, columns, info());
+        }
+    }
+
+    // Returns a view of the partition of the stored matrix, starting at stored row i and stored column j,
+    // with m stored rows and n stored columns, and the given info bits
+    abstract Matrix<T> view(long i, long j, long m, long n, int info);
 
     public abstract void copyInto(Matrix<T> dest);
 
-    public abstract void copyRowInto(int srcRow, Matrix<Double> r, int dstRow);
+    public abstract void copyRowInto(int srcRow, Matrix<T> r, int dstRow);
 
     public abstract void transpose(Matrix<T> b);
 
+    public abstract void transposeInPlace();
+
     public abstract Matrix<T> transpose();
 
     public abstract Matrix<T> transpose(SegmentAllocator sa);
 
-    public abstract void concatVertically(Matrix<T> b, Matrix<T> c);
+    // a a a
+    // a a a
+    // a a a
+    //    x
+    // b b b
+    // b b b
+    // b b b
+    public void concatVertically(Matrix<T> b, Matrix<T> r) {
+        if (b.columns != columns || r.columns != columns || r.rows < b.rows + rows) {
+            throw new IllegalArgumentException();
+        }
+
+        copyInto(r.subMatrix(0, 0, rows, columns));
+        b.copyInto(r.subMatrix(rows, 0, b.rows, columns));
+    }
+
+    // a a a    b b b
+    // a a a  x b b b
+    // a a a    b b b
+    public void concatHorizontally(Matrix<T> b, Matrix<T> c) {
+        if (b.rows != rows || c.rows != rows || c.columns < b.columns + columns) {
+            throw new IllegalArgumentException();
+        }
+
+        copyInto(c.subMatrix(0, 0, rows, columns));
+        b.copyInto(c.subMatrix(0, columns, rows, b.columns));
+    }
+
+    // Shapes of an operand b broadcast over a matrix a in an elementwise operation
+    enum Broadcast {
+        // a a a   b b b
+        // a a a X b b b
+        SAME_SIZE,
+        // a a a   b
+        // a a a X
+        SCALAR,
+        // a a a   b b b
+        // a a a X
+        ROW_VECTOR,
+        // a a a   b
+        // a a a X b
+        COLUMN_VECTOR;
+
+        static Broadcast of(Matrix<?> a, Matrix<?> b) {
+            if (a.rows == b.rows && a.columns == b.columns) {
+                return SAME_SIZE;
+            } else if (b.rows == 1 && b.columns == 1) {
+                return SCALAR;
+            } else if (b.rows == 1 && a.columns == b.columns) {
+                return ROW_VECTOR;
+            } else if (a.rows == b.rows && b.columns == 1) {
+                return COLUMN_VECTOR;
+            } else {
+                throw new IllegalArgumentException(
+                        String.format("Mismatched matrices: a(%d, %d) x b(%d, %d)", a.rows, a.columns, b.rows, b.columns));
+            }
+        }
+    }
+
+    // Throws if r does not have the same dimensions as this matrix
+    final void checkSameDimensions(Matrix<?> r) {
+        if (rows != r.rows || columns != r.columns) {
+            throw new IllegalArgumentException("All matrices must have the same dimensions");
+        }
+    }
+
+    // Size of the square tiles a matrix is transposed in,
+    // such that a source tile and a destination tile fit in the L1 cache
+    static final long TRANSPOSE_TILE = 32;
+
+    // Number of elements at or below which a matrix is transposed serially
+    static final long TRANSPOSE_PARALLEL_THRESHOLD = 1L << 16;
+
+    // Transposes, or swaps, the tile at (i0, j0), with the elements of the type of the matrix
+    @FunctionalInterface
+    interface TransposeTile {
+        void apply(long i0, long j0);
+    }
+
+    final boolean isTransposedInParallel() {
+        return rows * columns > TRANSPOSE_PARALLEL_THRESHOLD;
+    }
+
+    // Applies t to each tile of this matrix, in parallel if large enough
+    final void forEachTransposeTile(TransposeTile t) {
+        long rowTiles = (rows + TRANSPOSE_TILE - 1) / TRANSPOSE_TILE;
+        long columnTiles = (columns + TRANSPOSE_TILE - 1) / TRANSPOSE_TILE;
+        if (isTransposedInParallel()) {
+            IntStream.range(0, Math.toIntExact(rowTiles * columnTiles)).parallel().forEach(k ->
+                    t.apply((k % rowTiles) * TRANSPOSE_TILE, (k / rowTiles) * TRANSPOSE_TILE));
+        } else {
+            for (long tj = 0; tj < columnTiles; tj++) {
+                for (long ti = 0; ti < rowTiles; ti++) {
+                    t.apply(ti * TRANSPOSE_TILE, tj * TRANSPOSE_TILE);
+                }
+            }
+        }
+    }
 
-    public abstract void concatHorizontally(Matrix<T> b, Matrix<T> c);
+    // Applies t to each tile on or above the diagonal of this square matrix, in parallel if large enough
+    final void forEachUpperTransposeTile(TransposeTile t) {
+        long tiles = (rows + TRANSPOSE_TILE - 1) / TRANSPOSE_TILE;
+        if (isTransposedInParallel()) {
+            IntStream.range(0, Math.toIntExact(tiles * tiles)).parallel().forEach(k -> {
+                long ti = k % tiles;
+                long tj = k / tiles;
+                // Each pair of tiles either side of the diagonal is swapped once
+                if (ti <= tj) {
+                    t.apply(ti * TRANSPOSE_TILE, tj * TRANSPOSE_TILE);
+                }
+            });
+        } else {
+            for (long tj = 0; tj < tiles; tj++) {
+                for (long ti = 0; ti <= tj; ti++) {
+                    t.apply(ti * TRANSPOSE_TILE, tj * TRANSPOSE_TILE);
+                }
+            }
+        }
+    }
 
     public void print() {
         print("");
@@ -134,7 +393,7 @@ public abstract sealed class Matrix<T> permits DoubleMatrix, Matrix.PolymorphicC
             var message = a.allocateFrom(m);
             var emptyString = a.allocateFrom("");
             var format = a.allocateFrom("%5.2f");
-            blis_h.bli_printm(message, obj, format, emptyString);
+            blis_h.bli_printm(message, obj(), format, emptyString);
         }
     }
 
@@ -272,82 +531,132 @@ public abstract sealed class Matrix<T> permits DoubleMatrix, Matrix.PolymorphicC
         }
     }
 
+    public enum DataType {
+        FLOAT(blis_h.BLIS_FLOAT()),
+        DOUBLE(blis_h.BLIS_DOUBLE()),
+        SCOMPLEX(blis_h.BLIS_SCOMPLEX()),
+        DCOMPLEX(blis_h.BLIS_DCOMPLEX()),
+        CONSTANT(blis_h.BLIS_CONSTANT()),
+        ;
+
+        final int v;
+
+        DataType(int v) {
+            this.v = v;
+        }
+
+        static DataType from(int v) {
+            for (var e : DataType.values()) {
+                if (e.v == v) {
+                    return e;
+                }
+            }
+            throw new IllegalArgumentException("No datatype for value " + v);
+        }
+
+        boolean isFloatingPoint() {
+            return this != CONSTANT;
+        }
+    }
+
+    // Precision in which BLIS computes an operation, independently of the precision
+    // of the operands when they are of mixed datatypes
+    public enum Precision {
+        SINGLE,
+        DOUBLE,
+    }
+
+    public DataType dataType() {
+        return DataType.from(info() & blis_h.BLIS_DATATYPE_BITS());
+    }
+
+    public Precision computationPrecision() {
+        return (info() & blis_h.BLIS_COMP_PREC_BIT()) != 0 ? Precision.DOUBLE : Precision.SINGLE;
+    }
+
+    public Matrix<T> withComputationPrecision(Precision p) {
+        int i = info();
+        i = (i & ~blis_h.BLIS_COMP_PREC_BIT()) | (p == Precision.DOUBLE ? blis_h.BLIS_COMP_PREC_BIT() : 0);
+
+        return withInfo(i);
+    }
+
     public Trans conjTrans() {
-        int info = obj_t.info(obj);
+        int info = info();
         return Trans.from(info & blis_h.BLIS_CONJTRANS_BITS());
     }
 
     public Matrix<T> withConjTrans(Trans t) {
-        int i = obj_t.info(obj);
+        int i = info();
         i = (i & ~blis_h.BLIS_CONJTRANS_BITS()) | t.v;
 
-        Matrix<T> that = subMatrix(0, 0, rows(), columns());
-        obj_t.info(that.obj, i);
-        return that;
+        return withInfo(i);
     }
 
     public Trans transOnly() {
-        int i = obj_t.info(obj);
+        int i = info();
         return Trans.from(i & blis_h.BLIS_TRANS_BIT());
     }
 
     public Matrix<T> withTransOnly(Trans t) {
-        int i = obj_t.info(obj);
+        int i = info();
         i = (i & ~blis_h.BLIS_TRANS_BIT()) | t.v;
 
-        Matrix<T> that = subMatrix(0, 0, rows(), columns());
-        obj_t.info(that.obj, i);
-        return that;
+        return withInfo(i);
     }
 
     public Structure struc() {
-        int info = obj_t.info(obj);
+        int info = info();
         return Structure.from(info & blis_h.BLIS_STRUC_BITS());
     }
 
     public Matrix<T> withStruc(Structure t) {
-        int i = obj_t.info(obj);
+        int i = info();
         i = (i & ~blis_h.BLIS_STRUC_BITS()) | t.v;
 
-        Matrix<T> that = subMatrix(0, 0, rows(), columns());
-        obj_t.info(that.obj, i);
-        return that;
+        return withInfo(i);
     }
 
     public Uplo uplo() {
-        int info = obj_t.info(obj);
+        int info = info();
         return Uplo.from(info & blis_h.BLIS_UPLO_BITS());
     }
 
     public Matrix<T> withUplo(Uplo t) {
-        int i = obj_t.info(obj);
+        int i = info();
         i = (i & ~blis_h.BLIS_UPLO_BITS()) | t.v;
 
-        Matrix<T> that = subMatrix(0, 0, rows(), columns());
-        obj_t.info(that.obj, i);
-        return that;
+        return withInfo(i);
     }
 
     public Diag diag() {
-        int i = obj_t.info(obj);
+        int i = info();
         return Diag.from(i & blis_h.BLIS_UNIT_DIAG_BIT());
     }
 
     public Matrix<T> withDiag(Diag d) {
-        int i = obj_t.info(obj);
+        int i = info();
         i = (i & ~blis_h.BLIS_UNIT_DIAG_BIT()) | d.v;
 
-        Matrix<T> that = subMatrix(0, 0, rows(), columns());
-        obj_t.info(that.obj, i);
-        return that;
+        return withInfo(i);
+    }
+
+    // Returns a view of the whole of this matrix with the given info bits
+    private Matrix<T> withInfo(int info) {
+        return view(0, 0, storedRows(), storedColumns(), info);
     }
 
     public long diagOffset() {
-        return obj_t.diag_off(obj);
+        return obj_t.diag_off(obj());
     }
 
     public void setDiagOffset(long o) {
-        obj_t.diag_off(obj, o);
+        if (isView) {
+            hasViewDiagOffset = true;
+            viewDiagOffset = o;
+        } else {
+            obj_t.diag_off(root, o);
+        }
     }
 
     // Specializations
@@ -362,13 +671,18 @@ public abstract sealed class Matrix<T> permits DoubleMatrix, Matrix.PolymorphicC
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        Matrix<Object> view(long i, long j, long m, long n, int info) {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public void copyInto(Matrix<Object> dest) {
             throw new UnsupportedOperationException();
         }
 
         @Override
-        public void copyRowInto(int srcRow, Matrix<Double> r, int dstRow) {
+        public void copyRowInto(int srcRow, Matrix<Object> r, int dstRow) {
             throw new UnsupportedOperationException();
         }
 
@@ -382,6 +696,10 @@ public abstract sealed class Matrix<T> permits DoubleMatrix, Matrix.PolymorphicC
 
         }
 
+        public void transposeInPlace() {
+            throw new UnsupportedOperationException();
+        }
+
         public Matrix<Object> transpose(SegmentAllocator sa) {
             throw new UnsupportedOperationException();
         }
@@ -432,19 +750,157 @@ public abstract sealed class Matrix<T> permits DoubleMatrix, Matrix.PolymorphicC
         return new DoubleMatrix(allocator, obj, buffer);
     }
 
+    // Elements are copied from the array, in column-major order
+    public static DoubleMatrix newDoubleMatrix(long rows, long columns, double[] elements) {
+        return newDoubleMatrix(Arena.ofAuto(), rows, columns, elements);
+    }
+
+    public static DoubleMatrix newDoubleMatrix(SegmentAllocator allocator, long rows, long columns, double[] elements) {
+        if (elements.length != rows * columns) {
+            throw new IllegalArgumentException("Array length must equal the number of elements");
+        }
+        MemorySegment buffer = allocator.allocate(MemoryLayout.sequenceLayout(rows * columns, ValueLayout.JAVA_DOUBLE));
+        MemorySegment.copy(elements, 0, buffer, ValueLayout.JAVA_DOUBLE, 0, elements.length);
+        return newDoubleMatrix(allocator, rows, columns, buffer);
+    }
+
+    public static Matrix<?> newMatrix(DataType dataType, long rows, long columns) {
+        return newMatrix(Arena.ofAuto(), dataType, rows, columns);
+    }
+
+    // Matrices of different datatypes may be operands of the same gemm operation
+    public static Matrix<?> newMatrix(SegmentAllocator allocator, DataType dataType, long rows, long columns) {
+        return switch (dataType) {
+            case FLOAT -> newFloatMatrix(allocator, rows, columns);
+            case DOUBLE -> newDoubleMatrix(allocator, rows, columns);
+            case SCOMPLEX -> newComplexFloatMatrix(allocator, rows, columns);
+            case DCOMPLEX -> newComplexDoubleMatrix(allocator, rows, columns);
+            default -> throw new IllegalArgumentException("Unsupported datatype " + dataType);
+        };
+    }
+
+    public static FloatMatrix newFloatMatrix(long rows, long columns) {
+        return newFloatMatrix(Arena.ofAuto(), rows, columns);
+    }
+
+    public static FloatMatrix newFloatMatrix(SegmentAllocator allocator, long rows, long columns) {
+        // Allocate the memory for the matrix elements
+        MemorySegment buffer = allocator.allocate(MemoryLayout.sequenceLayout(rows * columns, ValueLayout.JAVA_FLOAT));
+        return newFloatMatrix(allocator, rows, columns, buffer);
+    }
+
+    public static FloatMatrix newFloatMatrix(long rows, long columns, MemorySegment buffer) {
+        return newFloatMatrix(Arena.ofAuto(), rows, columns, buffer);
+    }
+
+    public static FloatMatrix newFloatMatrix(SegmentAllocator allocator, long rows, long columns, MemorySegment buffer) {
+        MemorySegment obj = newObj_t(allocator, blis_h.BLIS_FLOAT(), rows, columns, buffer, 1, rows);
+        return new FloatMatrix(allocator, obj, buffer);
+    }
+
+    // Elements are copied from the array, in column-major order
+    public static FloatMatrix newFloatMatrix(long rows, long columns, float[] elements) {
+        return newFloatMatrix(Arena.ofAuto(), rows, columns, elements);
+    }
+
+    public static FloatMatrix newFloatMatrix(SegmentAllocator allocator, long rows, long columns, float[] elements) {
+        if (elements.length != rows * columns) {
+            throw new IllegalArgumentException("Array length must equal the number of elements");
+        }
+        MemorySegment buffer = allocator.allocate(MemoryLayout.sequenceLayout(rows * columns, ValueLayout.JAVA_FLOAT));
+        MemorySegment.copy(elements, 0, buffer, ValueLayout.JAVA_FLOAT, 0, elements.length);
+        return newFloatMatrix(allocator, rows, columns, buffer);
+    }
+
+    public static ComplexDoubleMatrix newComplexDoubleMatrix(long rows, long columns) {
+        return newComplexDoubleMatrix(Arena.ofAuto(), rows, columns);
+    }
+
+    public static ComplexDoubleMatrix newComplexDoubleMatrix(SegmentAllocator allocator, long rows, long columns) {
+        // Allocate the memory for the matrix elements, interleaved real and imaginary parts
+        MemorySegment buffer = allocator.allocate(MemoryLayout.sequenceLayout(rows * columns * 2, ValueLayout.JAVA_DOUBLE));
+        return newComplexDoubleMatrix(allocator, rows, columns, buffer);
+    }
+
+    public static ComplexDoubleMatrix newComplexDoubleMatrix(long rows, long columns, MemorySegment buffer) {
+        return newComplexDoubleMatrix(Arena.ofAuto(), rows, columns, buffer);
+    }
+
+    public static ComplexDoubleMatrix newComplexDoubleMatrix(SegmentAllocator allocator, long rows, long columns, MemorySegment buffer) {
+        MemorySegment obj = newObj_t(allocator, blis_h.BLIS_DCOMPLEX(), rows, columns, buffer, 1, rows);
+        return new ComplexDoubleMatrix(allocator, obj, buffer);
+    }
+
+    // Elements are copied from the array of interleaved real and imaginary parts, in column-major order
+    public static ComplexDoubleMatrix newComplexDoubleMatrix(long rows, long columns, double[] elements) {
+        return newComplexDoubleMatrix(Arena.ofAuto(), rows, columns, elements);
+    }
+
+    public static ComplexDoubleMatrix newComplexDoubleMatrix(SegmentAllocator allocator, long rows, long columns, double[] elements) {
+        if (elements.length != rows * columns * 2) {
+            throw new IllegalArgumentException("Array length must equal twice the number of elements");
+        }
+        MemorySegment buffer = allocator.allocate(MemoryLayout.sequenceLayout(rows * columns * 2, ValueLayout.JAVA_DOUBLE));
+        MemorySegment.copy(elements, 0, buffer, ValueLayout.JAVA_DOUBLE, 0, elements.length);
+        return newComplexDoubleMatrix(allocator, rows, columns, buffer);
+    }
+
+    public static ComplexFloatMatrix newComplexFloatMatrix(long rows, long columns) {
+        return newComplexFloatMatrix(Arena.ofAuto(), rows, columns);
+    }
+
+    public static ComplexFloatMatrix newComplexFloatMatrix(SegmentAllocator allocator, long rows, long columns) {
+        // Allocate the memory for the matrix elements, interleaved real and imaginary parts
+        MemorySegment buffer = allocator.allocate(MemoryLayout.sequenceLayout(rows * columns * 2, ValueLayout.JAVA_FLOAT));
+        return newComplexFloatMatrix(allocator, rows, columns, buffer);
+    }
+
+    public static ComplexFloatMatrix newComplexFloatMatrix(long rows, long columns, MemorySegment buffer) {
+        return newComplexFloatMatrix(Arena.ofAuto(), rows, columns, buffer);
+    }
+
+    public static ComplexFloatMatrix newComplexFloatMatrix(SegmentAllocator allocator, long rows, long columns, MemorySegment buffer) {
+        MemorySegment obj = newObj_t(allocator, blis_h.BLIS_SCOMPLEX(), rows, columns, buffer, 1, rows);
+        return new ComplexFloatMatrix(allocator, obj, buffer);
+    }
+
+    // Elements are copied from the array of interleaved real and imaginary parts, in column-major order
+    public static ComplexFloatMatrix newComplexFloatMatrix(long rows, long columns, float[] elements) {
+        return newComplexFloatMatrix(Arena.ofAuto(), rows, columns, elements);
+    }
+
+    public static ComplexFloatMatrix newComplexFloatMatrix(SegmentAllocator allocator, long rows, long columns, float[] elements) {
+        if (elements.length != rows * columns * 2) {
+            throw new IllegalArgumentException("Array length must equal twice the number of elements");
+        }
+        MemorySegment buffer = allocator.allocate(MemoryLayout.sequenceLayout(rows * columns * 2, ValueLayout.JAVA_FLOAT));
+        MemorySegment.copy(elements, 0, buffer, ValueLayout.JAVA_FLOAT, 0, elements.length);
+        return newComplexFloatMatrix(allocator, rows, columns, buffer);
+    }
+
     static MemorySegment newObj_t(SegmentAllocator allocator, long rows, long columns, MemorySegment buffer) {
+        // Column-major order
+        return newObj_t(allocator, rows, columns, buffer, 1, rows);
+    }
+
+    static MemorySegment newObj_t(SegmentAllocator allocator, long rows, long columns, MemorySegment buffer,
+                                  long rowStride, long columnStride) {
+        return newObj_t(allocator, blis_h.BLIS_DOUBLE(), rows, columns, buffer, rowStride, columnStride);
+    }
+
+    static MemorySegment newObj_t(SegmentAllocator allocator, int dataType, long rows, long columns, MemorySegment buffer,
+                                  long rowStride, long columnStride) {
         // Allocate the obj_t struct and attach the buffer
         MemorySegment obj = obj_t.allocate(allocator);
         blis_h.bli_obj_create_with_attached_buffer(
                 // Element type
-                blis_h.BLIS_DOUBLE(),
+                dataType,
                 // Shape
                 rows, columns,
                 // Pointer to elements
                 buffer,
                 // Row and column strides
-                // Column-major order
-                1, rows,
+                rowStride, columnStride,
                 obj);
         return obj;
     }
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A flight recorder event for a BLIS operation, or for an elementwise, reduction or transpose operation of a
+ * matrix.
+ * <p>
+ * The event is disabled by default, and is enabled with a recording setting, for example
+ * {@code -XX:StartFlightRecording:oracle.blis.matrix.Operation#enabled=true}. When disabled an operation only
+ * allocates an event, which escape analysis removes, and checks whether the event is enabled. The fields are
+ * computed only for events that are committed.
+ * <p>
+ * The shape and strides are those of the matrix the operation updates, or of the matrix it reduces.
+ */
+@Name("oracle.blis.matrix.Operation")
+@Label("Matrix Operation")
+@Category({"BLIS", "Matrix"})
+@Description("A BLIS operation, or an elementwise, reduction or transpose operation of a matrix")
+@Enabled(false)
+@StackTrace(false)
+final class MatrixEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Data Type")
+    String dataType;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Columns")
+    long columns;
+
+    @Label("Depth")
+    @Description("Inner dimension of a matrix product, otherwise 0")
+    long depth;
+
+    @Label("Row Stride")
+    long rowStride;
+
+    @Label("Column Stride")
+    long columnStride;
+
+    @Label("Threads")
+    @Description("Threads the operation may use, from the global settings of BLIS if no runtime is bound")
+    long threads;
+
+    @Label("Bytes")
+    @Description("Bytes of the operands, each read or written once")
+    @DataAmount
+    long bytes;
+
+    @Label("FLOPs")
+    @Description("Real floating point operations of a BLIS operation, each element of an elementwise or " +
+            "reduction operation counting as one")
+    long flops;
+
+    @Label("Fast Path")
+    @Description("Whether a vector kernel or BLIS computed the operation, rather than a scalar fallback")
+    boolean fastPath;
+
+    static MatrixEvent start() {
+        MatrixEvent e = new MatrixEvent();
+        e.begin();
+        return e;
+    }
+
+    // A BLIS operation that updates r and reads a and b, either of which may be null
+    // BLIS computes level-1 and level-2 operations single-threaded
+    void commitBlis(String operation, Matrix<?> r, Matrix<?> a, Matrix<?> b, long depth, long flops) {
+        end();
+        if (shouldCommit()) {
+            set(operation, r, a, b, null, depth, flops, 1, true);
+            commit();
+        }
+    }
+
+    // A BLIS level-3 operation, computed with the runtime bound to the current thread, if any
+    void commitBlisRntm(String operation, Matrix<?> r, Matrix<?> a, Matrix<?> b, long depth, long flops) {
+        end();
+        if (shouldCommit()) {
+            Rntm rntm = Rntm.current();
+            set(operation, r, a, b, null, depth, flops, rntm == null ? Rntm.globalThreads() : rntm.threads(), true);
+            commit();
+        }
+    }
+
+    // Batched matrix products, each item computed single-threaded by BLIS and the items in parallel
+    // The shape and strides are those of the first item, and the bytes and FLOPs those of all items
+    void commitGemmBatch(String operation, Matrix<?>[] as, Matrix<?>[] bs, Matrix<?>[] cs) {
+        end();
+        if (cs.length > 0 && shouldCommit()) {
+            long bytes = 0, flops = 0;
+            for (int i = 0; i < cs.length; i++) {
+                bytes += bytes(as[i]) + bytes(bs[i]) + bytes(cs[i]);
+                flops += flops(cs[i], cs[i].rows * cs[i].columns * as[i].columns, 2, 8);
+            }
+            set(operation, cs[0], as[0], bs[0], null, as[0].columns, flops,
+                    ForkJoinPool.getCommonPoolParallelism(), true);
+            this.bytes = bytes;
+            commit();
+        }
+    }
+
+    void commitGemmBatch(String operation, Matrix<?> a, Matrix<?> b, Matrix<?> c, long count) {
+        end();
+        if (count > 0 && shouldCommit()) {
+            set(operation, c, a, b, null, a.columns, count * flops(c, c.rows * c.columns * a.columns, 2, 8),
+                    ForkJoinPool.getCommonPoolParallelism(), true);
+            this.bytes *= count;
+            commit();
+        }
+    }
+
+    // An elementwise operation of o, or a reduction of o of a into r, that a kernel computed if fastPath is true
+    // Each element of the larger of a and r counts as one FLOP, whatever the element type, as o is opaque
+    void commitKernel(String operation, Matrix<?> r, Matrix<?> a, Matrix<?> b, Matrix<?> c,
+                      Object o, boolean fastPath) {
+        end();
+        if (shouldCommit()) {
+            long elements = Math.max(elements(r), elements(a));
+            boolean parallel = fastPath &&
+                    (DoubleBroadcastKernel.isParallel(o, elements) || FloatBroadcastKernel.isParallel(o, elements));
+            // The shape is that of the reduced matrix, rather than of its reduction
+            Matrix<?> shape = elements(a) > elements(r) ? a : r;
+            set(operation, shape, shape == r ? a : r, b, c, 0, elements,
+                    parallel ? ForkJoinPool.getCommonPoolParallelism() : 1, fastPath);
+            commit();
+        }
+    }
+
+    // An operation of a into r that is computed in parallel on the common pool if parallel is true
+    void commitParallel(String operation, Matrix<?> r, Matrix<?> a, long flops, boolean fastPath, boolean parallel) {
+        end();
+        if (shouldCommit()) {
+            set(operation, r, a, null, null, 0, flops,
+                    parallel ? ForkJoinPool.getCommonPoolParallelism() : 1, fastPath);
+            commit();
+        }
+    }
+
+    private void set(String operation, Matrix<?> shape, Matrix<?> a, Matrix<?> b, Matrix<?> c,
+                     long depth, long flops, long threads, boolean fastPath) {
+        this.operation = operation;
+        this.dataType = shape.dataType().name();
+        this.rows = shape.rows;
+        this.columns = shape.columns;
+        this.depth = depth;
+        this.rowStride = shape.rowStride;
+        this.columnStride = shape.columnStride;
+        this.threads = threads;
+        this.bytes = bytes(shape, a, b, c);
+        this.flops = flops;
+        this.fastPath = fastPath;
+    }
+
+    // Bytes of the distinct operands, which may be null
+    static long bytes(Matrix<?> r, Matrix<?> a, Matrix<?> b, Matrix<?> c) {
+        long bytes = bytes(r);
+        if (a != r) {
+            bytes += bytes(a);
+        }
+        if (b != r && b != a) {
+            bytes += bytes(b);
+        }
+        if (c != r && c != a && c != b) {
+            bytes += bytes(c);
+        }
+        return bytes;
+    }
+
+    static long bytes(Matrix<?> m) {
+        if (m == null) {
+            return 0;
+        }
+        long elementSize = switch (m.dataType()) {
+            case FLOAT -> 4;
+            case DOUBLE, SCOMPLEX -> 8;
+            case DCOMPLEX -> 16;
+            case CONSTANT -> 0;
+        };
+        return m.rows * m.columns * elementSize;
+    }
+
+    // Real FLOPs of n operations on the elements of m, each costing real FLOPs if m is real, otherwise complex FLOPs
+    // For example, a multiply-add costs 2 real FLOPs or 8 complex FLOPs, and a multiply 1 or 6
+    static long flops(Matrix<?> m, long n, long real, long complex) {
+        boolean isComplex = m.dataType() == Matrix.DataType.SCOMPLEX || m.dataType() == Matrix.DataType.DCOMPLEX;
+        return n * (isComplex ? complex : real);
+    }
+
+    static long elements(Matrix<?> m) {
+        return m.rows * m.columns;
+    }
+}
@@ -0,0 +1,491 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * A lazy expression over double matrices, whose elementwise operations are fused when the expression is evaluated.
+ * <p>
+ * An expression is a tree of unary, binary, and ternary operations whose leaves are matrices or scalars. Operands of
+ * a binary or ternary operation may be broadcast: a scalar or 1 x 1 matrix over all elements, a row-vector over
+ * the rows, and a column-vector over the columns.
+ * <pre>{@code
+ * MatrixExpr.of(a).mul(b).add(c).map(DoubleVectorKernel.ABS).evaluateInto(r);
+ * }</pre>
+ * Evaluation makes one pass over memory. Each column of the result is evaluated in blocks of {@value #BLOCK} rows,
+ * and the whole tree is evaluated on a block, held in registers that fit in the L1 cache, before moving to the next
+ * block. Operators that are kernels of {@link DoubleBroadcastKernel} operate on a whole block at once, otherwise
+ * the operator is applied to each element of the block by {@link DoubleLoops}.
+ * <p>
+ * The result of an evaluation may be one of the leaf matrices, but must not otherwise overlap them.
+ */
+public abstract sealed class MatrixExpr {
+    // Number of elements of a block, such that the blocks of a few operands fit in the L1 cache
+    static final int BLOCK = 512;
+
+    final long rows;
+    final long columns;
+
+    MatrixExpr(long rows, long columns) {
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public long columns() {
+        return columns;
+    }
+
+    public static MatrixExpr of(Matrix<Double> m) {
+        return new Leaf((DoubleMatrix) m);
+    }
+
+    public static MatrixExpr scalar(double v) {
+        return new Scalar(v);
+    }
+
+    // Unary
+
+    public MatrixExpr map(DoubleUnaryOperator o) {
+        return new Unary(this, o);
+    }
+
+    // Binary
+
+    public MatrixExpr zip(MatrixExpr b, DoubleBinaryOperator o) {
+        return new Binary(this, b, o);
+    }
+
+    public MatrixExpr zip(Matrix<Double> b, DoubleBinaryOperator o) {
+        return zip(of(b), o);
+    }
+
+    public MatrixExpr zip(double b, DoubleBinaryOperator o) {
+        return zip(scalar(b), o);
+    }
+
+    public MatrixExpr add(MatrixExpr b) {
+        return zip(b, DoubleVectorKernel.ADD);
+    }
+
+    public MatrixExpr add(Matrix<Double> b) {
+        return zip(b, DoubleVectorKernel.ADD);
+    }
+
+    public MatrixExpr add(double b) {
+        return zip(b, DoubleVectorKernel.ADD);
+    }
+
+    public MatrixExpr sub(MatrixExpr b) {
+        return zip(b, DoubleVectorKernel.SUB);
+    }
+
+    public MatrixExpr sub(Matrix<Double> b) {
+        return zip(b, DoubleVectorKernel.SUB);
+    }
+
+    public MatrixExpr sub(double b) {
+        return zip(b, DoubleVectorKernel.SUB);
+    }
+
+    public MatrixExpr mul(MatrixExpr b) {
+        return zip(b, DoubleVectorKernel.MUL);
+    }
+
+    public MatrixExpr mul(Matrix<Double> b) {
+        return zip(b, DoubleVectorKernel.MUL);
+    }
+
+    public MatrixExpr mul(double b) {
+        return zip(b, DoubleVectorKernel.MUL);
+    }
+
+    public MatrixExpr div(MatrixExpr b) {
+        return zip(b, DoubleVectorKernel.DIV);
+    }
+
+    public MatrixExpr div(Matrix<Double> b) {
+        return zip(b, DoubleVectorKernel.DIV);
+    }
+
+    public MatrixExpr div(double b) {
+        return zip(b, DoubleVectorKernel.DIV);
+    }
+
+    // Ternary
+
+    public MatrixExpr zip(MatrixExpr b, MatrixExpr c, DoubleTernaryOperator o) {
+        return new Ternary(this, b, c, o);
+    }
+
+    public MatrixExpr zip(Matrix<Double> b, Matrix<Double> c, DoubleTernaryOperator o) {
+        return zip(of(b), of(c), o);
+    }
+
+    // Evaluation
+
+    public DoubleMatrix evaluate() {
+        DoubleMatrix r = Matrix.newDoubleMatrix(rows, columns);
+        evaluateInto(r);
+        return r;
+    }
+
+    public DoubleMatrix evaluate(SegmentAllocator allocator) {
+        DoubleMatrix r = Matrix.newDoubleMatrix(allocator, rows, columns);
+        evaluateInto(r);
+        return r;
+    }
+
+    public void evaluateInto(Matrix<Double> r) {
+        DoubleMatrix result = (DoubleMatrix) r;
+        if (rows != result.rows || columns != result.columns) {
+            throw new IllegalArgumentException(
+                    String.format("Mismatched matrices: expression(%d, %d) -> r(%d, %d)",
+                            rows, columns, result.rows, result.columns));
+        }
+
+        Program p = new Program(this);
+        long blocks = (rows + BLOCK - 1) / BLOCK;
+        long tasks = blocks * columns;
+        if (rows * columns > DoubleBroadcastKernel.PARALLEL_THRESHOLD) {
+            // Chunks of consecutive blocks, each evaluated with its own registers
+            long tasksPerChunk = Math.max(1, DoubleBroadcastKernel.PARALLEL_CHUNK_SIZE / BLOCK);
+            int chunks = Math.toIntExact((tasks + tasksPerChunk - 1) / tasksPerChunk);
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                try (Arena arena = Arena.ofConfined()) {
+                    MemorySegment[] registers = p.registers(arena);
+                    long end = Math.min(tasks, (c + 1) * tasksPerChunk);
+                    for (long t = c * tasksPerChunk; t < end; t++) {
+                        p.evaluateBlock(registers, result, t % blocks * BLOCK, t / blocks);
+                    }
+                }
+            });
+        } else {
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment[] registers = p.registers(arena);
+                for (long j = 0; j < columns; j++) {
+                    for (long i = 0; i < rows; i += BLOCK) {
+                        p.evaluateBlock(registers, result, i, j);
+                    }
+                }
+            }
+        }
+    }
+
+    // Reduces the elements of the expression, in column-major order, without materializing it
+    // Same as evaluating the expression and calling DoubleMatrix.reduction
+    public double reduce(DoubleBinaryOperator o) {
+        return reduce(DoubleMatrix.identity(o), o);
+    }
+
+    // The identity is the initial value of the reduction
+    // Parallel, the blocks are reduced in chunks, in column-major order, that are combined in order with the operator
+    // The identity is then the initial value of each chunk, and the operator must be associative
+    public double reduce(double identity, DoubleBinaryOperator o) {
+        Program p = new Program(this);
+        long blocks = (rows + BLOCK - 1) / BLOCK;
+        long tasks = blocks * columns;
+        if (rows * columns > DoubleBroadcastKernel.PARALLEL_THRESHOLD) {
+            long tasksPerChunk = Math.max(1, DoubleBroadcastKernel.PARALLEL_CHUNK_SIZE / BLOCK);
+            double[] partials = new double[Math.toIntExact((tasks + tasksPerChunk - 1) / tasksPerChunk)];
+            IntStream.range(0, partials.length).parallel().forEach(c -> {
+                try (Arena arena = Arena.ofConfined()) {
+                    MemorySegment[] registers = p.registers(arena);
+                    long end = Math.min(tasks, (c + 1) * tasksPerChunk);
+                    double acc = identity;
+                    for (long t = c * tasksPerChunk; t < end; t++) {
+                        acc = reduceBlock(p, registers, t % blocks * BLOCK, t / blocks, acc, o);
+                    }
+                    partials[c] = acc;
+                }
+            });
+
+            double acc = partials[0];
+            for (int c = 1; c < partials.length; c++) {
+                acc = o.applyAsDouble(acc, partials[c]);
+            }
+            return acc;
+        } else {
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment[] registers = p.registers(arena);
+                double acc = identity;
+                for (long j = 0; j < columns; j++) {
+                    for (long i = 0; i < rows; i += BLOCK) {
+                        acc = reduceBlock(p, registers, i, j, acc, o);
+                    }
+                }
+                return acc;
+            }
+        }
+    }
+
+    private static double reduceBlock(Program p, MemorySegment[] registers, long i, long j,
+                                      double acc, DoubleBinaryOperator o) {
+        int length = p.evaluateBlock(registers, i, j);
+        if (o instanceof DoubleBroadcastKernel.ReductionBroadcastKernel k) {
+            return o.applyAsDouble(acc, k.reduceBroadcastScalar(registers[0], 0, length));
+        } else {
+            return DoubleLoops.of(o).reduce(registers[0], 0, 1, 0, length, 1, acc, o);
+        }
+    }
+
+    public double sum() {
+        return reduce(DoubleVectorKernel.SUM);
+    }
+
+    // Nodes
+
+    // Returns true if this expression may be broadcast to the shape
+    final boolean isBroadcastableTo(long rows, long columns) {
+        return (this.rows == rows || this.rows == 1) && (this.columns == columns || this.columns == 1);
+    }
+
+    static long broadcastDimension(long a, long b) {
+        if (a == b || b == 1) {
+            return a;
+        } else if (a == 1) {
+            return b;
+        } else {
+            return -1;
+        }
+    }
+
+    static void fill(MemorySegment r, int length, double v) {
+        for (int k = 0; k < length; k++) {
+            r.setAtIndex(ValueLayout.JAVA_DOUBLE, k, v);
+        }
+    }
+
+    static final class Leaf extends MatrixExpr {
+        final DoubleMatrix m;
+
+        Leaf(DoubleMatrix m) {
+            super(m.rows, m.columns);
+            this.m = m;
+        }
+
+        // Loads the elements of rows [i, i + length) of column j, broadcast
+        void load(long i, long j, int length, MemorySegment r) {
+            long bj = columns == 1 ? 0 : j;
+            if (rows == 1) {
+                fill(r, length, m.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, m.linearIndex(0, bj)));
+            } else {
+                long index = m.linearIndex(i, bj);
+                if (m.rowStride == 1) {
+                    MemorySegment.copy(m.buffer, index * Double.BYTES, r, 0, length * Double.BYTES);
+                } else {
+                    for (int k = 0; k < length; k++) {
+                        r.setAtIndex(ValueLayout.JAVA_DOUBLE, k,
+                                m.buffer.getAtIndex(ValueLayout.JAVA_DOUBLE, index + k * m.rowStride));
+                    }
+                }
+            }
+        }
+    }
+
+    static final class Scalar extends MatrixExpr {
+        final double v;
+
+        Scalar(double v) {
+            super(1, 1);
+            this.v = v;
+        }
+    }
+
+    static final class Unary extends MatrixExpr {
+        final MatrixExpr a;
+        final DoubleUnaryOperator o;
+
+        Unary(MatrixExpr a, DoubleUnaryOperator o) {
+            super(a.rows, a.columns);
+            this.a = a;
+            this.o = o;
+        }
+
+        // r := o(r), in place
+        void apply(MemorySegment r, int length) {
+            if (o instanceof DoubleBroadcastKernel.UnaryBroadcastKernel k) {
+                k.unaryBroadcast(r, r, length);
+            } else {
+                DoubleLoops.of(o).unary(r, 0, 1, 0, r, 0, 1, 0, length, 1, o);
+            }
+        }
+    }
+
+    static final class Binary extends MatrixExpr {
+        final MatrixExpr a;
+        final MatrixExpr b;
+        final DoubleBinaryOperator o;
+
+        Binary(MatrixExpr a, MatrixExpr b, DoubleBinaryOperator o) {
+            super(broadcastDimension(a.rows, b.rows), broadcastDimension(a.columns, b.columns));
+            if (rows < 0 || columns < 0) {
+                throw new IllegalArgumentException(
+                        String.format("Mismatched matrices: a(%d, %d) x b(%d, %d)", a.rows, a.columns, b.rows, b.columns));
+            }
+            this.a = a;
+            this.b = b;
+            this.o = o;
+        }
+
+        // a := o(a, b), in place
+        void apply(MemorySegment a, MemorySegment b, int length) {
+            if (o instanceof DoubleBroadcastKernel.BinaryBinaryBroadcastKernel k) {
+                k.binaryBroadcastMatrix(a, b, a, length);
+            } else {
+                DoubleLoops.of(o).binary(a, 0, 1, 0, b, 0, 1, 0, a, 0, 1, 0, length, 1, o);
+            }
+        }
+    }
+
+    static final class Ternary extends MatrixExpr {
+        final MatrixExpr a;
+        final MatrixExpr b;
+        final MatrixExpr c;
+        final DoubleTernaryOperator o;
+
+        Ternary(MatrixExpr a, MatrixExpr b, MatrixExpr c, DoubleTernaryOperator o) {
+            super(broadcastDimension(broadcastDimension(a.rows, b.rows), c.rows),
+                    broadcastDimension(broadcastDimension(a.columns, b.columns), c.columns));
+            if (rows < 0 || columns < 0 ||
+                    !a.isBroadcastableTo(rows, columns) || !b.isBroadcastableTo(rows, columns)) {
+                throw new IllegalArgumentException(
+                        String.format("Mismatched matrices: a(%d, %d) x b(%d, %d) x c(%d, %d)",
+                                a.rows, a.columns, b.rows, b.columns, c.rows, c.columns));
+            }
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.o = o;
+        }
+
+        // a := o(a, b, c), in place
+        void apply(MemorySegment a, MemorySegment b, MemorySegment c, int length) {
+            if (o instanceof DoubleBroadcastKernel.TernaryBroadcastKernel k) {
+                k.binaryBroadcastMatrix(a, b, c, a, length);
+            } else {
+                DoubleLoops.of(o).ternary(a, 0, 1, 0, b, 0, 1, 0, c, 0, 1, 0, a, 0, 1, 0, length, 1, o);
+            }
+        }
+    }
+
+    /*
+    The tree in post-order, evaluated on a stack of registers holding blocks
+
+    A leaf pushes a register, a unary operation updates the top register, and a binary or ternary operation
+    pops its operands and pushes its result, updating the register of its first operand in place.
+    The depth of the stack is the number of registers required.
+     */
+    static final class Program {
+        final long rows;
+        final MatrixExpr[] nodes;
+        final int depth;
+
+        Program(MatrixExpr e) {
+            this.rows = e.rows;
+            List<MatrixExpr> l = new ArrayList<>();
+            int[] depth = new int[1];
+            postOrder(e, l, 0, depth);
+            this.nodes = l.toArray(MatrixExpr[]::new);
+            this.depth = depth[0];
+        }
+
+        // s is the depth of the stack before the node is evaluated
+        private static void postOrder(MatrixExpr e, List<MatrixExpr> l, int s, int[] depth) {
+            switch (e) {
+                case Leaf _, Scalar _ -> depth[0] = Math.max(depth[0], s + 1);
+                case Unary u -> postOrder(u.a, l, s, depth);
+                case Binary b -> {
+                    postOrder(b.a, l, s, depth);
+                    postOrder(b.b, l, s + 1, depth);
+                }
+                case Ternary t -> {
+                    postOrder(t.a, l, s, depth);
+                    postOrder(t.b, l, s + 1, depth);
+                    postOrder(t.c, l, s + 2, depth);
+                }
+            }
+            l.add(e);
+        }
+
+        // Off-heap, since the Vector API loads and stores doubles from native or byte[] segments only
+        MemorySegment[] registers(Arena arena) {
+            MemorySegment[] registers = new MemorySegment[depth];
+            for (int k = 0; k < depth; k++) {
+                registers[k] = arena.allocate(MemoryLayout.sequenceLayout(BLOCK, ValueLayout.JAVA_DOUBLE));
+            }
+            return registers;
+        }
+
+        // Evaluates rows [i, i + BLOCK) of column j into the first register, returning the number of rows
+        int evaluateBlock(MemorySegment[] registers, long i, long j) {
+            int length = (int) Math.min(BLOCK, rows - i);
+            int s = 0;
+            for (MatrixExpr n : nodes) {
+                switch (n) {
+                    case Leaf l -> l.load(i, j, length, registers[s++]);
+                    case Scalar c -> fill(registers[s++], length, c.v);
+                    case Unary u -> u.apply(registers[s - 1], length);
+                    case Binary b -> {
+                        s -= 1;
+                        b.apply(registers[s - 1], registers[s], length);
+                    }
+                    case Ternary t -> {
+                        s -= 2;
+                        t.apply(registers[s - 1], registers[s], registers[s + 1], length);
+                    }
+                }
+            }
+            return length;
+        }
+
+        // Evaluates rows [i, i + BLOCK) of column j and stores them into r
+        void evaluateBlock(MemorySegment[] registers, DoubleMatrix r, long i, long j) {
+            int length = evaluateBlock(registers, i, j);
+            MemorySegment block = registers[0];
+            long index = r.linearIndex(i, j);
+            if (r.rowStride == 1) {
+                MemorySegment.copy(block, 0, r.buffer, index * Double.BYTES, length * Double.BYTES);
+            } else {
+                for (int k = 0; k < length; k++) {
+                    r.buffer.setAtIndex(ValueLayout.JAVA_DOUBLE, index + k * r.rowStride,
+                            block.getAtIndex(ValueLayout.JAVA_DOUBLE, k));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import oracle.blis.binding.blis_h;
+import oracle.blis.binding.obj_t;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayDeque;
+
+/**
+ * A pool of reusable double matrices, for temporaries that are needed repeatedly in hot loops.
+ * <p>
+ * A matrix is leased from the pool and returned when the lease is closed, ideally with try-with-resources:
+ * <pre>{@code
+ * try (var t = pool.lease(rows, columns)) {
+ *     DoubleMatrix m = t.matrix();
+ *     ...
+ * }
+ * }</pre>
+ * Buffers are pooled in buckets whose capacity is a power of two number of elements, and a buffer in a bucket is
+ * reused for any shape that fits. The buffer and obj_t of a returned matrix are reused by the next lease from the
+ * same bucket. If the shape is the same the same matrix instance is also reused, otherwise the obj_t is
+ * re-initialized in place. The elements of a leased matrix are not initialized.
+ * <p>
+ * Each thread has a small cache of returned leases per bucket, that overflows to a free list shared by all threads.
+ * The shared free list is striped to reduce contention.
+ * <p>
+ * A matrix must not be used after its lease is closed. The memory of all matrices is freed when the pool is closed.
+ */
+public final class MatrixPool implements AutoCloseable {
+    // Smallest bucket, 64 elements
+    static final int MIN_BUCKET = 6;
+    // Largest bucket, 2^31 elements
+    static final int MAX_BUCKET = 31;
+
+    // Number of leases cached per thread for each bucket
+    static final int THREAD_CACHE_SIZE = 4;
+
+    static final int STRIPES = Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors(), 16));
+
+    // Matrices derived from pooled matrices, such as a transpose, are allocated from an automatic arena,
+    // since they must not accumulate in the arena of the pool
+    static final SegmentAllocator DERIVED_ALLOCATOR = (byteSize, byteAlignment) ->
+            Arena.ofAuto().allocate(byteSize, byteAlignment);
+
+    // A pooled buffer and obj_t, and the matrix currently attached to them
+    public final class Lease implements AutoCloseable {
+        final int bucket;
+        final MemorySegment buffer;
+        final MemorySegment obj;
+        DoubleMatrix matrix;
+        boolean leased;
+
+        Lease(int bucket, MemorySegment buffer, MemorySegment obj) {
+            this.bucket = bucket;
+            this.buffer = buffer;
+            this.obj = obj;
+        }
+
+        public DoubleMatrix matrix() {
+            if (!leased) {
+                throw new IllegalStateException("Lease is closed");
+            }
+            return matrix;
+        }
+
+        @Override
+        public void close() {
+            if (!leased) {
+                throw new IllegalStateException("Lease is closed");
+            }
+            leased = false;
+            release(this);
+        }
+    }
+
+    // Per thread stacks of leases, one per bucket
+    static final class ThreadCache {
+        final Lease[][] leases = new Lease[MAX_BUCKET + 1][THREAD_CACHE_SIZE];
+        final int[] sizes = new int[MAX_BUCKET + 1];
+    }
+
+    final Arena arena;
+    // Free lists per bucket and stripe
+    final ArrayDeque<Lease>[][] free;
+    final ThreadLocal<ThreadCache> cache = ThreadLocal.withInitial(ThreadCache::new);
+    volatile boolean closed;
+
+    @SuppressWarnings("unchecked")
+    public MatrixPool() {
+        this.arena = Arena.ofShared();
+        this.free = new ArrayDeque[MAX_BUCKET + 1][STRIPES];
+        for (ArrayDeque<Lease>[] stripes : free) {
+            for (int s = 0; s < STRIPES; s++) {
+                stripes[s] = new ArrayDeque<>();
+            }
+        }
+    }
+
+    public Lease lease(long rows, long columns) {
+        if (closed) {
+            throw new IllegalStateException("Pool is closed");
+        }
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        long n = Math.multiplyExact(rows, columns);
+        int bucket = bucket(n);
+        Lease l = acquire(bucket);
+        l.leased = true;
+
+        DoubleMatrix m = l.matrix;
+        if (m != null && m.rows == rows && m.columns == columns) {
+            // Reset the only property that may be updated in place
+            obj_t.diag_off(l.obj, 0);
+        } else {
+            // Re-initialize the obj_t in place for the shape, column-major order
+            MemorySegment buffer = l.buffer.asSlice(0, n * Double.BYTES);
+            blis_h.bli_obj_create_with_attached_buffer(
+                    blis_h.BLIS_DOUBLE(),
+                    rows, columns,
+                    buffer,
+                    1, rows,
+                    l.obj);
+            l.matrix = new DoubleMatrix(DERIVED_ALLOCATOR, l.obj, buffer);
+        }
+        return l;
+    }
+
+    static int bucket(long n) {
+        int bucket = Math.max(MIN_BUCKET, 64 - Long.numberOfLeadingZeros(Math.max(n, 1) - 1));
+        if (bucket > MAX_BUCKET) {
+            throw new IllegalArgumentException("Matrix too large to pool: " + n + " elements");
+        }
+        return bucket;
+    }
+
+    private Lease acquire(int bucket) {
+        // Thread cache
+        ThreadCache tc = cache.get();
+        int size = tc.sizes[bucket];
+        if (size > 0) {
+            Lease[] leases = tc.leases[bucket];
+            Lease l = leases[--size];
+            leases[size] = null;
+            tc.sizes[bucket] = size;
+            return l;
+        }
+
+        // Shared free list, starting with the stripe of this thread
+        ArrayDeque<Lease>[] stripes = free[bucket];
+        int s = stripe();
+        for (int i = 0; i < STRIPES; i++) {
+            ArrayDeque<Lease> q = stripes[(s + i) & (STRIPES - 1)];
+            synchronized (q) {
+                Lease l = q.pollLast();
+                if (l != null) {
+                    return l;
+                }
+            }
+        }
+
+        // Allocate
+        MemorySegment buffer = arena.allocate((1L << bucket) * Double.BYTES, ValueLayout.JAVA_DOUBLE.byteAlignment());
+        MemorySegment obj = obj_t.allocate(arena);
+        return new Lease(bucket, buffer, obj);
+    }
+
+    private void release(Lease l) {
+        if (closed) {
+            return;
+        }
+
+        ThreadCache tc = cache.get();
+        int size = tc.sizes[l.bucket];
+        if (size < THREAD_CACHE_SIZE) {
+            tc.leases[l.bucket][size] = l;
+            tc.sizes[l.bucket] = size + 1;
+            return;
+        }
+
+        ArrayDeque<Lease> q = free[l.bucket][stripe()];
+        synchronized (q) {
+            q.addLast(l);
+        }
+    }
+
+    private static int stripe() {
+        long id = Thread.currentThread().threadId();
+        return (int) (id ^ (id >>> 16)) & (STRIPES - 1);
+    }
+
+    // Frees the memory of all matrices, leased or not
+    @Override
+    public void close() {
+        closed = true;
+        arena.close();
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads and writes double matrices in the NumPy {@code .npy} format.
+ * <p>
+ * Only arrays of float64 elements in native byte order, with one or two dimensions, are supported.
+ * A one dimensional array is a column vector.
+ * <p>
+ * Reading maps the file into memory without copying. A Fortran order array is a column-major matrix,
+ * and a C order array is a row-major matrix. Writing always writes a Fortran order array.
+ */
+public final class Npy {
+    static final byte[] MAGIC = {(byte) 0x93, 'N', 'U', 'M', 'P', 'Y'};
+
+    // The total length of the preamble and header is padded to a multiple of this alignment,
+    // so the elements are aligned
+    static final int HEADER_ALIGNMENT = 64;
+
+    static final String DESCR = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? "<f8" : ">f8";
+
+    static final Pattern DESCR_PATTERN = Pattern.compile("'descr'\\s*:\\s*'([^']*)'");
+    static final Pattern FORTRAN_ORDER_PATTERN = Pattern.compile("'fortran_order'\\s*:\\s*(True|False)");
+    static final Pattern SHAPE_PATTERN = Pattern.compile("'shape'\\s*:\\s*\\(([^)]*)\\)");
+
+    private Npy() {
+    }
+
+    public static MappedDoubleMatrix read(Arena arena, Path path) throws IOException {
+        return read(arena, path, FileChannel.MapMode.READ_ONLY);
+    }
+
+    public static MappedDoubleMatrix read(Arena arena, Path path, FileChannel.MapMode mode) throws IOException {
+        if (mode != FileChannel.MapMode.READ_ONLY && mode != FileChannel.MapMode.READ_WRITE) {
+            throw new IllegalArgumentException("Unsupported map mode " + mode);
+        }
+
+        try (FileChannel fc = mode == FileChannel.MapMode.READ_ONLY
+                ? FileChannel.open(path, StandardOpenOption.READ)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MemorySegment mapped = fc.map(mode, 0, fc.size(), arena);
+
+            // Preamble
+            if (mapped.byteSize() < MAGIC.length + 4 ||
+                    MemorySegment.mismatch(mapped, 0, MAGIC.length, MemorySegment.ofArray(MAGIC), 0, MAGIC.length) != -1) {
+                throw new IOException("Not a .npy file: " + path);
+            }
+            int major = mapped.get(ValueLayout.JAVA_BYTE, 6);
+            long headerOffset;
+            long headerLength;
+            if (major == 1) {
+                headerOffset = 10;
+                headerLength = Short.toUnsignedLong(mapped.get(ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN), 8));
+            } else if (major == 2 || major == 3) {
+                headerOffset = 12;
+                headerLength = Integer.toUnsignedLong(mapped.get(ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN), 8));
+            } else {
+                throw new IOException("Unsupported .npy version " + major);
+            }
+            long dataOffset = headerOffset + headerLength;
+            if (dataOffset > mapped.byteSize()) {
+                throw new IOException("Truncated .npy header: " + path);
+            }
+
+            // Header, a Python dictionary literal
+            String header = new String(mapped.asSlice(headerOffset, headerLength).toArray(ValueLayout.JAVA_BYTE),
+                    StandardCharsets.ISO_8859_1);
+            String descr = group(DESCR_PATTERN, header, path);
+            if (!descr.equals(DESCR) && !descr.equals("=f8")) {
+                throw new IOException("Unsupported dtype " + descr);
+            }
+            boolean fortranOrder = group(FORTRAN_ORDER_PATTERN, header, path).equals("True");
+            long[] shape = parseShape(group(SHAPE_PATTERN, header, path), path);
+            long rows = shape.length > 0 ? shape[0] : 1;
+            long columns = shape.length > 1 ? shape[1] : 1;
+
+            try {
+                if (Math.addExact(dataOffset,
+                        Math.multiplyExact(Math.multiplyExact(rows, columns), (long) Double.BYTES)) > mapped.byteSize()) {
+                    throw new IOException("Truncated .npy elements: " + path);
+                }
+            } catch (ArithmeticException e) {
+                throw new IOException("Elements overflow the file: " + path, e);
+            }
+            return fortranOrder
+                    ? MappedDoubleMatrix.map(arena, mapped, dataOffset, rows, columns, 1, rows)
+                    : MappedDoubleMatrix.map(arena, mapped, dataOffset, rows, columns, columns, 1);
+        }
+    }
+
+    public static void write(Matrix<Double> m, Path path) throws IOException {
+        DoubleMatrix a = (DoubleMatrix) m;
+
+        String dict = String.format("{'descr': '%s', 'fortran_order': True, 'shape': (%d, %d), }",
+                DESCR, a.rows, a.columns);
+        // Pad with spaces, terminated with a new line, to the alignment
+        int preambleLength = MAGIC.length + 2 + 2;
+        int length = preambleLength + dict.length() + 1;
+        int padding = (HEADER_ALIGNMENT - length % HEADER_ALIGNMENT) % HEADER_ALIGNMENT;
+        String header = dict + " ".repeat(padding) + "\n";
+
+        ByteBuffer preamble = ByteBuffer.allocate(preambleLength + header.length()).order(ByteOrder.LITTLE_ENDIAN);
+        preamble.put(MAGIC);
+        preamble.put((byte) 1);
+        preamble.put((byte) 0);
+        preamble.putShort((short) header.length());
+        preamble.put(header.getBytes(StandardCharsets.ISO_8859_1));
+        preamble.flip();
+
+        try (FileChannel fc = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(fc, preamble);
+
+            if (a.rowStride == 1 && a.columnStride == a.rows) {
+                // Contiguous columns, without gaps between them
+                long index = a.linearIndex(0, 0);
+                writeFully(fc, a.buffer.asSlice(index * Double.BYTES, a.rows * a.columns * Double.BYTES));
+            } else if (a.rowStride == 1) {
+                // Contiguous columns
+                for (long j = 0; j < a.columns; j++) {
+                    long index = a.linearIndex(0, j);
+                    writeFully(fc, a.buffer.asSlice(index * Double.BYTES, a.rows * Double.BYTES));
+                }
+            } else {
+                // Gather each column, into bytes since a ByteBuffer view requires a byte[] backed segment
+                double[] column = new double[Math.toIntExact(a.rows)];
+                MemorySegment bytes = MemorySegment.ofArray(new byte[column.length * Double.BYTES]);
+                for (long j = 0; j < a.columns; j++) {
+                    a.copyColumnInto(j, column, 0);
+                    MemorySegment.copy(column, 0, bytes, ValueLayout.JAVA_DOUBLE_UNALIGNED, 0, column.length);
+                    writeFully(fc, bytes);
+                }
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel fc, MemorySegment s) throws IOException {
+        // Write in chunks, since a ByteBuffer view is limited to Integer.MAX_VALUE bytes
+        long chunk = Integer.MAX_VALUE & ~(Double.BYTES - 1);
+        for (long offset = 0; offset < s.byteSize(); offset += chunk) {
+            writeFully(fc, s.asSlice(offset, Math.min(chunk, s.byteSize() - offset)).asByteBuffer());
+        }
+    }
+
+    private static void writeFully(FileChannel fc, ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) {
+            fc.write(b);
+        }
+    }
+
+    private static String group(Pattern p, String header, Path path) throws IOException {
+        Matcher m = p.matcher(header);
+        if (!m.find()) {
+            throw new IOException("Malformed .npy header: " + path);
+        }
+        return m.group(1);
+    }
+
+    private static long[] parseShape(String s, Path path) throws IOException {
+        String[] dims = s.split(",");
+        int n = 0;
+        long[] shape = new long[dims.length];
+        for (String d : dims) {
+            d = d.strip();
+            if (!d.isEmpty()) {
+                try {
+                    shape[n] = Long.parseLong(d);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed .npy header: " + path, e);
+                }
+                if (shape[n] < 0) {
+                    throw new IOException("Negative dimension " + shape[n] + ": " + path);
+                }
+                n++;
+            }
+        }
+        if (n > 2) {
+            throw new IOException("Unsupported number of dimensions " + n);
+        }
+        return Arrays.copyOf(shape, n);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import oracle.blis.binding.blis_h;
+import oracle.blis.binding.rntm_t;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * A BLIS runtime, controlling how many threads BLIS uses for a level-3 operation, either as a total number of
+ * threads or as the ways of parallelism of each loop of the operation.
+ * <p>
+ * A runtime is bound to the current thread for the duration of a scope, and the level-3 operations of
+ * {@link BlisOperations} called from the thread in that scope pass it to the {@code _ex} variants of BLIS.
+ * Otherwise, BLIS uses its global settings, from the environment.
+ * <pre>{@code
+ * try (var s = Rntm.ofThreads(4).bind()) {
+ *     BLI.gemm(alpha, a, b, beta, c);
+ * }
+ * }</pre>
+ * BLIS copies a runtime on each call, so a runtime may be used by many threads at once.
+ */
+public final class Rntm {
+    // Loop indexes of thrloop
+    static final int JC = 0;
+    static final int PC = 1;
+    static final int IC = 2;
+    static final int JR = 3;
+    static final int IR = 4;
+    static final int KR = 5;
+
+    private static final ThreadLocal<Rntm> CURRENT = new ThreadLocal<>();
+
+    // Runtimes of a total number of threads, cached for reuse by thread budgets
+    private static final int CACHED_THREADS = 256;
+    private static final Rntm[] OF_THREADS = new Rntm[CACHED_THREADS + 1];
+
+    final MemorySegment rntm;
+
+    private Rntm(MemorySegment rntm) {
+        this.rntm = rntm;
+    }
+
+    // Equivalent to BLIS_RNTM_INITIALIZER, which is a macro
+    private static MemorySegment newRntm_t() {
+        MemorySegment rntm = rntm_t.allocate(Arena.ofAuto());
+        rntm_t.auto_factor(rntm, true);
+        rntm_t.num_threads(rntm, -1);
+        MemorySegment thrloop = rntm_t.thrloop(rntm);
+        for (long i = 0; i < thrloop.byteSize() / Long.BYTES; i++) {
+            thrloop.setAtIndex(ValueLayout.JAVA_LONG, i, -1);
+        }
+        rntm_t.pack_a(rntm, false);
+        rntm_t.pack_b(rntm, false);
+        rntm_t.l3_sup(rntm, true);
+        return rntm;
+    }
+
+    // Equivalent to bli_rntm_set_num_threads, which is an inline function
+    public static Rntm ofThreads(long threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be at least 1");
+        }
+        if (threads <= CACHED_THREADS) {
+            // Racy initialization is benign, a runtime is immutable
+            Rntm r = OF_THREADS[(int) threads];
+            if (r == null) {
+                r = OF_THREADS[(int) threads] = newOfThreads(threads);
+            }
+            return r;
+        }
+        return newOfThreads(threads);
+    }
+
+    private static Rntm newOfThreads(long threads) {
+        MemorySegment rntm = newRntm_t();
+        rntm_t.num_threads(rntm, threads);
+        return new Rntm(rntm);
+    }
+
+    // Equivalent to bli_rntm_set_ways, which is an inline function
+    public static Rntm ofWays(long jc, long pc, long ic, long jr, long ir) {
+        if (jc < 1 || pc < 1 || ic < 1 || jr < 1 || ir < 1) {
+            throw new IllegalArgumentException("Ways of parallelism must be at least 1");
+        }
+        MemorySegment rntm = newRntm_t();
+        MemorySegment thrloop = rntm_t.thrloop(rntm);
+        thrloop.setAtIndex(ValueLayout.JAVA_LONG, JC, jc);
+        thrloop.setAtIndex(ValueLayout.JAVA_LONG, PC, pc);
+        thrloop.setAtIndex(ValueLayout.JAVA_LONG, IC, ic);
+        thrloop.setAtIndex(ValueLayout.JAVA_LONG, JR, jr);
+        thrloop.setAtIndex(ValueLayout.JAVA_LONG, IR, ir);
+        thrloop.setAtIndex(ValueLayout.JAVA_LONG, KR, 1);
+        return new Rntm(rntm);
+    }
+
+    public static Rntm singleThreaded() {
+        return ofThreads(1);
+    }
+
+    // Total number of threads, the product of the ways of parallelism if specified per loop
+    public long threads() {
+        long threads = rntm_t.num_threads(rntm);
+        if (threads > 0) {
+            return threads;
+        }
+        MemorySegment thrloop = rntm_t.thrloop(rntm);
+        return thrloop.getAtIndex(ValueLayout.JAVA_LONG, JC) *
+                thrloop.getAtIndex(ValueLayout.JAVA_LONG, PC) *
+                thrloop.getAtIndex(ValueLayout.JAVA_LONG, IC) *
+                thrloop.getAtIndex(ValueLayout.JAVA_LONG, JR) *
+                thrloop.getAtIndex(ValueLayout.JAVA_LONG, IR);
+    }
+
+    // Total number of threads of the global settings of BLIS, used if no runtime is bound
+    // A loop whose ways of parallelism are not set is computed by one thread
+    static long globalThreads() {
+        long threads = blis_h.bli_thread_get_num_threads();
+        if (threads > 0) {
+            return threads;
+        }
+        return Math.max(1, blis_h.bli_thread_get_jc_nt()) *
+                Math.max(1, blis_h.bli_thread_get_pc_nt()) *
+                Math.max(1, blis_h.bli_thread_get_ic_nt()) *
+                Math.max(1, blis_h.bli_thread_get_jr_nt()) *
+                Math.max(1, blis_h.bli_thread_get_ir_nt());
+    }
+
+    // Binds this runtime to the current thread until the scope is closed, when the previously
+    // bound runtime, if any, is restored
+    public Scope bind() {
+        Scope s = new Scope(CURRENT.get());
+        CURRENT.set(this);
+        return s;
+    }
+
+    public static final class Scope implements AutoCloseable {
+        final Rntm previous;
+        final Thread thread;
+
+        Scope(Rntm previous) {
+            this.previous = previous;
+            this.thread = Thread.currentThread();
+        }
+
+        @Override
+        public void close() {
+            if (Thread.currentThread() != thread) {
+                throw new IllegalStateException("Scope closed by a different thread");
+            }
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    // Returns the runtime bound to the current thread, if any
+    public static Rntm current() {
+        return CURRENT.get();
+    }
+
+    // Returns the rntm_t to pass to an _ex variant, NULL if no runtime is bound so that BLIS uses
+    // its global settings
+    static MemorySegment currentRntm_t() {
+        Rntm r = CURRENT.get();
+        return r == null ? MemorySegment.NULL : r.rntm;
+    }
+}
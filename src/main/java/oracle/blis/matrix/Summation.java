@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.stream.IntStream;
+
+/**
+ * Algorithms for summing the elements of a double matrix, trading speed for accuracy.
+ * <p>
+ * The elements are summed in chunks, in parallel for large matrices, and the sums of the chunks are summed with the
+ * same algorithm. The chunks do not depend on the parallelism, so a sum is the same whether it is computed in
+ * parallel or not.
+ */
+public enum Summation {
+    // Accumulates in the lanes of a vector, the error grows linearly with the number of elements
+    NAIVE {
+        @Override
+        double sum(MemorySegment a, long offset, long length) {
+            return DoubleVectorKernel.SUM.reduceBroadcastScalar(a, offset, length);
+        }
+
+        @Override
+        double sumStrided(MemorySegment a, long offset, long stride, long length) {
+            double acc = 0.0;
+            for (long i = 0; i < length; i++) {
+                acc += a.getAtIndex(ValueLayout.JAVA_DOUBLE, offset + i * stride);
+            }
+            return acc;
+        }
+    },
+    // Recursively sums the halves of a region, the error grows with the logarithm of the number of elements
+    PAIRWISE {
+        @Override
+        double sum(MemorySegment a, long offset, long length) {
+            if (length <= PAIRWISE_BLOCK) {
+                return NAIVE.sum(a, offset, length);
+            }
+            // Split on a multiple of the vector length
+            long half = (length / 2) & -SPECIES.length();
+            return sum(a, offset, half) + sum(a, offset + half, length - half);
+        }
+
+        @Override
+        double sumStrided(MemorySegment a, long offset, long stride, long length) {
+            if (length <= PAIRWISE_BLOCK) {
+                return NAIVE.sumStrided(a, offset, stride, length);
+            }
+            long half = length / 2;
+            return sumStrided(a, offset, stride, half) + sumStrided(a, offset + half * stride, stride, length - half);
+        }
+    },
+    // Kahan's compensated summation, the error is independent of the number of elements
+    KAHAN {
+        @Override
+        double sum(MemorySegment a, long offset, long length) {
+            DoubleVector sumV = DoubleVector.zero(SPECIES);
+            DoubleVector cV = DoubleVector.zero(SPECIES);
+            long i = 0;
+            for (long upperBound = length - length % SPECIES.length(); i < upperBound; i += SPECIES.length()) {
+                DoubleVector yV = DoubleVector.fromMemorySegment(SPECIES, a, (offset + i) * Double.BYTES,
+                        ByteOrder.nativeOrder()).sub(cV);
+                DoubleVector tV = sumV.add(yV);
+                cV = tV.sub(sumV).sub(yV);
+                sumV = tV;
+            }
+
+            // Sum the lanes, subtracting their compensations, then the tail
+            double[] sums = sumV.toArray();
+            double[] cs = cV.toArray();
+            double sum = 0.0;
+            double c = 0.0;
+            for (int l = 0; l < sums.length; l++) {
+                double y = (sums[l] - cs[l]) - c;
+                double t = sum + y;
+                c = (t - sum) - y;
+                sum = t;
+            }
+            for (; i < length; i++) {
+                double y = a.getAtIndex(ValueLayout.JAVA_DOUBLE, offset + i) - c;
+                double t = sum + y;
+                c = (t - sum) - y;
+                sum = t;
+            }
+            return sum;
+        }
+
+        @Override
+        double sumStrided(MemorySegment a, long offset, long stride, long length) {
+            double sum = 0.0;
+            double c = 0.0;
+            for (long i = 0; i < length; i++) {
+                double y = a.getAtIndex(ValueLayout.JAVA_DOUBLE, offset + i * stride) - c;
+                double t = sum + y;
+                c = (t - sum) - y;
+                sum = t;
+            }
+            return sum;
+        }
+    };
+
+    static final VectorSpecies<Double> SPECIES = DoubleVectorKernel.SPECIES;
+
+    // Region that pairwise summation sums naively
+    static final long PAIRWISE_BLOCK = 256;
+
+    // Sums a contiguous region
+    abstract double sum(MemorySegment a, long offset, long length);
+
+    // Sums a strided region, with scalar operations
+    abstract double sumStrided(MemorySegment a, long offset, long stride, long length);
+
+    double sum(DoubleMatrix m) {
+        // The matrix as lines, columns or rows, with contiguous elements if possible
+        long lines, length, lineStride, stride;
+        if (m.rowStride == 1) {
+            lines = m.columns;
+            length = m.rows;
+            lineStride = m.columnStride;
+            stride = 1;
+        } else if (m.columnStride == 1) {
+            lines = m.rows;
+            length = m.columns;
+            lineStride = m.rowStride;
+            stride = 1;
+        } else {
+            lines = m.columns;
+            length = m.rows;
+            lineStride = m.columnStride;
+            stride = m.rowStride;
+        }
+        if (stride == 1 && lineStride == length) {
+            // Dense, one line
+            length *= lines;
+            lines = 1;
+        }
+        if (lines == 0 || length == 0) {
+            return 0.0;
+        }
+
+        // Each task sums a chunk of a line, or a group of whole lines
+        long chunk = DoubleBroadcastKernel.PARALLEL_CHUNK_SIZE;
+        long chunksPerLine = (length + chunk - 1) / chunk;
+        long linesPerTask = Math.max(1, chunk / length);
+        int tasks = Math.toIntExact(chunksPerLine > 1
+                ? lines * chunksPerLine
+                : (lines + linesPerTask - 1) / linesPerTask);
+
+        long base = m.linearIndex(0, 0);
+        long fLines = lines;
+        long fLength = length;
+        long fLineStride = lineStride;
+        long fStride = stride;
+        double[] partials = new double[tasks];
+        IntStream s = IntStream.range(0, tasks);
+        if (lines * length > DoubleBroadcastKernel.PARALLEL_THRESHOLD) {
+            s = s.parallel();
+        }
+        s.forEach(t -> {
+            if (chunksPerLine > 1) {
+                long line = t / chunksPerLine;
+                long start = (t % chunksPerLine) * chunk;
+                long offset = base + line * fLineStride + start * fStride;
+                partials[t] = sumLine(m.buffer, offset, fStride, Math.min(chunk, fLength - start));
+            } else {
+                long from = t * linesPerTask;
+                long to = Math.min(fLines, from + linesPerTask);
+                double[] lineSums = new double[(int) (to - from)];
+                for (long line = from; line < to; line++) {
+                    lineSums[(int) (line - from)] = sumLine(m.buffer, base + line * fLineStride, fStride, fLength);
+                }
+                partials[t] = sumStrided(MemorySegment.ofArray(lineSums), 0, 1, lineSums.length);
+            }
+        });
+        return sumStrided(MemorySegment.ofArray(partials), 0, 1, tasks);
+    }
+
+    private double sumLine(MemorySegment a, long offset, long stride, long length) {
+        return stride == 1 ? sum(a, offset, length) : sumStrided(a, offset, stride, length);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package oracle.blis.matrix;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * A budget of threads shared by concurrent callers of BLIS, so that together they do not use more threads
+ * than there are cores.
+ * <p>
+ * A caller acquires a grant of up to the number of threads it would like, and BLIS operations called by the
+ * caller while the grant is open use the granted number of threads:
+ * <pre>{@code
+ * try (var g = budget.acquire(16)) {
+ *     BLI.gemm(alpha, a, b, beta, c);
+ * }
+ * }</pre>
+ * A grant is of at least one thread. If the budget is exhausted, acquiring blocks until a thread is released,
+ * otherwise it grants as many of the threads that are available as were asked for.
+ */
+public final class ThreadBudget {
+    final int threads;
+    final Semaphore available;
+
+    public ThreadBudget(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be at least 1");
+        }
+        this.threads = threads;
+        this.available = new Semaphore(threads);
+    }
+
+    public static ThreadBudget ofAvailableProcessors() {
+        return new ThreadBudget(Runtime.getRuntime().availableProcessors());
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    public int available() {
+        return available.availablePermits();
+    }
+
+    public Grant acquire(int desired) throws InterruptedException {
+        if (desired < 1) {
+            throw new IllegalArgumentException("Number of threads must be at least 1");
+        }
+
+        available.acquire();
+        int granted = 1;
+        if (desired > 1) {
+            // Take what else is available, and return the surplus
+            int drained = available.drainPermits();
+            int extra = Math.min(drained, desired - 1);
+            if (drained > extra) {
+                available.release(drained - extra);
+            }
+            granted += extra;
+        }
+        return new Grant(granted);
+    }
+
+    public final class Grant implements AutoCloseable {
+        final int threads;
+        final Rntm.Scope scope;
+        boolean closed;
+
+        Grant(int threads) {
+            this.threads = threads;
+            this.scope = Rntm.ofThreads(threads).bind();
+        }
+
+        public int threads() {
+            return threads;
+        }
+
+        // Unbinds the runtime and returns the threads to the budget
+        // If the runtime cannot be unbound, such as when closed by a thread other than the owner, the grant
+        // stays open, so that the owner can still close it and return the threads
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            scope.close();
+            closed = true;
+            available.release(threads);
+        }
+    }
+}
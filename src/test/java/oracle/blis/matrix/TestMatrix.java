@@ -23,9 +23,39 @@
 
 package oracle.blis.matrix;
 
+import oracle.blis.binding.blis_h;
+import oracle.blis.binding.obj_t;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.lang.foreign.Arena;
 import java.lang.foreign.ValueLayout;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 public class TestMatrix {
 
@@ -131,6 +161,1308 @@ public class TestMatrix {
         m.print();
     }
 
+    @Test
+    public void testVectorKernels() {
+        // Dimensions such that the number of elements is not a multiple of the vector length
+        var a = DoubleMatrix.newDoubleMatrix(37, 5);
+        a.randm();
+        var b = DoubleMatrix.newDoubleMatrix(37, 5);
+        b.randm();
+        var c = DoubleMatrix.newDoubleMatrix(37, 5);
+        c.randm();
+
+        var expected = DoubleMatrix.newDoubleMatrix(37, 5);
+        var actual = DoubleMatrix.newDoubleMatrix(37, 5);
+
+        a.elementwise(expected, v -> Math.abs(v));
+        a.elementwise(actual, DoubleVectorKernel.ABS);
+        assertTrue(expected.equals(actual));
+
+        a.elementwise(b, expected, (x, y) -> x * y);
+        a.elementwise(b, actual, DoubleVectorKernel.MUL);
+        assertTrue(expected.equals(actual));
+
+        a.elementwise(b, c, expected, (x, y, z) -> Math.fma(x, y, z));
+        a.elementwise(b, c, actual, DoubleVectorKernel.FMA);
+        assertTrue(expected.equals(actual));
+
+        var rowVector = DoubleMatrix.newDoubleMatrix(1, 5);
+        rowVector.randm();
+        a.elementwise(rowVector, expected, (x, y) -> x - y);
+        a.elementwise(rowVector, actual, DoubleVectorKernel.SUB);
+        assertTrue(expected.equals(actual));
+
+        assertEquals(a.reduction(Double::sum), a.reduction(DoubleVectorKernel.SUM), 1e-12);
+    }
+
+    @Test
+    public void testParallelKernels() {
+        // Number of elements larger than the parallel threshold and not a multiple of the chunk size
+        var a = DoubleMatrix.newDoubleMatrix(1001, 200);
+        a.randm();
+        var b = DoubleMatrix.newDoubleMatrix(1001, 200);
+        b.randm();
+
+        var expected = DoubleMatrix.newDoubleMatrix(1001, 200);
+        var actual = DoubleMatrix.newDoubleMatrix(1001, 200);
+
+        a.elementwise(expected, v -> v * 2);
+        a.elementwise(actual, new DoubleBroadcastKernel.ParallelUnaryBroadcastKernel(true) {
+            @Override
+            public double applyAsDouble(double v) {
+                return v * 2;
+            }
+        });
+        assertTrue(expected.equals(actual));
+
+        a.elementwise(b, expected, (x, y) -> x + y);
+        a.elementwise(b, actual, DoubleVectorKernel.add(true));
+        assertTrue(expected.equals(actual));
+    }
+
+    @Test
+    public void testViewKernels() {
+        var m = DoubleMatrix.newDoubleMatrix(12, 7);
+        m.randm();
+        var n = DoubleMatrix.newDoubleMatrix(12, 7);
+        n.randm();
+        var a = m.subMatrix(1, 2, 10, 4);
+        var b = n.subMatrix(2, 1, 10, 4);
+
+        var expected = DoubleMatrix.newDoubleMatrix(10, 4);
+        var actual = DoubleMatrix.newDoubleMatrix(14, 6).subMatrix(3, 1, 10, 4);
+
+        a.elementwise(b, expected, (x, y) -> x * y);
+        a.elementwise(b, actual, DoubleVectorKernel.MUL);
+        assertTrue(expected.equals(actual));
+
+        var rowVector = n.subMatrix(5, 2, 1, 4);
+        a.elementwise(rowVector, expected, (x, y) -> x - y);
+        a.elementwise(rowVector, actual, DoubleVectorKernel.SUB);
+        assertTrue(expected.equals(actual));
+
+        a.elementwise(rowVector, rowVector, expected, (x, y, z) -> Math.fma(x, y, z));
+        a.elementwise(rowVector, rowVector, actual, DoubleVectorKernel.FMA);
+        assertTrue(expected.equals(actual));
+
+        a.elementwise(expected, v -> Math.abs(v));
+        a.elementwise(actual, DoubleVectorKernel.ABS);
+        assertTrue(expected.equals(actual));
+    }
+
+    @Test
+    public void testTranspose() {
+        // Large enough to be transposed in parallel, with partial tiles and micro-tiles
+        var m = DoubleMatrix.newDoubleMatrix(301, 259);
+        m.randm();
+
+        var t = m.transpose();
+        assertEquals(m.columns(), t.rows());
+        assertEquals(m.rows(), t.columns());
+        m.forEach((i, j, v) -> assertEquals(v, t.get(j, i), 0.0));
+
+        // Transpose of a view into a view
+        var v = m.subMatrix(3, 5, 37, 22);
+        var vt = DoubleMatrix.newDoubleMatrix(30, 45).subMatrix(1, 2, 22, 37);
+        v.transpose(vt);
+        v.forEach((i, j, e) -> assertEquals(e, vt.get(j, i), 0.0));
+
+        // Square, in place
+        var s = m.subMatrix(0, 0, 259, 259);
+        var expected = s.transpose();
+        s.transposeInPlace();
+        assertTrue(expected.equals(s));
+    }
+
+    @Test
+    public void testTransposeView() {
+        var m = DoubleMatrix.newDoubleMatrix(10, 4);
+        m.randm();
+
+        var t = m.withTransOnly(Matrix.Trans.TRANSPOSE);
+        assertEquals(Matrix.Trans.TRANSPOSE, t.transOnly());
+        assertEquals(4, t.rows());
+        assertEquals(10, t.columns());
+        assertTrue(m.transpose().equals(t));
+
+        // Views of a transposed view
+        var st = t.subMatrix(1, 2, 3, 5);
+        st.forEach((i, j, v) -> assertEquals(m.get(j + 2, i + 1), v, 0.0));
+        var n = t.withTransOnly(Matrix.Trans.NO_TRANSPOSE);
+        assertTrue(m.equals(n));
+
+        // Elementwise operations honour the transpose, and update the stored matrix
+        var r = DoubleMatrix.newDoubleMatrix(4, 10);
+        t.elementwise(r, DoubleVectorKernel.NEG);
+        r.forEach((i, j, v) -> assertEquals(-m.get(j, i), v, 0.0));
+        t.elementwise(r, t, DoubleVectorKernel.ADD);
+        m.forEach((i, j, v) -> assertEquals(0.0, v, 0.0));
+    }
+
+    @Test
+    public void testViewObj() {
+        var m = DoubleMatrix.newDoubleMatrix(10, 4);
+        m.randm();
+
+        // Views of views, materialized only when passed to BLIS
+        var sm = m.subMatrix(1, 1, 8, 3).subMatrix(2, 1, 4, 2);
+        var r = DoubleMatrix.newDoubleMatrix(4, 2);
+        sm.copyInto(r);
+        r.forEach((i, j, v) -> assertEquals(m.get(i + 3, j + 2), v, 0.0));
+
+        var t = sm.withTransOnly(Matrix.Trans.TRANSPOSE);
+        var rt = DoubleMatrix.newDoubleMatrix(2, 4);
+        t.copyInto(rt);
+        assertTrue(r.transpose().equals(rt));
+
+        // Materialized obj_t of a view
+        var o = t.obj();
+        assertEquals(Matrix.Trans.TRANSPOSE.v, obj_t.info(o) & blis_h.BLIS_TRANS_BIT());
+        assertEquals(3, obj_t.off(o).getAtIndex(ValueLayout.JAVA_LONG, 0));
+        assertEquals(2, obj_t.off(o).getAtIndex(ValueLayout.JAVA_LONG, 1));
+        assertEquals(4, obj_t.dim(o).getAtIndex(ValueLayout.JAVA_LONG, 0));
+        assertEquals(2, obj_t.dim(o).getAtIndex(ValueLayout.JAVA_LONG, 1));
+
+        // Diagonal offset set on a view is inherited by its views
+        sm.setDiagOffset(1);
+        assertEquals(1, sm.diagOffset());
+        assertEquals(1, sm.withStruc(Matrix.Structure.TRIANGULAR).diagOffset());
+        assertEquals(0, m.diagOffset());
+    }
+
+    @Test
+    public void testBulkCopy() {
+        double[] a = new double[10 * 4];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i;
+        }
+        var m = Matrix.newDoubleMatrix(10, 4, a);
+        m.forEach((i, j, v) -> assertEquals(i + j * 10, v, 0.0));
+        assertArrayEquals(a, m.toArray(), 0.0);
+
+        // Column and row copies of a view
+        var v = m.subMatrix(2, 1, 5, 3);
+        double[] column = new double[5];
+        v.copyColumnInto(1, column, 0);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(m.get(i + 2, 2), column[i], 0.0);
+        }
+        double[] row = new double[4];
+        v.copyRowInto(3, row, 1);
+        for (int j = 0; j < 3; j++) {
+            assertEquals(m.get(5, j + 1), row[j + 1], 0.0);
+        }
+
+        v.copyRowFrom(0, new double[]{-1, -2, -3}, 0);
+        assertEquals(-3, m.get(2, 3), 0.0);
+        v.copyColumnFrom(0, new double[]{-4, -5, -6, -7, -8}, 0);
+        assertEquals(-8, m.get(6, 1), 0.0);
+
+        // Row copies between matrices, and into a transposed view
+        var t = Matrix.newDoubleMatrix(4, 10).withTransOnly(Matrix.Trans.TRANSPOSE);
+        m.copyRowInto(6, t, 2);
+        for (int j = 0; j < 4; j++) {
+            assertEquals(m.get(6, j), t.get(2, j), 0.0);
+        }
+
+        var n = Matrix.newDoubleMatrix(5, 3);
+        n.copyFrom(v.toArray());
+        assertTrue(n.equals(v));
+    }
+
+    @Test
+    public void testMappedMatrix() throws IOException {
+        Path p = Files.createTempFile("matrix", ".blis");
+        try {
+            var expected = DoubleMatrix.newDoubleMatrix(10, 4);
+            expected.randm();
+
+            try (Arena a = Arena.ofConfined()) {
+                var mm = MappedDoubleMatrix.create(a, p, 10, 4);
+                expected.copyInto(mm.matrix());
+                mm.force();
+            }
+
+            try (Arena a = Arena.ofConfined()) {
+                var mm = MappedDoubleMatrix.open(a, p, FileChannel.MapMode.READ_ONLY);
+                assertTrue(mm.isReadOnly());
+                mm.advise(MappedDoubleMatrix.Advice.SEQUENTIAL);
+                assertTrue(expected.equals(mm.matrix()));
+            }
+
+            // Corrupt headers: negative rows, zero row stride, and strides overflowing the extent
+            for (long[] header : new long[][]{{-1, 4, 1, 10}, {10, 4, 0, 10}, {10, 4, 1, Long.MAX_VALUE / 2}}) {
+                try (FileChannel fc = FileChannel.open(p, StandardOpenOption.WRITE)) {
+                    ByteBuffer b = ByteBuffer.allocate(4 * Long.BYTES).order(ByteOrder.nativeOrder());
+                    for (long v : header) {
+                        b.putLong(v);
+                    }
+                    fc.write(b.flip(), 16);
+                }
+                try (Arena a = Arena.ofConfined()) {
+                    assertThrows(IOException.class, () -> MappedDoubleMatrix.open(a, p, FileChannel.MapMode.READ_ONLY));
+                }
+            }
+
+            // Negative and overflowing dimensions, rejected before the file is replaced
+            long size = Files.size(p);
+            for (long[] dims : new long[][]{{-1, 4}, {-10, -4}, {Long.MAX_VALUE / 4, 4}}) {
+                try (Arena a = Arena.ofConfined()) {
+                    assertThrows(IllegalArgumentException.class, () -> MappedDoubleMatrix.create(a, p, dims[0], dims[1]));
+                }
+            }
+            assertEquals(size, Files.size(p));
+        } finally {
+            Files.delete(p);
+        }
+    }
+
+    @Test
+    public void testNpy() throws IOException {
+        Path p = Files.createTempFile("matrix", ".npy");
+        try {
+            var expected = DoubleMatrix.newDoubleMatrix(10, 4);
+            expected.randm();
+
+            // Fortran order
+            Npy.write(expected, p);
+            assertEquals(0, (Files.size(p) - 10 * 4 * Double.BYTES) % 64);
+            try (Arena a = Arena.ofConfined()) {
+                var mm = Npy.read(a, p);
+                assertEquals(1, mm.matrix().rowStride());
+                assertTrue(expected.equals(mm.matrix()));
+            }
+
+            // Transposed view, strided columns that are gathered
+            var t = expected.withTransOnly(Matrix.Trans.TRANSPOSE);
+            assertEquals(10, t.rowStride());
+            Npy.write(t, p);
+            try (Arena a = Arena.ofConfined()) {
+                assertTrue(expected.transpose().equals(Npy.read(a, p).matrix()));
+            }
+
+            // Sub-matrix view, contiguous columns with gaps between them
+            var sm = expected.subMatrix(1, 1, 8, 2);
+            assertEquals(1, sm.rowStride());
+            assertEquals(10, sm.columnStride());
+            Npy.write(sm, p);
+            try (Arena a = Arena.ofConfined()) {
+                var m = Npy.read(a, p).matrix();
+                assertEquals(8, m.rows());
+                assertEquals(2, m.columns());
+                assertTrue(sm.equals(m));
+            }
+
+            // Transposed sub-matrix view, strided rows and columns
+            var tsm = sm.withTransOnly(Matrix.Trans.TRANSPOSE);
+            Npy.write(tsm, p);
+            try (Arena a = Arena.ofConfined()) {
+                var m = Npy.read(a, p).matrix();
+                assertEquals(2, m.rows());
+                assertEquals(8, m.columns());
+                assertTrue(tsm.equals(m));
+            }
+
+            // C order
+            writeNpy(p, "(2, 3)", 6);
+            try (Arena a = Arena.ofConfined()) {
+                var m = Npy.read(a, p).matrix();
+                assertEquals(2, m.rows());
+                assertEquals(3, m.columns());
+                assertEquals(5.0, m.get(1, 2), 0.0);
+                assertEquals(1.0, m.get(0, 1), 0.0);
+            }
+
+            // Negative, overflowing and malformed shapes
+            for (String shape : List.of("(-2, -3)", "(-1,)", "(4611686018427387904, 4)", "(2x, 3)")) {
+                writeNpy(p, shape, 6);
+                try (Arena a = Arena.ofConfined()) {
+                    assertThrows(IOException.class, () -> Npy.read(a, p));
+                }
+            }
+        } finally {
+            Files.delete(p);
+        }
+    }
+
+    // A C order .npy file with the shape, whose elements are 0, 1, ...
+    static void writeNpy(Path p, String shape, int elements) throws IOException {
+        String header = "{'descr': '<f8', 'fortran_order': False, 'shape': " + shape + ", }";
+        header = header + " ".repeat(128 - 10 - header.length() - 1) + "\n";
+        ByteBuffer b = ByteBuffer.allocate(128 + elements * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        b.put(new byte[]{(byte) 0x93, 'N', 'U', 'M', 'P', 'Y', 1, 0});
+        b.putShort((short) header.length());
+        b.put(header.getBytes(StandardCharsets.ISO_8859_1));
+        for (int i = 0; i < elements; i++) {
+            b.putDouble(i);
+        }
+        Files.write(p, b.array());
+    }
+
+    @Test
+    public void testMatrixPool() throws Exception {
+        try (MatrixPool pool = new MatrixPool()) {
+            DoubleMatrix m;
+            long address;
+            try (var t = pool.lease(10, 4)) {
+                m = t.matrix();
+                address = m.buffer().address();
+                m.randm();
+                assertTrue(m.equals(m.transpose().transpose()));
+            }
+
+            // Same shape reuses the matrix
+            try (var t = pool.lease(10, 4)) {
+                assertTrue(m == t.matrix());
+            }
+
+            // Same bucket reuses the buffer
+            try (var t = pool.lease(4, 16)) {
+                assertEquals(address, t.matrix().buffer().address());
+                assertEquals(4, t.matrix().rows());
+                assertEquals(16, t.matrix().columns());
+
+                try (var u = pool.lease(4, 16)) {
+                    assertTrue(address != u.matrix().buffer().address());
+                }
+            }
+
+            // Leases returned on other threads are reused
+            IntStream.range(0, 1000).parallel().forEach(i -> {
+                try (var t = pool.lease(i % 7 + 1, 100)) {
+                    t.matrix().elementwise(e -> i);
+                    assertEquals(i, t.matrix().get(0, 99), 0.0);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testFloatMatrix() {
+        float[] a = new float[10 * 4];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i;
+        }
+        var m = FloatMatrix.newFloatMatrix(10, 4, a);
+        assertEquals(13.0f, m.get(3, 1), 0.0f);
+        assertArrayEquals(a, m.toArray(), 0.0f);
+
+        var r = FloatMatrix.newFloatMatrix(10, 4);
+        m.elementwise(r, FloatVectorKernel.NEG);
+        m.elementwise(r, r, FloatVectorKernel.ADD);
+        r.forEach((i, j, v) -> assertEquals(0.0f, v, 0.0f));
+
+        m.elementwise(m, r, (x, y) -> x * y);
+        r.forEach((i, j, v) -> assertEquals(m.get(i, j) * m.get(i, j), v, 0.0f));
+
+        assertEquals(39 * 40 / 2, m.sum(), 0.0f);
+        assertEquals(39 * 40 / 2, m.reduction(FloatVectorKernel.SUM), 0.0f);
+
+        var t = m.transpose();
+        assertTrue(m.withTransOnly(Matrix.Trans.TRANSPOSE).equals(t));
+        var sm = t.subMatrix(1, 2, 2, 3);
+        sm.forEach((i, j, v) -> assertEquals(m.get(j + 2, i + 1), v, 0.0f));
+    }
+
+    @Test
+    public void testFloatOperations() {
+        var fa = Matrix.newFloatMatrix(10, 64);
+        fa.randm();
+        var fb = Matrix.newFloatMatrix(64, 6);
+        fb.randm();
+        var da = DoubleMatrix.newDoubleMatrix(10, 64);
+        da.setEach((i, j, v) -> fa.get(i, j));
+        var db = DoubleMatrix.newDoubleMatrix(64, 6);
+        db.setEach((i, j, v) -> fb.get(i, j));
+        var expected = product(da, db);
+
+        var fc = Matrix.newFloatMatrix(10, 6);
+        BLI.gemm(Matrix.one(), fa, fb, Matrix.zero(), fc);
+        fc.forEach((i, j, v) -> assertEquals(expected.get(i, j), v, 1e-4));
+
+        // A transposed operand and a view of the result
+        var fat = fa.transpose().withTransOnly(Matrix.Trans.TRANSPOSE);
+        var fcs = Matrix.newFloatMatrix(12, 8).subMatrix(1, 2, 10, 6);
+        BLI.gemm(Matrix.one(), fat, fb, Matrix.zero(), fcs);
+        fcs.forEach((i, j, v) -> assertEquals(expected.get(i, j), v, 1e-4));
+
+        var fx = fb.subMatrix(0, 1, 64, 1);
+        var fy = Matrix.newFloatMatrix(10, 1);
+        BLI.gemv(Matrix.one(), fa, fx, Matrix.zero(), fy);
+        fy.forEach((i, j, v) -> assertEquals(expected.get(i, 1), v, 1e-4));
+
+        // Reductions of zero-offset views with padded strides
+        var m = Matrix.newFloatMatrix(100, 3);
+        m.setEach((i, j, v) -> 10 + i + j);
+        var sm = m.subMatrix(0, 0, 50, 2);
+        assertEquals(10, sm.reduction(FloatVectorKernel.MIN_REDUCTION), 0.0f);
+        assertEquals(60, sm.reduction(FloatVectorKernel.MAX_REDUCTION), 0.0f);
+        assertEquals(5, sm.reduction(5, FloatVectorKernel.MIN_REDUCTION), 0.0f);
+        assertEquals(50 * 10 + 50 * 11 + 49 * 50, sm.reduction(FloatVectorKernel.SUM), 0.0f);
+        var c = Matrix.newFloatMatrix(2, 3);
+        var sc = c.subMatrix(0, 0, 1, 2);
+        sm.reductionColumn(sc, FloatVectorKernel.MAX_REDUCTION);
+        sc.forEach((i, j, v) -> assertEquals(59 + j, v, 0.0f));
+        sm.reductionColumn(sc, 60, FloatVectorKernel.MAX_REDUCTION);
+        sc.forEach((i, j, v) -> assertEquals(60, v, 0.0f));
+        assertEquals(0, c.get(0, 2), 0.0f);
+        var rm = m.transpose().withTransOnly(Matrix.Trans.TRANSPOSE).subMatrix(0, 0, 50, 2);
+        var r = Matrix.newFloatMatrix(2, 50).withTransOnly(Matrix.Trans.TRANSPOSE).subMatrix(0, 0, 50, 1);
+        rm.reductionRow(r, FloatVectorKernel.MIN_REDUCTION);
+        r.forEach((i, j, v) -> assertEquals(10 + i, v, 0.0f));
+        rm.reductionRow(r, FloatVectorKernel.SUM);
+        r.forEach((i, j, v) -> assertEquals(21 + 2 * i, v, 0.0f));
+        // Column-major rows are reduced by the fallback, seeded with the identity of the kernel
+        sm.reductionRow(r, FloatVectorKernel.MAX_REDUCTION);
+        r.forEach((i, j, v) -> assertEquals(11 + i, v, 0.0f));
+        sm.reductionRow(r, 12, FloatVectorKernel.MIN_REDUCTION);
+        r.forEach((i, j, v) -> assertEquals(Math.min(12, 10 + i), v, 0.0f));
+
+        // Broadcasts over views with an offset
+        var b = m.subMatrix(1, 1, 20, 2);
+        var row = Matrix.newFloatMatrix(1, 2, new float[]{-12, -13});
+        var col = Matrix.newFloatMatrix(1, 30).withTransOnly(Matrix.Trans.TRANSPOSE).subMatrix(3, 0, 20, 1);
+        col.setEach((i, j, v) -> -i);
+        var br = Matrix.newFloatMatrix(30, 4).subMatrix(5, 1, 20, 2);
+        b.elementwise(row, br, FloatVectorKernel.ADD);
+        br.forEach((i, j, v) -> assertEquals(i, v, 0.0f));
+        b.elementwise(col, br, FloatVectorKernel.ADD);
+        br.forEach((i, j, v) -> assertEquals(12 + j, v, 0.0f));
+        b.elementwise(col, col, br, FloatVectorKernel.FMA);
+        br.forEach((i, j, v) -> assertEquals(b.get(i, j) * -i - i, v, 0.0f));
+        assertThrows(IllegalArgumentException.class,
+                () -> b.elementwise(Matrix.newFloatMatrix(2, 2), br, FloatVectorKernel.ADD));
+
+        // Concatenation and transposes shared with the other matrices
+        var cat = Matrix.newFloatMatrix(2, 40).withTransOnly(Matrix.Trans.TRANSPOSE);
+        b.concatVertically(br, cat);
+        cat.forEach((i, j, v) -> assertEquals(i < 20 ? b.get(i, j) : br.get(i - 20, j), v, 0.0f));
+        var catT = cat.transpose();
+        cat.forEach((i, j, v) -> assertEquals(v, catT.get(j, i), 0.0f));
+    }
+
+    @Test
+    public void testMixedPrecision() {
+        var a = Matrix.newMatrix(Matrix.DataType.FLOAT, 10, 4);
+        var b = Matrix.newMatrix(Matrix.DataType.FLOAT, 4, 6);
+        var c = Matrix.newMatrix(Matrix.DataType.DOUBLE, 10, 6);
+        assertEquals(Matrix.DataType.FLOAT, a.dataType());
+        assertEquals(Matrix.DataType.DOUBLE, c.dataType());
+        assertEquals(Matrix.DataType.CONSTANT, Matrix.one().dataType());
+
+        assertEquals(Matrix.Precision.SINGLE, a.computationPrecision());
+        assertEquals(Matrix.Precision.DOUBLE, c.computationPrecision());
+        var cs = c.withComputationPrecision(Matrix.Precision.SINGLE);
+        assertEquals(Matrix.Precision.SINGLE, cs.computationPrecision());
+        assertEquals(Matrix.DataType.DOUBLE, cs.dataType());
+
+        // Mixed datatypes are accepted, mismatched operands are rejected before reaching BLIS
+        BlisOperations.checkGemm(Matrix.one(), a, b, Matrix.zero(), c);
+        assertThrows(IllegalArgumentException.class,
+                () -> BLI.gemm(Matrix.one(), a, a, Matrix.zero(), c));
+        assertThrows(IllegalArgumentException.class,
+                () -> BLI.gemm(Matrix.one(), a, b, c, c));
+        assertThrows(IllegalArgumentException.class,
+                () -> BLI.gemm(Matrix.one(), Matrix.one(), Matrix.one(), Matrix.zero(), Matrix.one()));
+
+        // Products of single precision operands, compared with the double precision product of the same values
+        var fa = Matrix.newFloatMatrix(10, 64);
+        fa.randm();
+        var fb = Matrix.newFloatMatrix(64, 6);
+        fb.randm();
+        var da = DoubleMatrix.newDoubleMatrix(10, 64);
+        da.setEach((i, j, v) -> fa.get(i, j));
+        var db = DoubleMatrix.newDoubleMatrix(64, 6);
+        db.setEach((i, j, v) -> fb.get(i, j));
+        var expected = product(da, db);
+
+        // fp32 x fp32 -> fp64, computed in the double precision of C
+        var dc = DoubleMatrix.newDoubleMatrix(10, 6);
+        BLI.gemm(Matrix.one(), fa, fb, Matrix.zero(), dc);
+        assertTrue(expected.equals(dc, 1e-12));
+
+        // fp32 x fp32 -> fp64, computed in single precision
+        var dcs = DoubleMatrix.newDoubleMatrix(10, 6);
+        BLI.gemm(Matrix.one(), fa, fb, Matrix.zero(), dcs, Matrix.Precision.SINGLE);
+        assertTrue(expected.equals(dcs, 1e-4));
+
+        // fp32 x fp32 -> fp32, accumulated in double precision
+        var fc = Matrix.newFloatMatrix(10, 6);
+        BLI.gemm(Matrix.one(), fa, fb, Matrix.zero(), fc, Matrix.Precision.DOUBLE);
+        fc.forEach((i, j, v) -> assertEquals(expected.get(i, j), v, 1e-5));
+    }
+
+    @Test
+    public void testComplexMatrix() {
+        double[] a = new double[3 * 2 * 2];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i;
+        }
+        var m = Matrix.newComplexDoubleMatrix(3, 2, a);
+        assertEquals(Matrix.DataType.DCOMPLEX, m.dataType());
+        assertEquals(new ComplexDouble(8, 9), m.get(1, 1));
+        assertArrayEquals(a, m.toArray(), 0.0);
+
+        // Conjugate transpose view
+        var h = m.withConjTrans(Matrix.Trans.CONJ_TRANSPOSE);
+        assertEquals(2, h.rows());
+        assertEquals(3, h.columns());
+        h.forEach((i, j, v) -> assertEquals(m.get(j, i).conj(), v));
+        h.set(0, 2, 1, 1);
+        assertEquals(new ComplexDouble(1, -1), m.get(2, 0));
+
+        var r = Matrix.newComplexDoubleMatrix(3, 2);
+        m.elementwise(m.withConjTrans(Matrix.Trans.CONJ_NO_TRANSPOSE), r, ComplexDouble::mul);
+        r.forEach((i, j, v) -> {
+            assertEquals(m.get(i, j).abs() * m.get(i, j).abs(), v.re(), 1e-9);
+            assertEquals(0.0, v.im(), 0.0);
+        });
+
+        var t = m.transpose();
+        t.forEach((i, j, v) -> assertEquals(m.get(j, i), v));
+        assertEquals(m.sum(), t.reduction(ComplexDouble::add));
+
+        var f = Matrix.newComplexFloatMatrix(2, 2, new float[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertEquals(Matrix.DataType.SCOMPLEX, f.dataType());
+        assertEquals(new ComplexFloat(5, -6), f.withConjTrans(Matrix.Trans.CONJ_TRANSPOSE).get(1, 0));
+    }
+
+    @Test
+    public void testGemmBatch() {
+        int n = 20;
+        var as = new DoubleMatrix[n];
+        var bs = new DoubleMatrix[n];
+        var cs = new DoubleMatrix[n];
+        for (int i = 0; i < n; i++) {
+            as[i] = DoubleMatrix.newDoubleMatrix(8, 4);
+            as[i].randm();
+            bs[i] = DoubleMatrix.newDoubleMatrix(4, 6);
+            bs[i].randm();
+            cs[i] = DoubleMatrix.newDoubleMatrix(8, 6);
+        }
+        BLI.gemmBatch(new Matrix<?>[]{Matrix.one()}, as, bs, new Matrix<?>[]{Matrix.zero()}, cs);
+        for (int i = 0; i < n; i++) {
+            assertTrue(product(as[i], bs[i]).equals(cs[i], 1e-12));
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> BLI.gemmBatch(new Matrix<?>[]{Matrix.one()}, as, bs, new Matrix<?>[]{Matrix.zero()},
+                        Arrays.copyOf(cs, n - 1)));
+
+        // Items stacked vertically in the columns of one buffer
+        var a = DoubleMatrix.newDoubleMatrix(8, 4 * n);
+        a.randm();
+        var b = DoubleMatrix.newDoubleMatrix(4, 6 * n);
+        b.randm();
+        var c = DoubleMatrix.newDoubleMatrix(8, 6 * n);
+        BLI.gemmStridedBatch(Matrix.one(),
+                a.subMatrix(0, 0, 8, 4), 8 * 4,
+                b.subMatrix(0, 0, 4, 6), 4 * 6,
+                Matrix.zero(),
+                c.subMatrix(0, 0, 8, 6), 8 * 6,
+                n);
+        for (int i = 0; i < n; i++) {
+            var expected = product(a.subMatrix(0, 4 * i, 8, 4), b.subMatrix(0, 6 * i, 4, 6));
+            assertTrue(expected.equals(c.subMatrix(0, 6 * i, 8, 6), 1e-12));
+        }
+
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> BLI.gemmStridedBatch(Matrix.one(),
+                        a.subMatrix(0, 0, 8, 4), 8 * 4,
+                        b.subMatrix(0, 0, 4, 6), 4 * 6,
+                        Matrix.zero(),
+                        c.subMatrix(0, 0, 8, 6), 8 * 6,
+                        n + 1));
+
+        // Empty A and B items, with a stride beyond the buffer that no element is accessed at, scale C by beta
+        var ce = DoubleMatrix.newDoubleMatrix(8, 6 * 2);
+        ce.setEach((i, j, v) -> 1.0);
+        BLI.gemmStridedBatch(Matrix.one(),
+                a.subMatrix(0, 0, 8, 0), 1 << 20,
+                b.subMatrix(0, 0, 0, 6), 1 << 20,
+                Matrix.zero(),
+                ce.subMatrix(0, 0, 8, 6), 8 * 6,
+                2);
+        ce.forEach((i, j, v) -> assertEquals(0.0, v, 0.0));
+    }
+
+    @Test
+    public void testThreading() throws InterruptedException {
+        assertEquals(4, Rntm.ofThreads(4).threads());
+        assertEquals(2 * 3 * 4, Rntm.ofWays(2, 1, 3, 4, 1).threads());
+        assertTrue(Rntm.ofThreads(4) == Rntm.ofThreads(4));
+
+        assertTrue(Rntm.current() == null);
+        try (var s = Rntm.ofThreads(4).bind()) {
+            try (var t = Rntm.singleThreaded().bind()) {
+                assertEquals(1, Rntm.current().threads());
+            }
+            assertEquals(4, Rntm.current().threads());
+
+            var a = DoubleMatrix.newDoubleMatrix(8, 4);
+            a.randm();
+            var b = DoubleMatrix.newDoubleMatrix(4, 6);
+            b.randm();
+            var c = DoubleMatrix.newDoubleMatrix(8, 6);
+            BLI.gemm(Matrix.one(), a, b, Matrix.zero(), c);
+            assertTrue(product(a, b).equals(c, 1e-12));
+        }
+        assertTrue(Rntm.current() == null);
+
+        var budget = new ThreadBudget(4);
+        try (var g = budget.acquire(3)) {
+            assertEquals(3, g.threads());
+            assertEquals(3, Rntm.current().threads());
+            try (var h = budget.acquire(16)) {
+                assertEquals(1, h.threads());
+                assertEquals(0, budget.available());
+            }
+            assertEquals(3, Rntm.current().threads());
+            assertEquals(1, budget.available());
+        }
+        assertEquals(4, budget.available());
+        assertTrue(Rntm.current() == null);
+
+        // Closing from another thread fails and keeps the grant open, the owner still returns the threads
+        var g = budget.acquire(2);
+        assertThrows(CompletionException.class, () -> CompletableFuture.runAsync(g::close).join());
+        assertEquals(2, budget.available());
+        assertEquals(2, Rntm.current().threads());
+        g.close();
+        assertEquals(4, budget.available());
+        assertTrue(Rntm.current() == null);
+    }
+
+    @Test
+    public void testMatrixExpr() {
+        var a = DoubleMatrix.newDoubleMatrix(1000, 3);
+        a.randm();
+        var b = DoubleMatrix.newDoubleMatrix(1000, 3);
+        b.randm();
+        var c = DoubleMatrix.newDoubleMatrix(1, 3);
+        c.randm();
+
+        // a * b + c, with c broadcast over the rows, then abs
+        var r = a.expr().mul(b).add(c).map(DoubleVectorKernel.ABS).evaluate();
+        r.forEach((i, j, v) -> assertEquals(Math.abs(a.get(i, j) * b.get(i, j) + c.get(0, j)), v, 0.0));
+
+        // Non-kernel operators, a transposed leaf, and evaluation into a leaf
+        var t = a.transpose();
+        var s = MatrixExpr.of(t.withTransOnly(Matrix.Trans.TRANSPOSE))
+                .zip(b, (x, y) -> x - y)
+                .map(x -> x * 2);
+        double sum = s.sum();
+        var e = DoubleMatrix.newDoubleMatrix(b.rows(), b.columns());
+        b.copyInto(e);
+        s.evaluateInto(b);
+        b.forEach((i, j, v) -> assertEquals((a.get(i, j) - e.get(i, j)) * 2, v, 0.0));
+        assertEquals(b.sum(), sum, 1e-9);
+
+        var f = a.expr().zip(MatrixExpr.scalar(0.5), a.expr(), DoubleVectorKernel.FMA).evaluate();
+        f.forEach((i, j, v) -> assertEquals(a.get(i, j) * 0.5 + a.get(i, j), v, 1e-15));
+
+        // Large enough to evaluate in parallel, with a column-vector broadcast
+        var l = DoubleMatrix.newDoubleMatrix(700, 300);
+        l.randm();
+        var v = DoubleMatrix.newDoubleMatrix(700, 1);
+        v.randm();
+        var lr = l.expr().sub(v).mul(2.0).evaluate();
+        lr.forEach((i, j, x) -> assertEquals((l.get(i, j) - v.get(i, 0)) * 2.0, x, 0.0));
+        assertEquals(lr.sum(), l.expr().sub(v).mul(2.0).sum(), 1e-9 * lr.rows() * lr.columns());
+        assertEquals(lr.reduction(DoubleVectorKernel.MAX_REDUCTION),
+                l.expr().sub(v).mul(2.0).reduce(DoubleVectorKernel.MAX_REDUCTION), 0.0);
+        assertEquals(lr.reduction(Double.NEGATIVE_INFINITY, Math::max),
+                l.expr().sub(v).mul(2.0).reduce(Double.NEGATIVE_INFINITY, Math::max), 0.0);
+
+        assertThrows(IllegalArgumentException.class, () -> a.expr().add(DoubleMatrix.newDoubleMatrix(2, 3)));
+        assertThrows(IllegalArgumentException.class, () -> a.expr().evaluateInto(c));
+    }
+
+    @Test
+    public void testSpecializedLoops() {
+        DoubleUnaryOperator f = x -> x + 1;
+        DoubleUnaryOperator g = x -> x * 2;
+        assertTrue(DoubleLoops.of(f) == DoubleLoops.of(f));
+        assertTrue(DoubleLoops.of(f) != DoubleLoops.of(g));
+        assertTrue(DoubleLoops.of(f).getClass().isHidden());
+
+        // Strided, so the operators are not applied by kernels
+        var a = DoubleMatrix.newDoubleMatrix(7, 5);
+        a.setEach((i, j, v) -> i * 10 + j);
+        var t = a.transpose();
+        var r = DoubleMatrix.newDoubleMatrix(7, 5);
+        t.withTransOnly(Matrix.Trans.TRANSPOSE).elementwise(r, f);
+        r.forEach((i, j, v) -> assertEquals(i * 10 + j + 1, v, 0.0));
+        r.elementwise(a.subMatrix(0, 0, 1, 5), (x, y) -> x - y);
+        r.forEach((i, j, v) -> assertEquals(i * 10 + 1, v, 0.0));
+        assertEquals(t.sum(), t.reduction((x, y) -> x + y), 0.0);
+
+        // Float loops are specialized in the same way
+        FloatUnaryOperator ff = x -> x + 1;
+        assertTrue(FloatLoops.of(ff) == FloatLoops.of(ff));
+        assertTrue(FloatLoops.of(ff).getClass().isHidden());
+        var fa = FloatMatrix.newFloatMatrix(7, 5);
+        fa.setEach((i, j, v) -> i * 10 + j);
+        var fr = FloatMatrix.newFloatMatrix(7, 5);
+        fa.transpose().withTransOnly(Matrix.Trans.TRANSPOSE).elementwise(fr, ff);
+        fr.forEach((i, j, v) -> assertEquals(i * 10 + j + 1, v, 0.0f));
+        fr.elementwise(fa.subMatrix(0, 0, 1, 5), (x, y) -> x - y);
+        fr.forEach((i, j, v) -> assertEquals(i * 10 + 1, v, 0.0f));
+        assertEquals(fr.sum(), fr.transpose().withTransOnly(Matrix.Trans.TRANSPOSE).reduction((x, y) -> x + y), 0.0f);
+    }
+
+    @Test
+    public void testParallelReduction() {
+        // Large enough to sum in parallel
+        var a = DoubleMatrix.newDoubleMatrix(1 << 10, 1 << 9);
+        a.elementwise(x -> 0.1);
+        double exact = new BigDecimal(0.1).multiply(BigDecimal.valueOf(a.rows() * a.columns())).doubleValue();
+        assertEquals(exact, a.sum(Summation.KAHAN), 0.0);
+        assertEquals(exact, a.sum(Summation.PAIRWISE), Math.ulp(exact) * 16);
+        assertTrue(Math.abs(exact - a.sum(Summation.KAHAN)) <= Math.abs(exact - a.sum(Summation.NAIVE)));
+        assertEquals(0.1, a.mean(Summation.KAHAN), 1e-16);
+
+        // Strided, and in the order of the rows
+        var t = a.transpose().withTransOnly(Matrix.Trans.TRANSPOSE);
+        assertEquals(exact, t.sum(Summation.KAHAN), 0.0);
+        assertEquals(exact, a.subMatrix(0, 0, a.rows(), a.columns()).sum(Summation.KAHAN), 0.0);
+
+        var b = DoubleMatrix.newDoubleMatrix(1000, 300);
+        b.setEach((i, j, v) -> i + j * 1000);
+        double n = b.rows() * b.columns();
+        assertEquals(n * (n - 1) / 2, b.reduction(0.0, (x, y) -> x + y, Double::sum), 0.0);
+        assertEquals(n * (n - 1) / 2, b.reduction(0.0, DoubleVectorKernel.SUM, Double::sum), 0.0);
+        assertEquals(n - 1, b.reduction(Double.NEGATIVE_INFINITY, Math::max, Math::max), 0.0);
+        // Associative but not commutative, the last element
+        assertEquals(n - 1, b.reduction(0.0, (x, y) -> y, (x, y) -> y), 0.0);
+
+        var mean = DoubleMatrix.newDoubleMatrix(1, b.columns());
+        b.reductionColumn(mean,
+                j -> new double[2],
+                (acc, v) -> {
+                    acc[0] += v;
+                    acc[1]++;
+                    return acc;
+                },
+                (x, y) -> new double[]{x[0] + y[0], x[1] + y[1]},
+                acc -> acc[0] / acc[1]);
+        mean.forEach((i, j, v) -> assertEquals(j * 1000 + 999 / 2.0, v, 0.0));
+    }
+
+    @Test
+    public void testReductionRow() {
+        // Column-major and large enough to reduce in parallel
+        var a = DoubleMatrix.newDoubleMatrix(3000, 100);
+        a.setEach((i, j, v) -> i + j / 100.0);
+        var r = DoubleMatrix.newDoubleMatrix(a.rows(), 1);
+        a.reductionRow(r, DoubleVectorKernel.SUM);
+        r.forEach((i, j, v) -> assertEquals(i * 100 + 99 / 2.0, v, 1e-9));
+        a.reductionRow(r, DoubleVectorKernel.MAX_REDUCTION);
+        r.forEach((i, j, v) -> assertEquals(i + 0.99, v, 0.0));
+        a.reductionRow(r, (x, y) -> x + y * y);
+        r.forEach((i, j, v) -> {
+            double e = 0.0;
+            for (long k = 0; k < a.columns(); k++) {
+                e += a.get(i, k) * a.get(i, k);
+            }
+            assertEquals(e, v, 1e-6);
+        });
+
+        // A view with an offset
+        var sm = a.subMatrix(7, 3, 1001, 5);
+        var rs = DoubleMatrix.newDoubleMatrix(sm.rows(), 1);
+        sm.reductionRow(rs, DoubleVectorKernel.SUM);
+        rs.forEach((i, j, v) -> assertEquals((i + 7) * 5 + (3 + 4 + 5 + 6 + 7) / 100.0, v, 1e-9));
+
+        // A zero-offset row-major view with a padded row stride, reduced into a view with a padded stride
+        var ra = a.transpose().withTransOnly(Matrix.Trans.TRANSPOSE).subMatrix(0, 0, 1001, 5);
+        var rr = DoubleMatrix.newDoubleMatrix(2, 1001).withTransOnly(Matrix.Trans.TRANSPOSE).subMatrix(0, 0, 1001, 1);
+        ra.reductionRow(rr, DoubleVectorKernel.SUM);
+        rr.forEach((i, j, v) -> assertEquals(i * 5 + (1 + 2 + 3 + 4) / 100.0, v, 1e-9));
+        ra.reductionRow(rr, DoubleVectorKernel.MAX_REDUCTION);
+        rr.forEach((i, j, v) -> assertEquals(i + 0.04, v, 0.0));
+
+        // The column reduction of the kernel, delegating to its strided form
+        var c = DoubleMatrix.newDoubleMatrix(1, a.columns());
+        DoubleVectorKernel.SUM.reduceBroadcastVector(a.buffer(), c.buffer(), a.rows(), a.columns());
+        c.forEach((i, j, v) -> assertEquals(2999 * 3000 / 2.0 + j / 100.0 * 3000, v, 1e-6));
+    }
+
+    @Test
+    public void testVectorBroadcast() {
+        var a = DoubleMatrix.newDoubleMatrix(5000, 40);
+        a.setEach((i, j, v) -> i * 40 + j);
+        var col = DoubleMatrix.newDoubleMatrix(a.rows(), 1);
+        col.setEach((i, j, v) -> -i * 40);
+        var r = DoubleMatrix.newDoubleMatrix(a.rows(), a.columns());
+
+        // Column-major with a column-vector
+        for (var o : List.of(DoubleVectorKernel.ADD, DoubleVectorKernel.add(true))) {
+            a.elementwise(col, r, o);
+            r.forEach((i, j, v) -> assertEquals(j, v, 0.0));
+        }
+        a.elementwise(col, col, r, DoubleVectorKernel.FMA);
+        r.forEach((i, j, v) -> assertEquals(a.get(i, j) * col.get(i, 0) + col.get(i, 0), v, 0.0));
+
+        // Row-major with a row-vector
+        var ra = a.transpose().withTransOnly(Matrix.Trans.TRANSPOSE);
+        var rr = r.transpose().withTransOnly(Matrix.Trans.TRANSPOSE);
+        var row = DoubleMatrix.newDoubleMatrix(1, a.columns());
+        row.setEach((i, j, v) -> -j);
+        for (var o : List.of(DoubleVectorKernel.ADD, DoubleVectorKernel.add(true))) {
+            ra.elementwise(row, rr, o);
+            rr.forEach((i, j, v) -> assertEquals(i * 40, v, 0.0));
+        }
+        ra.elementwise(row, row, rr, DoubleVectorKernel.FMA);
+        rr.forEach((i, j, v) -> assertEquals(a.get(i, j) * -j - j, v, 0.0));
+    }
+
+    @Test
+    public void testDescribeColumns() {
+        // Several chunks per column, with a large mean
+        var a = DoubleMatrix.newDoubleMatrix(40000, 6);
+        a.randm();
+        a.elementwise(x -> 1e9 + x);
+        for (var m : List.of(a, a.transpose().withTransOnly(Matrix.Trans.TRANSPOSE))) {
+            var d = m.describeColumns(0.5);
+            assertEquals(6, d.rows());
+            for (long j = 0; j < m.columns(); j++) {
+                double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, sum = 0.0;
+                for (long i = 0; i < m.rows(); i++) {
+                    min = Math.min(min, m.get(i, j));
+                    max = Math.max(max, m.get(i, j));
+                    sum += m.get(i, j) - 1e9;
+                }
+                double mean = sum / m.rows();
+                double ss = 0.0;
+                for (long i = 0; i < m.rows(); i++) {
+                    double e = m.get(i, j) - 1e9 - mean;
+                    ss += e * e;
+                }
+                assertEquals(min, d.get(DoubleMatrix.Statistic.MIN.row(), j), 0.0);
+                assertEquals(max, d.get(DoubleMatrix.Statistic.MAX.row(), j), 0.0);
+                assertEquals(m.rows(), d.get(DoubleMatrix.Statistic.COUNT.row(), j), 0.0);
+                assertEquals(1e9 + mean, d.get(DoubleMatrix.Statistic.MEAN.row(), j), 1e-5);
+                assertEquals(ss / (m.rows() - 1), d.get(DoubleMatrix.Statistic.VARIANCE.row(), j), 1e-6);
+                assertEquals(1e9, d.get(5, j), 0.05);
+            }
+        }
+
+        // Exact quantiles
+        var b = DoubleMatrix.newDoubleMatrix(101, 2);
+        b.setEach((i, j, v) -> j == 0 ? 100 - i : i * 2);
+        var d = b.describeColumns(0.0, 0.25, 0.5, 1.0);
+        assertArrayEquals(new double[]{0, 25, 50, 100}, new double[]{d.get(5, 0), d.get(6, 0), d.get(7, 0), d.get(8, 0)}, 0.0);
+        assertEquals(50, d.get(DoubleMatrix.Statistic.MEAN.row(), 0), 0.0);
+        assertEquals(100, d.get(DoubleMatrix.Statistic.MEAN.row(), 1), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> b.describeColumns(1.5));
+
+        // No rows, every statistic but the count is NaN
+        var e = DoubleMatrix.newDoubleMatrix(0, 2).describeColumns(0.5);
+        for (long j = 0; j < e.columns(); j++) {
+            for (long i = 0; i < e.rows(); i++) {
+                if (i == DoubleMatrix.Statistic.COUNT.row()) {
+                    assertEquals(0, e.get(i, j), 0.0);
+                } else {
+                    assertTrue(Double.isNaN(e.get(i, j)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIdentityReduction() {
+        var a = DoubleMatrix.newDoubleMatrix(100, 3);
+        a.setEach((i, j, v) -> 10 + i + j);
+        assertEquals(10, a.reduction(DoubleVectorKernel.MIN_REDUCTION), 0.0);
+        assertEquals(111, a.reduction(DoubleVectorKernel.MAX_REDUCTION), 0.0);
+        assertEquals(5, a.reduction(5, DoubleVectorKernel.MIN_REDUCTION), 0.0);
+        assertEquals(10, a.reduction(Double.POSITIVE_INFINITY, Math::min), 0.0);
+        assertEquals(10, a.expr().reduce(DoubleVectorKernel.MIN_REDUCTION), 0.0);
+
+        var b = DoubleMatrix.newDoubleMatrix(10, 2);
+        b.setEach((i, j, v) -> j == 0 ? 2 : 0.5);
+        assertEquals(1, b.reduction(DoubleVectorKernel.PRODUCT), 0.0);
+        assertEquals(1, b.reduction(1.0, (x, y) -> x * y), 0.0);
+
+        var c = DoubleMatrix.newDoubleMatrix(1, 3);
+        a.reductionColumn(c, DoubleVectorKernel.MIN_REDUCTION);
+        c.forEach((i, j, v) -> assertEquals(10 + j, v, 0.0));
+        a.reductionColumn(c, 11, DoubleVectorKernel.MIN_REDUCTION);
+        c.forEach((i, j, v) -> assertEquals(Math.min(11, 10 + j), v, 0.0));
+        var r = DoubleMatrix.newDoubleMatrix(100, 1);
+        a.reductionRow(r, DoubleVectorKernel.MIN_REDUCTION);
+        r.forEach((i, j, v) -> assertEquals(10 + i, v, 0.0));
+        a.reductionRow(r, Double.NEGATIVE_INFINITY, Math::max);
+        r.forEach((i, j, v) -> assertEquals(12 + i, v, 0.0));
+
+        // Zero-offset views with padded strides, reduced into a zero-offset view
+        var sa = a.subMatrix(0, 0, 50, 2);
+        assertEquals(10, sa.reduction(DoubleVectorKernel.MIN_REDUCTION), 0.0);
+        assertEquals(60, sa.reduction(DoubleVectorKernel.MAX_REDUCTION), 0.0);
+        assertEquals(5, sa.reduction(5, DoubleVectorKernel.MIN_REDUCTION), 0.0);
+        assertEquals(50 * 10 + 50 * 49 / 2 + 50 * 11 + 50 * 49 / 2, sa.reduction(DoubleVectorKernel.SUM), 0.0);
+        var sb = b.subMatrix(0, 0, 3, 1);
+        assertEquals(8, sb.reduction(DoubleVectorKernel.PRODUCT), 0.0);
+        var sc = DoubleMatrix.newDoubleMatrix(2, 3);
+        sc.elementwise(x -> -1);
+        var sr = sc.subMatrix(0, 0, 1, 2);
+        sa.reductionColumn(sr, DoubleVectorKernel.MAX_REDUCTION);
+        sr.forEach((i, j, v) -> assertEquals(59 + j, v, 0.0));
+        sa.reductionColumn(sr, 60, DoubleVectorKernel.MAX_REDUCTION);
+        sr.forEach((i, j, v) -> assertEquals(60, v, 0.0));
+        sb.reductionColumn(sc.subMatrix(0, 0, 1, 1), DoubleVectorKernel.PRODUCT);
+        assertEquals(8, sc.get(0, 0), 0.0);
+        assertEquals(-1, sc.get(0, 2), 0.0);
+        sc.subMatrix(1, 0, 1, 3).forEach((i, j, v) -> assertEquals(-1, v, 0.0));
+        var rr = DoubleMatrix.newDoubleMatrix(100, 2);
+        var srr = rr.subMatrix(0, 0, 50, 1);
+        sa.reductionRow(srr, DoubleVectorKernel.MIN_REDUCTION);
+        srr.forEach((i, j, v) -> assertEquals(10 + i, v, 0.0));
+        sa.reductionRow(srr, DoubleVectorKernel.PRODUCT);
+        srr.forEach((i, j, v) -> assertEquals((10 + i) * (11 + i), v, 0.0));
+    }
+
+    @Test
+    public void testArgReduction() {
+        // Large enough to be parallel, with ties, NaN, and a column of NaN
+        var a = DoubleMatrix.newDoubleMatrix(3001, 67);
+        a.randm();
+        a.set(5, 1, 2.0);
+        a.set(7, 1, 2.0);
+        a.set(0, 2, Double.NaN);
+        a.set(9, 2, -2.0);
+        a.set(10, 2, -2.0);
+        a.subMatrix(0, 3, a.rows(), 1).elementwise(x -> Double.NaN);
+
+        for (var m : List.of(a, a.transpose().withTransOnly(Matrix.Trans.TRANSPOSE),
+                a.subMatrix(1, 1, 3000, 66))) {
+            for (boolean max : new boolean[]{true, false}) {
+                long[] columns = max ? m.argmaxColumn() : m.argminColumn();
+                long[] rows = max ? m.argmaxRow() : m.argminRow();
+                for (long j = 0; j < m.columns(); j++) {
+                    long e = -1;
+                    for (long i = 0; i < m.rows(); i++) {
+                        double v = m.get(i, j);
+                        if (v == v && (e < 0 || (max ? v > m.get(e, j) : v < m.get(e, j)))) {
+                            e = i;
+                        }
+                    }
+                    assertEquals(e, columns[(int) j]);
+                }
+                for (long i = 0; i < m.rows(); i++) {
+                    long e = -1;
+                    for (long j = 0; j < m.columns(); j++) {
+                        double v = m.get(i, j);
+                        if (v == v && (e < 0 || (max ? v > m.get(i, e) : v < m.get(i, e)))) {
+                            e = j;
+                        }
+                    }
+                    assertEquals(e, rows[(int) i]);
+                }
+            }
+        }
+        assertEquals(5, a.argmaxColumn()[1]);
+        assertEquals(9, a.argminColumn()[2]);
+        assertEquals(-1, a.argmaxColumn()[3]);
+    }
+
+    @Test
+    public void testVectorNorms() {
+        var x = DoubleMatrix.newDoubleMatrix(1, 3, new double[]{1, -2, 2});
+        var norm = DoubleMatrix.newDoubleMatrix(1, 1);
+
+        // The largest absolute element, not the largest absolute row sum of a 1 x 3 matrix
+        BLI.normiv(x, norm);
+        assertEquals(2, norm.get(0, 0), 0.0);
+
+        // All elements, not only those of the lower triangle of a 1 x 3 matrix
+        BLI.normfv(x.withUplo(Matrix.Uplo.LOWER), norm);
+        assertEquals(3, norm.get(0, 0), 1e-15);
+        BLI.normfv(x.transpose(), norm);
+        assertEquals(3, norm.get(0, 0), 1e-15);
+    }
+
+    @Test
+    public void testOperationEvents() throws IOException {
+        var a = DoubleMatrix.newDoubleMatrix(64, 32);
+        var b = DoubleMatrix.newDoubleMatrix(32, 16);
+        var c = DoubleMatrix.newDoubleMatrix(64, 16);
+        var t = DoubleMatrix.newDoubleMatrix(32, 64);
+        a.setEach((i, j, v) -> i + j);
+        b.setEach((i, j, v) -> i - j);
+
+        // Not recorded, the event is disabled by default
+        a.elementwise(DoubleVectorKernel.NEG);
+
+        Path file = Files.createTempFile("operations", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("oracle.blis.matrix.Operation");
+            recording.start();
+
+            BLI.gemm(Matrix.one(), a, b, Matrix.zero(), c);
+            BLI.gemm(Matrix.one(), ComplexDoubleMatrix.newComplexDoubleMatrix(4, 3),
+                    ComplexDoubleMatrix.newComplexDoubleMatrix(3, 2), Matrix.zero(),
+                    ComplexDoubleMatrix.newComplexDoubleMatrix(4, 2));
+            a.elementwise(DoubleVectorKernel.NEG);
+            a.elementwise(v -> -v);
+            a.transpose(t);
+            a.reduction(DoubleVectorKernel.SUM);
+
+            var x = ComplexDoubleMatrix.newComplexDoubleMatrix(5, 1);
+            BLI.normfv(x, DoubleMatrix.newDoubleMatrix(1, 1));
+            BLI.scalv(Matrix.two(), x);
+            x.elementwise(ComplexDoubleKernel.NEG);
+            x.transpose();
+            x.reduction(ComplexDoubleKernel.ADD);
+            var f = Matrix.newFloatMatrix(8, 4);
+            f.elementwise(FloatVectorKernel.NEG);
+            f.reduction(FloatVectorKernel.SUM);
+            f.transpose();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events;
+        try {
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+        Map<String, List<RecordedEvent>> byOperation = events.stream()
+                .filter(e -> e.getEventType().getName().equals("oracle.blis.matrix.Operation"))
+                .collect(Collectors.groupingBy(e -> e.getString("operation")));
+
+        assertEquals(2, byOperation.get("gemm").size());
+        RecordedEvent gemm = byOperation.get("gemm").get(0);
+        assertEquals(64, gemm.getLong("rows"));
+        assertEquals(16, gemm.getLong("columns"));
+        assertEquals(32, gemm.getLong("depth"));
+        assertEquals(2L * 64 * 16 * 32, gemm.getLong("flops"));
+        assertEquals((64 * 32 + 32 * 16 + 64 * 16) * Double.BYTES, gemm.getLong("bytes"));
+        assertEquals("DOUBLE", gemm.getString("dataType"));
+
+        RecordedEvent complexGemm = byOperation.get("gemm").get(1);
+        assertEquals("DCOMPLEX", complexGemm.getString("dataType"));
+        assertEquals(4 * 2L * 4 * 2 * 3, complexGemm.getLong("flops"));
+        assertEquals((4 * 3 + 3 * 2 + 4 * 2) * 2 * Double.BYTES, complexGemm.getLong("bytes"));
+        // No runtime is bound, so the threads are those of the global settings of BLIS
+        assertTrue(gemm.getLong("threads") >= 1);
+
+        // A complex norm costs two real multiply-adds per element, a complex scaling a complex multiply
+        assertEquals(4 * 5, byOperation.get("normfv").get(0).getLong("flops"));
+        assertEquals(6 * 5, byOperation.get("scalv").get(0).getLong("flops"));
+
+        Map<String, List<RecordedEvent>> unaryByType = byOperation.get("elementwiseUnary").stream()
+                .collect(Collectors.groupingBy(e -> e.getString("dataType")));
+        assertEquals(1, unaryByType.get("DCOMPLEX").size());
+        assertTrue(unaryByType.get("DCOMPLEX").get(0).getBoolean("fastPath"));
+        assertEquals(1, unaryByType.get("FLOAT").size());
+        assertEquals(8 * 4 * Float.BYTES, unaryByType.get("FLOAT").get(0).getLong("bytes"));
+        List<RecordedEvent> unary = unaryByType.get("DOUBLE");
+        assertEquals(2, unary.size());
+        assertTrue(unary.get(0).getBoolean("fastPath"));
+        assertEquals(false, unary.get(1).getBoolean("fastPath"));
+        assertEquals(64 * 32, unary.get(1).getLong("flops"));
+        assertEquals(64 * 32 * Double.BYTES, unary.get(1).getLong("bytes"));
+        assertEquals(1, unary.get(1).getLong("rowStride"));
+        assertEquals(64, unary.get(1).getLong("columnStride"));
+
+        Map<String, RecordedEvent> transposeByType = byOperation.get("transpose").stream()
+                .collect(Collectors.toMap(e -> e.getString("dataType"), e -> e));
+        RecordedEvent transpose = transposeByType.get("DOUBLE");
+        assertEquals(32, transpose.getLong("rows"));
+        assertEquals(2 * 64 * 32 * Double.BYTES, transpose.getLong("bytes"));
+        assertEquals(Set.of("DOUBLE", "FLOAT", "DCOMPLEX"), transposeByType.keySet());
+
+        Map<String, RecordedEvent> reductionByType = byOperation.get("reduction").stream()
+                .collect(Collectors.toMap(e -> e.getString("dataType"), e -> e));
+        RecordedEvent reduction = reductionByType.get("DOUBLE");
+        assertEquals(64, reduction.getLong("rows"));
+        assertTrue(reduction.getBoolean("fastPath"));
+        assertTrue(reductionByType.get("FLOAT").getBoolean("fastPath"));
+        assertEquals(5, reductionByType.get("DCOMPLEX").getLong("flops"));
+    }
+
+    @Test
+    public void testHermitianOperations() {
+        for (var dt : List.of(Matrix.DataType.DCOMPLEX, Matrix.DataType.SCOMPLEX)) {
+            double epsilon = dt == Matrix.DataType.DCOMPLEX ? 1e-12 : 1e-5;
+
+            // Hermitian A stored in the lower triangle, with a garbage upper triangle that must not be referenced
+            var a = complexMatrix(dt, 4, 4, 0);
+            var h = ComplexDoubleMatrix.newComplexDoubleMatrix(4, 4);
+            var stored = toComplexDouble(a);
+            for (long i = 0; i < 4; i++) {
+                for (long j = 0; j < 4; j++) {
+                    ComplexDouble v = stored.get(Math.max(i, j), Math.min(i, j));
+                    h.set(i, j, i == j ? new ComplexDouble(v.re(), 0) : i > j ? v : v.conj());
+                }
+            }
+            var ha = a.withStruc(Matrix.Structure.HERMITIAN).withUplo(Matrix.Uplo.LOWER);
+
+            // hemm, A on the left and on the right
+            var b = complexMatrix(dt, 4, 3, 1);
+            var c = Matrix.newMatrix(dt, 4, 3);
+            BLI.hemm(Matrix.Side.LEFT, Matrix.one(), ha, b, Matrix.zero(), c);
+            assertComplexEquals(complexProduct(h, toComplexDouble(b)), c, false, epsilon);
+
+            var br = complexMatrix(dt, 3, 4, 2);
+            var cr = Matrix.newMatrix(dt, 3, 4);
+            BLI.hemm(Matrix.Side.RIGHT, Matrix.one(), ha, br, Matrix.zero(), cr);
+            assertComplexEquals(complexProduct(toComplexDouble(br), h), cr, false, epsilon);
+
+            // hemm with the conjugate transpose of B
+            var bh = br.withConjTrans(Matrix.Trans.CONJ_TRANSPOSE);
+            BLI.hemm(Matrix.Side.LEFT, Matrix.one(), ha, bh, Matrix.zero(), c);
+            assertComplexEquals(complexProduct(h, toComplexDouble(bh)), c, false, epsilon);
+
+            // A general, with non-zero imaginary parts on its diagonal, so that a product without the
+            // conjugation of A^H has a complex diagonal
+            var g = complexMatrix(dt, 4, 3, 3);
+            assertTrue(toComplexDouble(g).get(1, 1).im() != 0);
+            var gh = conjTranspose(toComplexDouble(g));
+
+            // herk, C := A * A^H, updating the lower triangle of C
+            var ck = Matrix.newMatrix(dt, 4, 4).withStruc(Matrix.Structure.HERMITIAN).withUplo(Matrix.Uplo.LOWER);
+            BLI.herk(Matrix.one(), g, Matrix.zero(), ck);
+            var expected = complexProduct(toComplexDouble(g), gh);
+            assertComplexEquals(expected, ck, true, epsilon);
+            for (long i = 0; i < 4; i++) {
+                assertEquals(0.0, toComplexDouble(ck).get(i, i).im(), epsilon);
+            }
+
+            // herk of a conjugate transpose view, C := A^H * A
+            var ckt = Matrix.newMatrix(dt, 3, 3).withStruc(Matrix.Structure.HERMITIAN).withUplo(Matrix.Uplo.LOWER);
+            BLI.herk(Matrix.one(), g.withConjTrans(Matrix.Trans.CONJ_TRANSPOSE), Matrix.zero(), ckt);
+            assertComplexEquals(complexProduct(gh, toComplexDouble(g)), ckt, true, epsilon);
+
+            // her2k, C := A * B^H + B * A^H
+            var g2 = complexMatrix(dt, 4, 3, 4);
+            var c2 = Matrix.newMatrix(dt, 4, 4).withStruc(Matrix.Structure.HERMITIAN).withUplo(Matrix.Uplo.LOWER);
+            BLI.her2k(Matrix.one(), g, g2, Matrix.zero(), c2);
+            var ab = complexProduct(toComplexDouble(g), conjTranspose(toComplexDouble(g2)));
+            var ba = complexProduct(toComplexDouble(g2), gh);
+            ab.elementwise(ba, ComplexDoubleKernel.ADD);
+            assertComplexEquals(ab, c2, true, epsilon);
+        }
+    }
+
+    @Test
+    public void testComplexKernels() {
+        var a = (ComplexDoubleMatrix) complexMatrix(Matrix.DataType.DCOMPLEX, 5, 3, 0);
+        var b = (ComplexDoubleMatrix) complexMatrix(Matrix.DataType.DCOMPLEX, 5, 3, 1);
+        var row = (ComplexDoubleMatrix) complexMatrix(Matrix.DataType.DCOMPLEX, 1, 3, 2);
+        var h = b.withConjTrans(Matrix.Trans.CONJ_NO_TRANSPOSE);
+        List<BinaryOperator<ComplexDouble>> kernels = List.of(
+                ComplexDoubleKernel.ADD, ComplexDoubleKernel.SUB, ComplexDoubleKernel.MUL);
+        List<BinaryOperator<ComplexDouble>> boxed = List.of(
+                ComplexDouble::add, ComplexDouble::sub, ComplexDouble::mul);
+        for (int k = 0; k < kernels.size(); k++) {
+            for (var that : List.of(b, row, h)) {
+                var expected = ComplexDoubleMatrix.newComplexDoubleMatrix(5, 3);
+                a.elementwise(that, expected, boxed.get(k));
+                var actual = ComplexDoubleMatrix.newComplexDoubleMatrix(5, 3);
+                a.elementwise(that, actual, kernels.get(k));
+                assertTrue(expected.equals(actual));
+            }
+            assertEquals(a.reduction(ComplexDoubleMatrix.identity(kernels.get(k)), boxed.get(k)),
+                    a.reduction(kernels.get(k)));
+        }
+
+        var r = ComplexDoubleMatrix.newComplexDoubleMatrix(5, 3);
+        a.elementwise(r, ComplexDoubleKernel.CONJ);
+        r.forEach((i, j, v) -> assertEquals(a.get(i, j).conj(), v));
+        h.elementwise(r, ComplexDoubleKernel.NEG);
+        r.forEach((i, j, v) -> assertEquals(b.get(i, j).conj().neg(), v));
+
+        var f = (ComplexFloatMatrix) complexMatrix(Matrix.DataType.SCOMPLEX, 5, 3, 0);
+        var g = (ComplexFloatMatrix) complexMatrix(Matrix.DataType.SCOMPLEX, 5, 3, 1);
+        var fr = ComplexFloatMatrix.newComplexFloatMatrix(5, 3);
+        f.elementwise(g, fr, ComplexFloatKernel.MUL);
+        fr.forEach((i, j, v) -> assertEquals(f.get(i, j).mul(g.get(i, j)), v));
+        assertEquals(f.reduction(ComplexFloat::add), f.reduction(ComplexFloatKernel.ADD));
+
+        // Products are seeded with one, i * i * 2 = -2
+        var p = Matrix.newComplexDoubleMatrix(1, 3, new double[]{0, 1, 0, 1, 2, 0});
+        assertEquals(new ComplexDouble(-2, 0), p.reduction(ComplexDoubleKernel.MUL));
+        assertEquals(new ComplexDouble(-2, 0), p.reduction(ComplexDouble.ONE, ComplexDouble::mul));
+        assertEquals(new ComplexDouble(-4, 0), p.reduction(new ComplexDouble(2, 0), ComplexDoubleKernel.MUL));
+        var fp = Matrix.newComplexFloatMatrix(1, 3, new float[]{0, 1, 0, 1, 2, 0});
+        assertEquals(new ComplexFloat(-2, 0), fp.reduction(ComplexFloatKernel.MUL));
+        assertEquals(new ComplexFloat(-2, 0), fp.reduction(ComplexFloat.ONE, ComplexFloat::mul));
+    }
+
+    // A complex matrix of the datatype whose parts are a deterministic sequence for the seed
+    static Matrix<?> complexMatrix(Matrix.DataType dt, long rows, long columns, int seed) {
+        int n = Math.toIntExact(rows * columns * 2);
+        double[] parts = new double[n];
+        for (int k = 0; k < n; k++) {
+            parts[k] = Math.sin(k * 0.7 + seed);
+        }
+        if (dt == Matrix.DataType.DCOMPLEX) {
+            return Matrix.newComplexDoubleMatrix(rows, columns, parts);
+        }
+        float[] fparts = new float[n];
+        for (int k = 0; k < n; k++) {
+            fparts[k] = (float) parts[k];
+        }
+        return Matrix.newComplexFloatMatrix(rows, columns, fparts);
+    }
+
+    static ComplexDoubleMatrix toComplexDouble(Matrix<?> m) {
+        var r = ComplexDoubleMatrix.newComplexDoubleMatrix(m.rows(), m.columns());
+        if (m instanceof ComplexFloatMatrix f) {
+            r.setEach((i, j, v) -> new ComplexDouble(f.get(i, j).re(), f.get(i, j).im()));
+        } else {
+            var d = (ComplexDoubleMatrix) m;
+            r.setEach((i, j, v) -> d.get(i, j));
+        }
+        return r;
+    }
+
+    static ComplexDoubleMatrix conjTranspose(ComplexDoubleMatrix m) {
+        var r = ComplexDoubleMatrix.newComplexDoubleMatrix(m.columns(), m.rows());
+        r.setEach((i, j, v) -> m.get(j, i).conj());
+        return r;
+    }
+
+    static ComplexDoubleMatrix complexProduct(ComplexDoubleMatrix a, ComplexDoubleMatrix b) {
+        var r = ComplexDoubleMatrix.newComplexDoubleMatrix(a.rows(), b.columns());
+        r.setEach((i, j, v) -> {
+            ComplexDouble acc = ComplexDouble.ZERO;
+            for (long k = 0; k < a.columns(); k++) {
+                acc = acc.add(a.get(i, k).mul(b.get(k, j)));
+            }
+            return acc;
+        });
+        return r;
+    }
+
+    // Compares all elements, or only those of the lower triangle
+    static void assertComplexEquals(ComplexDoubleMatrix expected, Matrix<?> actual, boolean lower, double epsilon) {
+        var a = toComplexDouble(actual);
+        expected.forEach((i, j, v) -> {
+            if (!lower || i >= j) {
+                assertEquals(v.re(), a.get(i, j).re(), epsilon);
+                assertEquals(v.im(), a.get(i, j).im(), epsilon);
+            }
+        });
+    }
+
+    static DoubleMatrix product(DoubleMatrix a, DoubleMatrix b) {
+        var r = DoubleMatrix.newDoubleMatrix(a.rows(), b.columns());
+        r.setEach((i, j, v) -> {
+            double acc = 0.0;
+            for (long k = 0; k < a.columns(); k++) {
+                acc += a.get(i, k) * b.get(k, j);
+            }
+            return acc;
+        });
+        return r;
+    }
+
     static DoubleMatrix columnStd(DoubleMatrix data, DoubleMatrix mean, boolean isBiasCorrected) {
         DoubleMatrix std = Matrix.newDoubleMatrix(1, data.columns());
         double x = isBiasCorrected ? data.rows() - 1.0 : data.rows();